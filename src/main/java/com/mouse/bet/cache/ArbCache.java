@@ -1,4 +1,146 @@
 package com.mouse.bet.cache;
 
+import com.mouse.bet.entity.Arb;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Authoritative live store for active arbs.
+ * ArbService applies continuity, odds range and peak-profit updates to the instance held here;
+ * every update marks the arb dirty and the write-behind writer flushes dirty arbs to JPA in batches,
+ * so the database is a durable trail rather than the source of truth.
+ *
+ * All access to one arb goes through {@link #update}, {@link #mutate} or {@link #read}, which run under
+ * that key's map lock, so a flush never copies a half-applied update. Readers must not change the arb.
+ */
+@Slf4j
+@Component
 public class ArbCache {
+
+    private final Map<String, Arb> live = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Drained by the write-behind writer and not yet settled by completeFlush; never evicted meanwhile
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Apply a mutation to the live arb (null if not yet tracked) and mark it dirty.
+     * The mutation must return the instance to keep and must not block.
+     */
+    public Arb update(String arbId, UnaryOperator<Arb> mutation) {
+        return live.compute(arbId, (id, current) -> {
+            Arb next = mutation.apply(current);
+            if (next != null) {
+                dirty.add(id);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Change an already tracked arb under its lock; it is marked dirty, before the lock is released,
+     * only if the mutation returns true. False for untracked arbs.
+     */
+    public boolean mutate(String arbId, Predicate<Arb> mutation) {
+        boolean[] changed = new boolean[1];
+        live.computeIfPresent(arbId, (id, current) -> {
+            if (mutation.test(current)) {
+                dirty.add(id);
+                changed[0] = true;
+            }
+            return current;
+        });
+        return changed[0];
+    }
+
+    /**
+     * Read the live arb under its lock; empty if the arb is not tracked.
+     */
+    public <T> Optional<T> read(String arbId, Function<Arb, T> reader) {
+        Object[] out = new Object[1];
+        live.computeIfPresent(arbId, (id, current) -> {
+            out[0] = reader.apply(current);
+            return current;
+        });
+        @SuppressWarnings("unchecked")
+        T value = (T) out[0];
+        return Optional.ofNullable(value);
+    }
+
+    public boolean contains(String arbId) {
+        return live.containsKey(arbId);
+    }
+
+    /**
+     * Unlocked view of the live arbs; callers must not mutate what they get back.
+     */
+    public Collection<Arb> values() {
+        return live.values();
+    }
+
+    public void markDirty(String arbId) {
+        if (live.containsKey(arbId)) {
+            dirty.add(arbId);
+        }
+    }
+
+    /**
+     * Take up to {@code max} dirty arbIds for flushing; an arb updated after this call is dirty again.
+     * Taken arbs stay in flight, and cannot be evicted, until {@link #completeFlush} is called for them;
+     * an arb already in flight is left dirty for a later drain.
+     */
+    public List<String> drainDirty(int max) {
+        List<String> batch = new ArrayList<>(Math.min(max, dirty.size()));
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext() && batch.size() < max) {
+            String arbId = it.next();
+            if (inFlight.add(arbId)) {
+                it.remove();
+                batch.add(arbId);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Settle drained arbs once their flush has committed or they have been marked dirty again
+     */
+    public void completeFlush(Collection<String> arbIds) {
+        inFlight.removeAll(arbIds);
+    }
+
+    /**
+     * Drop the arb if it is clean, not being flushed and the predicate holds under its lock;
+     * a later re-detection starts a new live arb.
+     */
+    public boolean evictIf(String arbId, Predicate<Arb> evictable) {
+        boolean[] removed = new boolean[1];
+        live.computeIfPresent(arbId, (id, arb) -> {
+            if (!dirty.contains(id) && !inFlight.contains(id) && evictable.test(arb)) {
+                removed[0] = true;
+                return null;
+            }
+            return arb;
+        });
+        return removed[0];
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
 }
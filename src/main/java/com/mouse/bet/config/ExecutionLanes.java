@@ -0,0 +1,512 @@
+package com.mouse.bet.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The shared, bounded executors of the pipeline. Fetchers, the detector, the orchestrator and the
+ * write-behind writers run their work on one of the named lanes below instead of building private
+ * pools, so every thread count is configured here and every lane publishes queue depth, active
+ * threads, rejections and latency.
+ *
+ * A full lane runs the task on the submitting thread, which slows the upstream stage down instead of dropping work.
+ *
+ * In virtual-thread mode (the {@code virtual-threads} Spring profile on Java 21) the blocking lanes and the
+ * long-running loops built through {@link #blockingExecutor} run on virtual threads. A blocking lane then starts
+ * a virtual thread per task and a semaphore of {@code exec.virtual-threads.max-in-flight} replaces its thread count.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecutionLanes {
+
+    public enum Lane {
+        /** List and event detail HTTP fetches. */
+        INGEST(true),
+        /** Parsing and normalising fetched payloads. */
+        PARSE(false),
+        /** Single-writer detection shards; these own dedicated threads built by {@link #threadFactory}. */
+        DETECT(false),
+        /** Serial per-arb command lanes; like DETECT they own dedicated threads built by {@link #threadFactory}. */
+        COMMAND(false),
+        /** Database work kept off the fetch path. */
+        PERSIST(true),
+        /** Arb completion handling. */
+        EXECUTE(false);
+
+        /** Tasks on this lane mostly wait on I/O, so they may run on virtual threads. */
+        private final boolean blocking;
+
+        Lane(boolean blocking) {
+            this.blocking = blocking;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${exec.lane.ingest.threads:32}")
+    private int ingestThreads = 32;
+
+    @Value("${exec.lane.ingest.queue-capacity:2000}")
+    private int ingestQueueCapacity = 2000;
+
+    // 0 = one thread per core
+    @Value("${exec.lane.parse.threads:0}")
+    private int parseThreads;
+
+    @Value("${exec.lane.parse.queue-capacity:2000}")
+    private int parseQueueCapacity = 2000;
+
+    // 0 = one shard per core
+    @Value("${exec.lane.detect.threads:0}")
+    private int detectThreads;
+
+    // 0 = one lane per core
+    @Value("${exec.lane.command.threads:0}")
+    private int commandThreads;
+
+    @Value("${exec.lane.persist.threads:2}")
+    private int persistThreads = 2;
+
+    @Value("${exec.lane.persist.queue-capacity:1000}")
+    private int persistQueueCapacity = 1000;
+
+    @Value("${exec.lane.execute.threads:2}")
+    private int executeThreads = 2;
+
+    @Value("${exec.lane.execute.queue-capacity:256}")
+    private int executeQueueCapacity = 256;
+
+    /** Timers only: scheduled tasks hand their work to a lane and must not block. */
+    @Value("${exec.scheduler.threads:2}")
+    private int schedulerThreads = 2;
+
+    /** Only honoured on a Java 21+ runtime; the virtual-threads Spring profile switches it on. */
+    @Value("${exec.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // Concurrent tasks per blocking lane in virtual-thread mode
+    @Value("${exec.virtual-threads.max-in-flight:512}")
+    private int virtualMaxInFlight = 512;
+
+    private boolean virtualThreads;
+    private final Map<Lane, LanePool> pools = new EnumMap<>(Lane.class);
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @PostConstruct
+    public void init() {
+        virtualThreads = virtualThreadsEnabled && virtualThreadFactory("lane-probe") != null;
+        if (virtualThreadsEnabled && !virtualThreads) {
+            log.warn("⚠️ Virtual threads requested but Java {} has none - using platform threads", Runtime.version().feature());
+        }
+
+        start(Lane.INGEST, ingestThreads, ingestQueueCapacity);
+        start(Lane.PARSE, orCores(parseThreads), parseQueueCapacity);
+        start(Lane.PERSIST, persistThreads, persistQueueCapacity);
+        start(Lane.EXECUTE, executeThreads, executeQueueCapacity);
+
+        scheduler = new ScheduledThreadPoolExecutor(schedulerThreads, namedFactory("lane-scheduler"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        Gauge.builder("exec.scheduler.pending", scheduler, s -> s.getQueue().size()).register(meterRegistry);
+
+        log.info("Execution lanes started | ingest={} parse={} detect={} command={} persist={} execute={} scheduler={} virtual={}",
+                threads(Lane.INGEST), threads(Lane.PARSE), threads(Lane.DETECT), threads(Lane.COMMAND),
+                threads(Lane.PERSIST), threads(Lane.EXECUTE), schedulerThreads, virtualThreads);
+    }
+
+    private void start(Lane lane, int threads, int queueCapacity) {
+        ExecutorService perTask = virtualThreads && lane.blocking
+                ? threadPerTaskExecutor(virtualThreadFactory("lane-" + lane.key()))
+                : null;
+        LanePool pool = perTask != null
+                ? new VirtualLanePool(lane, virtualMaxInFlight, queueCapacity, perTask, meterRegistry)
+                : new PlatformLanePool(lane, threads, queueCapacity, namedFactory("lane-" + lane.key()), meterRegistry);
+        pools.put(lane, pool);
+
+        Gauge.builder("exec.lane.queue.depth", pool, LanePool::queueDepth)
+                .tag("lane", lane.key())
+                .register(meterRegistry);
+        Gauge.builder("exec.lane.active", pool, LanePool::active)
+                .tag("lane", lane.key())
+                .register(meterRegistry);
+        FunctionCounter.builder("exec.lane.rejected", pool.rejected, AtomicLong::get)
+                .tag("lane", lane.key())
+                .register(meterRegistry);
+    }
+
+    private static int orCores(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The shared pool behind a lane; DETECT and COMMAND have none because they keep their own threads
+     */
+    public Executor executor(Lane lane) {
+        LanePool pool = pools.get(lane);
+        if (pool == null) {
+            throw new IllegalArgumentException("Lane " + lane + " runs on dedicated threads");
+        }
+        return pool;
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public int threads(Lane lane) {
+        LanePool pool = pools.get(lane);
+        if (pool != null) {
+            return pool.threads;
+        }
+        return orCores(lane == Lane.COMMAND ? commandThreads : detectThreads);
+    }
+
+    /**
+     * Daemon threads named after the lane, for stages that need a dedicated loop thread
+     */
+    public ThreadFactory threadFactory(Lane lane) {
+        return namedFactory("lane-" + lane.key());
+    }
+
+    /**
+     * Executor for long-running blocking loops: a thread per task in virtual-thread mode, otherwise a
+     * fixed pool; pass a factory from {@link #blockingThreadFactory} so the threads match the mode
+     */
+    public ExecutorService blockingExecutor(ThreadFactory threads, int platformThreads) {
+        ExecutorService perTask = virtualThreads ? threadPerTaskExecutor(threads) : null;
+        return perTask != null ? perTask : Executors.newFixedThreadPool(platformThreads, threads);
+    }
+
+    /**
+     * Threads for a blocking loop; virtual threads are always daemon, so {@code daemon} only applies to platform threads
+     */
+    public ThreadFactory blockingThreadFactory(String name, boolean daemon) {
+        ThreadFactory virtual = virtualThreads ? virtualThreadFactory(name) : null;
+        if (virtual != null) {
+            return virtual;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(daemon);
+            return t;
+        };
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Run the task on the lane at a fixed rate; a tick is skipped while the previous run is still going,
+     * and when the lane is full, since running it on the submitting scheduler thread would stall every timer
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Lane lane, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Executor executor = executor(lane);
+        AtomicBoolean busy = new AtomicBoolean();
+        return scheduler.scheduleAtFixedRate(() -> {
+            if (busy.compareAndSet(false, true)) {
+                executor.execute(new LaneTick(task, busy));
+            }
+        }, initialDelay, period, unit);
+    }
+
+    public int queueDepth(Lane lane) {
+        LanePool pool = pools.get(lane);
+        return pool != null ? pool.queueDepth() : 0;
+    }
+
+    public long rejected(Lane lane) {
+        LanePool pool = pools.get(lane);
+        return pool != null ? pool.rejected.get() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pools.values().forEach(LanePool::shutdown);
+        try {
+            for (LanePool pool : pools.values()) {
+                if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                    pool.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            pools.values().forEach(LanePool::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+        log.info("Execution lanes stopped");
+    }
+
+    private static ThreadFactory namedFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * {@code Thread.ofVirtual().name(prefix, 0).factory()}, looked up reflectively so the default Java 17
+     * build still compiles; null when the runtime has no virtual threads
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code Executors.newThreadPerTaskExecutor(threads)}, looked up reflectively like {@link #virtualThreadFactory};
+     * null when the runtime has none
+     */
+    private static ExecutorService threadPerTaskExecutor(ThreadFactory threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threads);
+        } catch (ReflectiveOperationException e) {
+            log.warn("⚠️ Thread-per-task executor unavailable - using platform threads");
+            return null;
+        }
+    }
+
+    /**
+     * One fixed-rate run; releases the schedule's busy flag when done, or when the lane turns it away
+     */
+    private record LaneTick(Runnable task, AtomicBoolean busy) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                busy.set(false);
+            }
+        }
+
+        void skip() {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * The executor behind a lane; times how long each task waited and ran, and handles overflow
+     */
+    private abstract static class LanePool implements Executor {
+
+        final int threads;
+        final AtomicLong rejected = new AtomicLong();
+        private final Timer waitTimer;
+        private final Timer runTimer;
+
+        LanePool(Lane lane, int threads, MeterRegistry meterRegistry) {
+            this.threads = threads;
+            this.waitTimer = Timer.builder("exec.lane.wait").tag("lane", lane.key()).register(meterRegistry);
+            this.runTimer = Timer.builder("exec.lane.run").tag("lane", lane.key()).register(meterRegistry);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            submit(new Timed(command, System.nanoTime()));
+        }
+
+        abstract void submit(Timed task);
+
+        abstract int queueDepth();
+
+        abstract int active();
+
+        abstract void shutdown();
+
+        abstract boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+        abstract void shutdownNow();
+
+        // Count the overflow, then run it on the submitter; a fixed-rate tick is skipped instead,
+        // and after shutdown everything is dropped
+        void overflow(Timed task, boolean shutdown) {
+            rejected.incrementAndGet();
+            if (task.command instanceof LaneTick tick) {
+                tick.skip();
+            } else if (!shutdown) {
+                task.run();
+            }
+        }
+
+        final class Timed implements Runnable {
+            private final Runnable command;
+            private final long queuedAt;
+
+            Timed(Runnable command, long queuedAt) {
+                this.command = command;
+                this.queuedAt = queuedAt;
+            }
+
+            @Override
+            public void run() {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    command.run();
+                } finally {
+                    runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed-size pool of platform threads over a bounded queue
+     */
+    private static final class PlatformLanePool extends LanePool {
+
+        private final ThreadPoolExecutor pool;
+
+        PlatformLanePool(Lane lane, int threads, int queueCapacity, ThreadFactory threadFactory, MeterRegistry meterRegistry) {
+            super(lane, threads, meterRegistry);
+            this.pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    threadFactory, (task, executor) -> overflow((Timed) task, executor.isShutdown()));
+        }
+
+        @Override
+        void submit(Timed task) {
+            pool.execute(task);
+        }
+
+        @Override
+        int queueDepth() {
+            return pool.getQueue().size();
+        }
+
+        @Override
+        int active() {
+            return pool.getActiveCount();
+        }
+
+        @Override
+        void shutdown() {
+            pool.shutdown();
+        }
+
+        @Override
+        boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return pool.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        void shutdownNow() {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * A virtual thread per task, at most {@code threads} of them running; the rest park on the semaphore,
+     * and those parked threads are the lane's queue
+     */
+    private static final class VirtualLanePool extends LanePool {
+
+        private final ExecutorService perTask;
+        private final Semaphore inFlight;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final int queueCapacity;
+
+        VirtualLanePool(Lane lane, int maxInFlight, int queueCapacity, ExecutorService perTask, MeterRegistry meterRegistry) {
+            super(lane, maxInFlight, meterRegistry);
+            this.perTask = perTask;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.queueCapacity = queueCapacity;
+        }
+
+        @Override
+        void submit(Timed task) {
+            if (waiting.incrementAndGet() > queueCapacity + inFlight.availablePermits()) {
+                waiting.decrementAndGet();
+                overflow(task, perTask.isShutdown());
+                return;
+            }
+            try {
+                perTask.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                waiting.decrementAndGet();
+                overflow(task, true);
+            }
+        }
+
+        private void run(Timed task) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                waiting.decrementAndGet();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            waiting.decrementAndGet();
+            try {
+                task.run();
+            } finally {
+                inFlight.release();
+            }
+        }
+
+        @Override
+        int queueDepth() {
+            return Math.max(0, waiting.get() - inFlight.availablePermits());
+        }
+
+        @Override
+        int active() {
+            return threads - inFlight.availablePermits();
+        }
+
+        @Override
+        void shutdown() {
+            perTask.shutdown();
+        }
+
+        @Override
+        boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return perTask.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        void shutdownNow() {
+            perTask.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mouse.bet.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hit ratio per second-level cache region, next to the raw hit/miss counters Hibernate already
+ * publishes; visible under /actuator/metrics/hibernate.cache.hit.ratio
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+
+    private static final List<String> REGIONS = List.of("wallet", "arb", "arb-legs", "bet-leg");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void register() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : REGIONS) {
+            Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                            s -> regionHitRatio(s.getDomainDataRegionStatistics(region)))
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                        s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .tag("region", "query")
+                .register(meterRegistry);
+
+        log.info("Second-level cache hit ratio gauges registered for regions {}", REGIONS);
+    }
+
+    private static double regionHitRatio(CacheRegionStatistics region) {
+        return region == null ? 0.0 : ratio(region.getHitCount(), region.getMissCount());
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
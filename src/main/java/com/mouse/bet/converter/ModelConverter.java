@@ -17,12 +17,23 @@ public class ModelConverter {
                                      BigDecimal stake,
                                      BigDecimal rawStake,
                                      boolean primaryLeg) {
+        return fromOutcome(outcome, stake, rawStake, primaryLeg ? 0 : 1);
+    }
+
+    /**
+     * Build the leg at a given position; index 0 is the primary leg.
+     */
+    public static BetLeg fromOutcome(NormalizedOutcome outcome,
+                                     BigDecimal stake,
+                                     BigDecimal rawStake,
+                                     int legIndex) {
         Objects.requireNonNull(outcome, "outcome must not be null");
 
 
         return BetLeg.builder()
                 .bookmaker(outcome.getBookmaker())
                 .eventId(outcome.getEventId())
+                .normalEventId(outcome.getNormalEventId())
                 .homeTeam(outcome.getHomeTeam())
                 .awayTeam(outcome.getAwayTeam())
                 .league(outcome.getLeague())
@@ -37,7 +48,8 @@ public class ModelConverter {
 
                 .status(BetLegStatus.PENDING)
                 .attemptCount(0)
-                .isPrimaryLeg(primaryLeg)
+                .isPrimaryLeg(legIndex == 0)
+                .legIndex(legIndex)
 
                 .rawStake(rawStake)
                 .stake(stake)
@@ -1,5 +1,7 @@
 package com.mouse.bet.detector;
 
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
 import com.mouse.bet.entity.Arb;
 import com.mouse.bet.enums.BookMaker;
 import com.mouse.bet.enums.Status;
@@ -8,21 +10,27 @@ import com.mouse.bet.model.NormalizedEvent;
 import com.mouse.bet.logservice.ArbitrageLogService;
 import com.mouse.bet.model.msport.MSportEvent;
 import com.mouse.bet.service.ArbService;
+import com.mouse.bet.utils.ArbCalculator;
 import com.mouse.bet.utils.ArbFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 /**
  * Detects arbitrage opportunities from incoming events and validates wallet balances.
+ * Snapshots are folded into an incremental {@link OddsBook}; only pairs whose prices moved are re-evaluated.
+ * Each eventId is owned by one {@link DetectionShard} thread, so detection needs no per-event locks.
+ * Re-detected arbs pass through an {@link ArbForwardGate} so ArbService only sees real changes.
  * Automatically cleans up events older than 3-5 seconds to maintain performance.
  */
 @Slf4j
@@ -30,183 +38,175 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ArbDetector {
 
-    private final Map<String, ConcurrentLinkedQueue<NormalizedEvent>> eventCache = new ConcurrentHashMap<>();
+    private final OddsBook oddsBook = new OddsBook(EVENT_EXPIRY_SECONDS * 1000L);
     private final BlockingQueue<Arb> arbQueue = new LinkedBlockingQueue<>();
-    private final ConcurrentHashMap<String, Object> eventLocks = new ConcurrentHashMap<>();
 
-    private final ExecutorService detectionExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);;
-    private final ExecutorService arbProcessorExecutor = Executors.newSingleThreadExecutor();
+    private DetectionShard[] shards;
+    private ArbForwardGate forwardGate;
+    private ExecutorService arbProcessorExecutor;
+    private ScheduledFuture<?> cleanupSchedule;
     private volatile boolean running = true;
 
     private final WalletService walletService;
     private final ArbitrageLogService arbitrageLogService;
     private final ArbFactory arbFactory;
     private final ArbService arbService;
+    private final LiveOddsBoard liveOddsBoard;
+    private final MeterRegistry meterRegistry;
+    private final ExecutionLanes executionLanes;
+
+    @Value("${arb.detector.shard.capacity:1024}")
+    private int shardCapacity;
+
+    // Collapse snapshots queued for the same eventId into one detection run
+    @Value("${arb.detector.coalesce:true}")
+    private boolean coalesce;
+
+    // Re-detections are forwarded to ArbService only if a leg moved at least this much (decimal odds)
+    @Value("${arb.detector.forward.odds-epsilon:0.01}")
+    private double forwardOddsEpsilon;
+
+    // Unchanged arbs are still forwarded this often; keep below the bettable freshness cutoff (2s)
+    @Value("${arb.detector.forward.heartbeat-ms:1000}")
+    private long forwardHeartbeatMillis;
 
     private static final int EVENT_EXPIRY_SECONDS = 2;
-    private static final int MAX_EVENTS_PER_GROUP = 50;
+    // Live prices outlive detection books: the revalidator accepts quotes up to one backed-off list cadence (15s) old
+    private static final int LIVE_PRICE_EXPIRY_SECONDS = 60;
+    private static final long CLEANUP_INTERVAL_SECONDS = 30;
 
     @PostConstruct
     public void init() {
+        startForwardGate();
+        startDetectionShards();
         startArbProcessor();
+        startCleanup();
         arbitrageLogService.logInfo("ArbDetector started", null);
         log.info("ArbDetector started");
     }
 
     /**
-     * Add event to cache and trigger arbitrage detection
+     * Add event to the odds book and trigger arbitrage detection
      */
     public void addEventToPool(NormalizedEvent event) {
-        if (event == null || event.getEventId() == null) {
-            log.warn("Cannot add null event or event without eventId");
+        if (event == null || event.getEventId() == null || event.getBookie() == null) {
+            log.warn("Cannot add null event or event without eventId/bookie");
             return;
         }
 
-//        event.setLastUpdated(Instant.now());
-        String eventId = event.getEventId();
-
-        log.info("Adding event from {} for eventId={}", event.getBookie(), eventId);
-
-        // Add to cache with size limit
-        eventCache.compute(eventId, (key, queue) -> {
-            if (queue == null) {
-                queue = new ConcurrentLinkedQueue<>();
-            }
-
-            // Remove oldest if queue is full
-            if (queue.size() >= MAX_EVENTS_PER_GROUP) {
-                queue.poll();
-            }
+        if (event.getSeenAt() == null) {
+            event.setSeenAt(Instant.now());
+        }
 
-            queue.add(event);
-            return queue;
-        });
+        log.info("Adding event from {} for eventId={}", event.getBookie(), event.getEventId());
 
-        detectArbitrage(eventId);
+        liveOddsBoard.publish(event);
+        detectArbitrage(event);
     }
 
     /**
-     * Detect arbitrage opportunities for a specific event
+     * Hand the snapshot to the shard that owns its eventId
      */
-    private void detectArbitrage(String eventId) {
-        detectionExecutor.submit(() -> {
-            Object lock = eventLocks.computeIfAbsent(eventId, k -> new Object());
-
-            synchronized (lock) {
-                try {
-                    ConcurrentLinkedQueue<NormalizedEvent> events = eventCache.get(eventId);
-
-                    if (events == null || events.size() < 2) {
-                        return;
-                    }
-
-                    List<NormalizedEvent> eventList = new ArrayList<>(events);
-
-                    // Filter events to only include those within 2 seconds of the most recent event
-                    List<NormalizedEvent> filteredEvents = filterEventsWithinTimeWindow(eventList);
-
-                    if (filteredEvents.size() < 2) {
-                        log.info("Not enough events within {}-second time window for eventId={}, skipping arbitrage detection",EVENT_EXPIRY_SECONDS, eventId);
-                        return;
-                    }
-
-                    log.info("Analyzing {} events for arbitrage (eventId={}) after time filtering", filteredEvents.size(), eventId);
+    private void detectArbitrage(NormalizedEvent event) {
+        shards[shardIndex(event.getEventId())].submit(event);
+    }
 
-                    List<Arb> opportunities = arbFactory.findOpportunities(filteredEvents);
+    private int shardIndex(String eventId) {
+        return (eventId.hashCode() & 0x7fffffff) % shards.length;
+    }
 
-                    if (!opportunities.isEmpty()) {
-                        log.info("Found {} arbs for eventId={}", opportunities.size(), eventId);
-                        opportunities.forEach(arbQueue::offer);
-                        for (Arb opportunity : opportunities) {
-                            arbitrageLogService.logArb(opportunity);
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Detection error for eventId={}", eventId, e);
-                    arbitrageLogService.logError("Error detected while trying to detect arb for an event", e);
-                }
-            }
-        });
+    /**
+     * Front ArbService with the last-forwarded state per arbId and publish its hit counters
+     */
+    private void startForwardGate() {
+        int epsilonMilliOdds = (int) Math.round(forwardOddsEpsilon * ArbCalculator.MILLI_ODDS_SCALE);
+        forwardGate = new ArbForwardGate(epsilonMilliOdds, forwardHeartbeatMillis);
+
+        Gauge.builder("arb.detector.forward.tracked", forwardGate, ArbForwardGate::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("arb.detector.forward.forwarded", forwardGate, ArbForwardGate::forwardedCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("arb.detector.forward.suppressed", forwardGate, ArbForwardGate::suppressedCount)
+                .register(meterRegistry);
+
+        log.info("Arb forward gate started (epsilon={}, heartbeatMs={})", forwardOddsEpsilon, forwardHeartbeatMillis);
     }
 
     /**
-     * Filters events to only include those within the specified time window of the most recent event.
-     * This ensures we're only comparing odds that were seen at approximately the same time.
-     *
-     * @param events List of normalized events to filter
-     * @return Filtered list of events within the time window
+     * Start one single-writer thread per shard, as many as the detect lane allows, and publish queue depth per shard
      */
-    private List<NormalizedEvent> filterEventsWithinTimeWindow(List<NormalizedEvent> events) {
-        if (events == null || events.isEmpty()) {
-            return Collections.emptyList();
+    private void startDetectionShards() {
+        int count = executionLanes.threads(Lane.DETECT);
+        ThreadFactory shardThreads = executionLanes.threadFactory(Lane.DETECT);
+        shards = new DetectionShard[count];
+
+        for (int i = 0; i < count; i++) {
+            DetectionShard shard = new DetectionShard(i, shardCapacity, coalesce, shardThreads, this::detectOnShard);
+            shards[i] = shard;
+
+            Gauge.builder("arb.detector.shard.queue.depth", shard, DetectionShard::depth)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            FunctionCounter.builder("arb.detector.shard.dropped", shard, DetectionShard::droppedCount)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            FunctionCounter.builder("arb.detector.shard.processed", shard, DetectionShard::processedCount)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            FunctionCounter.builder("arb.detector.shard.coalesced", shard, DetectionShard::coalescedCount)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+
+            shard.start();
         }
 
-        Instant now = Instant.now();
-        Instant cutoff = now.minusSeconds(ArbDetector.EVENT_EXPIRY_SECONDS);
+        log.info("Started {} detection shards (capacity={}, coalesce={})", count, shardCapacity, coalesce);
+    }
 
-        // ✅ First: Log all incoming events and fix null seenAt
-        if (log.isDebugEnabled()) {
-            log.debug("Incoming {} events for time-window filtering (expiry={}s, cutoff={})",
-                    events.size(), ArbDetector.EVENT_EXPIRY_SECONDS, cutoff);
-        }
+    /**
+     * Apply the latest snapshot per bookmaker to the odds book and evaluate only the pairs they touched.
+     * Runs on the owning shard thread only.
+     */
+    private void detectOnShard(Collection<NormalizedEvent> snapshots) {
+        String eventId = snapshots.iterator().next().getEventId();
 
-        int nullSeenAtCount = 0;
+        try {
+            List<OddsBook.Candidate> candidates = oddsBook.apply(snapshots);
 
-        for (NormalizedEvent event : events) {
-            if (event == null) {
-                continue; // skip null events entirely
+            if (candidates.isEmpty()) {
+                log.debug("No touched pairs for eventId={} from {} snapshots", eventId, snapshots.size());
+                return;
             }
 
-            Instant seenAt = event.getSeenAt();
+            log.info("Evaluating {} touched candidates for eventId={} from {} snapshots",
+                    candidates.size(), eventId, snapshots.size());
 
-            if (log.isDebugEnabled()) {
-                String eventId = event.getEventId() != null ? event.getEventId() : "unknown";
-                BookMaker bookie = event.getBookie();
-                log.debug("Event before filter: eventId={}, bookie={}, seenAt={}",
-                        eventId, bookie, seenAt);
+            List<Arb> opportunities = new ArrayList<>();
+            for (OddsBook.Candidate candidate : candidates) {
+                Optional<Arb> arb = arbFactory.createIfArbitrage(
+                        candidate.category(), candidate.group(), candidate.legs());
+                oddsBook.markEvaluated(eventId, candidate, arb.isPresent());
+                arb.ifPresent(opportunities::add);
             }
 
-            // ✅ Fix: If seenAt is null, set it to now
-            if (seenAt == null) {
-                event.setSeenAt(now);  // assuming there's a setter
-                seenAt = now;
-                nullSeenAtCount++;
-                if (log.isWarnEnabled()) {
-                    log.warn("seenAt was null for eventId={}, bookie={} — auto-set to now",
-                            event.getEventId(), event.getBookie());
+            if (!opportunities.isEmpty()) {
+                log.info("Found {} arbs for eventId={}", opportunities.size(), eventId);
+                opportunities.forEach(arbQueue::offer);
+                for (Arb opportunity : opportunities) {
+                    arbitrageLogService.logArb(opportunity);
                 }
             }
+        } catch (Exception e) {
+            log.error("Detection error for eventId={}", eventId, e);
+            arbitrageLogService.logError("Error detected while trying to detect arb for an event", e);
         }
-
-        if (nullSeenAtCount > 0 && log.isInfoEnabled()) {
-            log.info("Fixed {} events with null seenAt by setting to current time", nullSeenAtCount);
-        }
-
-        // ✅ Now filter: keep events seen within the last N seconds
-        List<NormalizedEvent> filtered = events.stream()
-                .filter(Objects::nonNull)
-                .filter(event -> {
-                    Instant seenAt = event.getSeenAt(); // now guaranteed non-null
-                    return !seenAt.isBefore(cutoff);
-                })
-                .collect(Collectors.toList());
-
-        // ✅ Summary
-        if (filtered.size() < events.size()) {
-            log.info("Time-window filtering: kept {}/{} events (seen within last {}s)",
-                    filtered.size(), events.size(), ArbDetector.EVENT_EXPIRY_SECONDS);
-        } else if (log.isDebugEnabled()) {
-            log.debug("Time-window filtering: all {} events are fresh (within {}s)",
-                    events.size(), ArbDetector.EVENT_EXPIRY_SECONDS);
-        }
-
-        return filtered;
     }
 
     /**
      * Process detected arbitrage opportunities
      */
     private void startArbProcessor() {
+        arbProcessorExecutor = Executors.newSingleThreadExecutor(executionLanes.threadFactory(Lane.DETECT));
         arbProcessorExecutor.execute(() -> {
             log.info("Arb processor started");
 
@@ -232,12 +232,15 @@ public class ArbDetector {
     }
 
     /**
-     * Process individual arbitrage opportunity
+     * Process individual arbitrage opportunity; re-detections without a real change are dropped here
      */
     private void processArb(Arb arb) {
         try {
             log.debug("Processing arb arbId={}, profit={}", arb.getArbId(), arb.getProfitPercentage());
 
+            if (!forwardGate.shouldForward(arb, System.currentTimeMillis())) {
+                return;
+            }
 
             if (arb.getStatus() == Status.INSUFFICIENT_BALANCE) {
                 log.warn("Insufficient balance for arbId={}", arb.getArbId());
@@ -254,32 +257,40 @@ public class ArbDetector {
     }
 
     /**
-     * Cleanup old events every 3 minute
+     * Run the cleanup from the shared lane scheduler; there is no Spring scheduling in this app
+     */
+    private void startCleanup() {
+        cleanupSchedule = executionLanes.scheduler().scheduleAtFixedRate(this::cleanupOldEvents,
+                CLEANUP_INTERVAL_SECONDS, CLEANUP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cleanup old events every 30 seconds. Each shard evicts its own idle odds books on its own thread,
+     * keeping it the single writer of its events.
      */
-    @Scheduled(fixedRate = 30000)
     public void cleanupOldEvents() {
         Instant cutoff = Instant.now().minusSeconds(EVENT_EXPIRY_SECONDS);
-        int removedQueues = 0;
 
         try {
-            Iterator<Map.Entry<String, ConcurrentLinkedQueue<NormalizedEvent>>> iterator =
-                    eventCache.entrySet().iterator();
-
-            while (iterator.hasNext()) {
-                Map.Entry<String, ConcurrentLinkedQueue<NormalizedEvent>> entry = iterator.next();
-                ConcurrentLinkedQueue<NormalizedEvent> queue = entry.getValue();
-
-                queue.removeIf(event -> event.getSeenAt().isBefore(cutoff));
+            for (DetectionShard shard : shards) {
+                int index = shard.getIndex();
+                shard.execute(() -> {
+                    int removedBooks = oddsBook.evictOlderThan(cutoff, eventId -> shardIndex(eventId) == index);
+                    if (removedBooks > 0) {
+                        log.debug("Shard {} cleanup removed {} idle event books", index, removedBooks);
+                    }
+                });
+            }
 
-                if (queue.isEmpty()) {
-                    iterator.remove();
-                    eventLocks.remove(entry.getKey());
-                    removedQueues++;
-                }
+            int removedPrices = liveOddsBoard.evictOlderThan(Instant.now().minusSeconds(LIVE_PRICE_EXPIRY_SECONDS));
+            if (removedPrices > 0) {
+                log.debug("Cleanup removed {} idle live price snapshots", removedPrices);
             }
 
-            if (removedQueues > 0) {
-                log.debug("Cleanup removed {} empty queues", removedQueues);
+            // The gate is only read on the arb processor thread and tolerates concurrent eviction
+            int removedArbs = forwardGate.evictOlderThan(System.currentTimeMillis() - 2 * forwardHeartbeatMillis);
+            if (removedArbs > 0) {
+                log.debug("Cleanup removed {} forwarded arbs", removedArbs);
             }
 
         } catch (Exception e) {
@@ -292,18 +303,19 @@ public class ArbDetector {
         log.info("Shutting down ArbDetector...");
         running = false;
 
-        detectionExecutor.shutdown();
+        if (cleanupSchedule != null) {
+            cleanupSchedule.cancel(false);
+        }
         arbProcessorExecutor.shutdown();
 
         try {
-            if (!detectionExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                detectionExecutor.shutdownNow();
+            for (DetectionShard shard : shards) {
+                shard.stop(5000);
             }
             if (!arbProcessorExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
                 arbProcessorExecutor.shutdownNow();
             }
         } catch (InterruptedException e) {
-            detectionExecutor.shutdownNow();
             arbProcessorExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
@@ -314,14 +326,22 @@ public class ArbDetector {
 
     // Monitoring methods
     public int getCacheSize() {
-        return eventCache.size();
+        return oddsBook.size();
     }
 
     public long getTotalEvents() {
-        return eventCache.values().stream().mapToInt(Queue::size).sum();
+        return oddsBook.totalQuotes();
     }
 
     public int getPendingArbs() {
         return arbQueue.size();
     }
+
+    public int[] getShardQueueDepths() {
+        int[] depths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = shards[i].depth();
+        }
+        return depths;
+    }
 }
\ No newline at end of file
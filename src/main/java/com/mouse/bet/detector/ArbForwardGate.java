@@ -0,0 +1,109 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.enums.Status;
+import com.mouse.bet.utils.ArbCalculator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the last state forwarded to persistence per arbId and lets through only real changes:
+ * a leg's odds moved by at least the epsilon, the status or shouldBet flag changed, the leg set
+ * changed, or the heartbeat is due. The heartbeat must stay below the continuity gap enforced by
+ * {@link Arb#hasContinuityBreak} so suppressed re-detections never read as the arb disappearing.
+ *
+ * {@link #shouldForward} is called from the single arb processor thread; eviction may run elsewhere.
+ */
+@Slf4j
+class ArbForwardGate {
+
+    private final Map<String, Forwarded> lastForwarded = new ConcurrentHashMap<>();
+    private final int epsilonMilliOdds;
+    private final long heartbeatMillis;
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Odds are kept as milli-odds in leg order so comparison needs no BigDecimal maths.
+     */
+    private record Forwarded(Status status, boolean shouldBet, int[] milliOdds, long forwardedAtMillis) {
+    }
+
+    ArbForwardGate(int epsilonMilliOdds, long heartbeatMillis) {
+        this.epsilonMilliOdds = Math.max(1, epsilonMilliOdds);
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Decide whether this detection carries anything persistence has not seen yet,
+     * and if so record it as the new forwarded state.
+     */
+    boolean shouldForward(Arb arb, long nowMillis) {
+        Forwarded current = new Forwarded(arb.getStatus(), arb.isShouldBet(), milliOdds(arb.getLegs()), nowMillis);
+        Forwarded previous = lastForwarded.get(arb.getArbId());
+
+        if (previous != null && !isRealChange(previous, current, nowMillis)) {
+            suppressed.incrementAndGet();
+            log.debug("Suppressed unchanged arb arbId={}", arb.getArbId());
+            return false;
+        }
+
+        lastForwarded.put(arb.getArbId(), current);
+        forwarded.incrementAndGet();
+        return true;
+    }
+
+    private boolean isRealChange(Forwarded previous, Forwarded current, long nowMillis) {
+        if (nowMillis - previous.forwardedAtMillis() >= heartbeatMillis) {
+            return true;
+        }
+        if (previous.status() != current.status() || previous.shouldBet() != current.shouldBet()) {
+            return true;
+        }
+        int[] before = previous.milliOdds();
+        int[] after = current.milliOdds();
+        if (before.length != after.length) {
+            return true;
+        }
+        for (int i = 0; i < before.length; i++) {
+            if (Math.abs(after[i] - before[i]) >= epsilonMilliOdds) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] milliOdds(List<BetLeg> legs) {
+        int[] odds = new int[legs.size()];
+        for (int i = 0; i < odds.length; i++) {
+            odds[i] = ArbCalculator.toMilliOdds(legs.get(i).getOdds());
+        }
+        return odds;
+    }
+
+    /**
+     * Forget arbs not forwarded since the cutoff; a later re-detection is forwarded as new.
+     */
+    int evictOlderThan(long cutoffMillis) {
+        int before = lastForwarded.size();
+        lastForwarded.values().removeIf(f -> f.forwardedAtMillis() < cutoffMillis);
+        return before - lastForwarded.size();
+    }
+
+    int size() {
+        return lastForwarded.size();
+    }
+
+    long forwardedCount() {
+        return forwarded.get();
+    }
+
+    long suppressedCount() {
+        return suppressed.get();
+    }
+}
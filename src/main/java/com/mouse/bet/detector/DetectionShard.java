@@ -0,0 +1,171 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.model.NormalizedEvent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Single-writer detection lane. Every eventId hashes to exactly one shard, so the owning
+ * thread is the only one touching that event's odds book state and no per-event lock is needed.
+ * When the bounded buffer is full the oldest pending detection is dropped; a newer one supersedes it anyway.
+ *
+ * In coalescing mode at most one detection per eventId is queued. Snapshots arriving while it is
+ * pending replace that bookmaker's entry, so one run sees only the latest snapshot per bookmaker.
+ *
+ * Housekeeping such as evicting idle odds books is handed in through {@link #execute} and runs on the
+ * shard thread between detections, so it never races a detection of the same event.
+ */
+@Slf4j
+class DetectionShard {
+
+    @Getter
+    private final int index;
+    private final boolean coalesce;
+    private final ArrayBlockingQueue<PendingDetection> buffer;
+    private final Map<String, PendingDetection> pending = new ConcurrentHashMap<>();
+    private final Queue<Runnable> chores = new ConcurrentLinkedQueue<>();
+    private final Consumer<Collection<NormalizedEvent>> handler;
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Latest snapshot per bookmaker for one eventId, mutated only inside {@code pending.compute}.
+     */
+    private record PendingDetection(String eventId, Map<BookMaker, NormalizedEvent> snapshots) {
+    }
+
+    DetectionShard(int index, int capacity, boolean coalesce, ThreadFactory threads,
+                   Consumer<Collection<NormalizedEvent>> handler) {
+        this.index = index;
+        this.coalesce = coalesce;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.handler = handler;
+        this.worker = threads.newThread(this::drain);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void submit(NormalizedEvent event) {
+        if (!coalesce) {
+            enqueue(new PendingDetection(event.getEventId(), Map.of(event.getBookie(), event)));
+            return;
+        }
+
+        PendingDetection[] created = new PendingDetection[1];
+        pending.compute(event.getEventId(), (id, current) -> {
+            if (current == null) {
+                current = new PendingDetection(id, new EnumMap<>(BookMaker.class));
+                created[0] = current;
+            } else {
+                coalesced.incrementAndGet();
+            }
+            current.snapshots().put(event.getBookie(), event);
+            return current;
+        });
+
+        if (created[0] != null) {
+            enqueue(created[0]);
+        }
+    }
+
+    /**
+     * Run a chore on the shard thread before its next detection, within one poll interval (100ms)
+     */
+    void execute(Runnable chore) {
+        chores.offer(chore);
+    }
+
+    private void enqueue(PendingDetection detection) {
+        while (!buffer.offer(detection)) {
+            PendingDetection evicted = buffer.poll();
+            if (evicted != null) {
+                if (coalesce) {
+                    pending.remove(evicted.eventId(), evicted);
+                }
+                long total = dropped.incrementAndGet();
+                if (total % 100 == 1) {
+                    log.warn("Detection shard {} saturated, dropped {} stale detections so far", index, total);
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                runChores();
+                PendingDetection detection = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (detection == null) {
+                    continue;
+                }
+                if (coalesce) {
+                    // Detach first so later snapshots start a new pending detection
+                    pending.remove(detection.eventId(), detection);
+                }
+                handler.accept(List.copyOf(detection.snapshots().values()));
+                processed.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Detection shard {} handler error", index, e);
+            }
+        }
+        log.info("Detection shard {} stopped | processed={} coalesced={} dropped={}",
+                index, processed.get(), coalesced.get(), dropped.get());
+    }
+
+    private void runChores() {
+        Runnable chore;
+        while ((chore = chores.poll()) != null) {
+            try {
+                chore.run();
+            } catch (Exception e) {
+                log.error("Detection shard {} chore error", index, e);
+            }
+        }
+    }
+
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        worker.join(timeoutMillis);
+        if (worker.isAlive()) {
+            worker.interrupt();
+        }
+    }
+
+    int depth() {
+        return buffer.size();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    long processedCount() {
+        return processed.get();
+    }
+
+    long coalescedCount() {
+        return coalesced.get();
+    }
+}
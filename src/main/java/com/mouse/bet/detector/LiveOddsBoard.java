@@ -0,0 +1,92 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.OutcomeStatus;
+import com.mouse.bet.model.NormalizedEvent;
+import com.mouse.bet.model.NormalizedMarket;
+import com.mouse.bet.model.NormalizedOutcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest snapshot each bookmaker published per event, exactly as the fetchers handed it over.
+ * Publishing is one reference swap on the ingest path, ahead of the detection shards; a lookup
+ * scans just that snapshot for the outcome, so the pre-dispatch check reads the freshest price
+ * in microseconds without touching the shard-owned {@link OddsBook}.
+ */
+@Slf4j
+@Component
+public class LiveOddsBoard {
+
+    private final Map<String, NormalizedEvent> latest = new ConcurrentHashMap<>();
+
+    /**
+     * An outcome's price as last published by its bookmaker.
+     */
+    public record LivePrice(BigDecimal odds, OutcomeStatus status, long seenAtMillis) {
+        public boolean isSuspended() {
+            return status == OutcomeStatus.SUSPENDED;
+        }
+    }
+
+    /**
+     * Keep the snapshot unless a newer one from the same bookmaker is already on the board
+     */
+    public void publish(NormalizedEvent event) {
+        latest.merge(key(event.getEventId(), event.getBookie()), event,
+                (current, incoming) -> seenAt(incoming) >= seenAt(current) ? incoming : current);
+    }
+
+    /**
+     * Current price of one outcome; empty if the bookmaker's latest snapshot no longer carries it
+     */
+    public Optional<LivePrice> price(String eventId, BookMaker bookmaker, String outcomeId) {
+        if (eventId == null || bookmaker == null || outcomeId == null) {
+            return Optional.empty();
+        }
+        NormalizedEvent event = latest.get(key(eventId, bookmaker));
+        if (event == null || event.getMarkets() == null) {
+            return Optional.empty();
+        }
+
+        for (NormalizedMarket market : event.getMarkets()) {
+            if (market.getOutcomes() == null) {
+                continue;
+            }
+            for (NormalizedOutcome outcome : market.getOutcomes()) {
+                if (outcomeId.equals(outcome.getOutcomeId())) {
+                    return Optional.of(new LivePrice(outcome.getOdds(), outcome.getOutcomeStatus(), seenAt(event)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Drop snapshots not refreshed since the cutoff
+     */
+    public int evictOlderThan(Instant cutoff) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        int before = latest.size();
+        latest.values().removeIf(event -> seenAt(event) < cutoffMillis);
+        return before - latest.size();
+    }
+
+    public int size() {
+        return latest.size();
+    }
+
+    private static String key(String eventId, BookMaker bookmaker) {
+        return eventId + "|" + bookmaker;
+    }
+
+    private static long seenAt(NormalizedEvent event) {
+        return event.getSeenAt() != null ? event.getSeenAt().toEpochMilli() : 0L;
+    }
+}
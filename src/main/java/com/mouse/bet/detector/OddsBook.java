@@ -0,0 +1,368 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.MarketCategory;
+import com.mouse.bet.enums.OutcomeGroup;
+import com.mouse.bet.enums.OutcomeStatus;
+import com.mouse.bet.enums.OutcomeType;
+import com.mouse.bet.enums.SportEnum;
+import com.mouse.bet.model.NormalizedEvent;
+import com.mouse.bet.model.NormalizedMarket;
+import com.mouse.bet.model.NormalizedOutcome;
+import com.mouse.bet.utils.ArbCalculator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Incremental best-price book keyed by (eventId, outcome side, bookmaker).
+ * Each bookmaker snapshot is diffed against the book and only the opposite-side
+ * pairs and {@link OutcomeGroup}s whose prices actually moved (plus those that are
+ * currently live arbs) are handed back for evaluation. Pairs are screened on milli-odds first so non-arbs
+ * are dropped without allocating.
+ *
+ * Callers must serialise {@link #apply} per eventId (ArbDetector pins each eventId to one
+ * detection shard); different events are independent.
+ */
+@Slf4j
+public class OddsBook {
+
+    private final Map<String, EventBook> books = new ConcurrentHashMap<>();
+    private final long freshnessMillis;
+
+    public OddsBook(long freshnessMillis) {
+        this.freshnessMillis = freshnessMillis;
+    }
+
+    /**
+     * A bookmaker's current best quote for one outcome side.
+     */
+    public record Quote(MarketCategory category, NormalizedOutcome outcome, int milliOdds, long seenAtMillis) {
+        BookMaker bookmaker() {
+            return outcome.getBookmaker();
+        }
+
+        boolean samePriceAs(Quote other) {
+            return other != null
+                    && milliOdds == other.milliOdds
+                    && outcome.getOdds().compareTo(other.outcome.getOdds()) == 0
+                    && outcome.getOutcomeStatus() == other.outcome.getOutcomeStatus();
+        }
+    }
+
+    /**
+     * Quotes to back together. For opposite-side pairs {@code group} is null and the legs are
+     * (main, opposite), main being the side with the lower ordinal so the same pair yields the
+     * same arb id regardless of update order. For an {@link OutcomeGroup} the legs follow the
+     * group's member order, one best-priced quote per member.
+     */
+    public record Candidate(MarketCategory category, OutcomeGroup group, List<NormalizedOutcome> legs) {
+        static Candidate pair(MarketCategory category, NormalizedOutcome main, NormalizedOutcome opposite) {
+            return new Candidate(category, null, List.of(main, opposite));
+        }
+
+        public NormalizedOutcome main() {
+            return legs.get(0);
+        }
+
+        public NormalizedOutcome opposite() {
+            return legs.get(1);
+        }
+    }
+
+    /**
+     * Apply a full bookmaker snapshot and return the pairs affected by it.
+     */
+    public List<Candidate> apply(NormalizedEvent event) {
+        if (event == null) {
+            return Collections.emptyList();
+        }
+        return apply(List.of(event));
+    }
+
+    /**
+     * Apply several snapshots of the same event (typically the latest one per bookmaker after
+     * coalescing) and evaluate the union of what they touched once, against the final book state.
+     */
+    public List<Candidate> apply(Collection<NormalizedEvent> snapshots) {
+        EventBook book = null;
+        long latestSeenAt = 0;
+        Map<BookMaker, Set<OutcomeType>> touchedByBookie = new EnumMap<>(BookMaker.class);
+
+        for (NormalizedEvent event : snapshots) {
+            if (event == null || event.getEventId() == null || event.getBookie() == null) {
+                continue;
+            }
+            long seenAt = event.getSeenAt() != null ? event.getSeenAt().toEpochMilli() : System.currentTimeMillis();
+            if (book == null) {
+                book = books.computeIfAbsent(event.getEventId(), k -> new EventBook());
+            }
+            book.lastSeenMillis = Math.max(book.lastSeenMillis, seenAt);
+            latestSeenAt = Math.max(latestSeenAt, seenAt);
+            if (event.getSportEnum() != null) {
+                book.sport = event.getSportEnum();
+            }
+            touchedByBookie.computeIfAbsent(event.getBookie(), k -> EnumSet.noneOf(OutcomeType.class))
+                    .addAll(absorb(book, event, seenAt));
+        }
+
+        if (book == null) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = evaluate(book, touchedByBookie, latestSeenAt - freshnessMillis);
+        book.quoteCount = book.sides.values().stream().mapToInt(Map::size).sum();
+
+        log.debug("OddsBook eventId={} snapshots={} bookies={} candidates={}",
+                snapshots.iterator().next().getEventId(), snapshots.size(), touchedByBookie.keySet(), candidates.size());
+        return candidates;
+    }
+
+    /**
+     * Fold one bookmaker snapshot into the book and return the sides it touched.
+     */
+    private Set<OutcomeType> absorb(EventBook book, NormalizedEvent event, long seenAt) {
+        Map<OutcomeType, Quote> incoming = bestQuotes(event, seenAt);
+        BookMaker bookie = event.getBookie();
+        Set<OutcomeType> touched = EnumSet.noneOf(OutcomeType.class);
+
+        // Removed or suspended sides
+        for (Map.Entry<OutcomeType, EnumMap<BookMaker, Quote>> side : book.sides.entrySet()) {
+            if (!incoming.containsKey(side.getKey()) && side.getValue().remove(bookie) != null) {
+                touched.add(side.getKey());
+            }
+        }
+
+        // New or re-priced sides
+        for (Map.Entry<OutcomeType, Quote> entry : incoming.entrySet()) {
+            EnumMap<BookMaker, Quote> quotes = book.sides.computeIfAbsent(entry.getKey(), k -> new EnumMap<>(BookMaker.class));
+            Quote previous = quotes.put(bookie, entry.getValue());
+            if (!entry.getValue().samePriceAs(previous)) {
+                touched.add(entry.getKey());
+            }
+        }
+
+        // Live arbs involving this bookmaker are re-emitted so downstream keeps them fresh
+        for (Candidate live : book.livePairs.values()) {
+            for (NormalizedOutcome leg : live.legs()) {
+                if (leg.getBookmaker() == bookie && incoming.containsKey(leg.getMarketType().getOutcomeType())) {
+                    touched.add(leg.getMarketType().getOutcomeType());
+                }
+            }
+        }
+        return touched;
+    }
+
+    /**
+     * Build candidates for the touched (bookmaker, side) slots against the current book.
+     */
+    private List<Candidate> evaluate(EventBook book, Map<BookMaker, Set<OutcomeType>> touchedByBookie, long cutoff) {
+        List<Candidate> candidates = new ArrayList<>();
+        Set<String> seenPairs = new HashSet<>();
+        Set<OutcomeType> touchedSides = EnumSet.noneOf(OutcomeType.class);
+
+        for (Map.Entry<BookMaker, Set<OutcomeType>> entry : touchedByBookie.entrySet()) {
+            BookMaker bookie = entry.getKey();
+            touchedSides.addAll(entry.getValue());
+
+            for (OutcomeType side : entry.getValue()) {
+                if (!side.hasOpposite()) {
+                    continue;
+                }
+                EnumMap<BookMaker, Quote> mySide = book.sides.get(side);
+                Quote mine = mySide != null ? mySide.get(bookie) : null;
+                EnumMap<BookMaker, Quote> opposites = book.sides.get(side.getOpposite());
+                if (mine == null || opposites == null) {
+                    continue;
+                }
+                for (Quote other : opposites.values()) {
+                    if (other.bookmaker() == bookie || other.seenAtMillis() < cutoff) {
+                        continue;
+                    }
+                    if (!ArbCalculator.passesArbScreen(mine.milliOdds(), other.milliOdds())) {
+                        if (!book.livePairs.isEmpty()) {
+                            book.livePairs.remove(side.ordinal() < side.getOpposite().ordinal()
+                                    ? pairKey(side, bookie, other.bookmaker())
+                                    : pairKey(side.getOpposite(), other.bookmaker(), bookie));
+                        }
+                        continue;
+                    }
+                    Candidate candidate = side.ordinal() < side.getOpposite().ordinal()
+                            ? Candidate.pair(mine.category(), mine.outcome(), other.outcome())
+                            : Candidate.pair(other.category(), other.outcome(), mine.outcome());
+                    if (seenPairs.add(pairKey(candidate))) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+        }
+
+        // N-way groups: one linear pass over the best price per member
+        Set<OutcomeGroup> touchedGroups = EnumSet.noneOf(OutcomeGroup.class);
+        for (OutcomeType side : touchedSides) {
+            touchedGroups.addAll(OutcomeGroup.groupsFor(side, book.sport));
+        }
+        for (OutcomeGroup group : touchedGroups) {
+            Candidate candidate = bestGroupCandidate(book, group, cutoff);
+            if (candidate != null) {
+                candidates.add(candidate);
+            } else if (!book.livePairs.isEmpty()) {
+                book.livePairs.remove(groupKey(group));
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Record whether an evaluated pair is a live arb so it is refreshed on later snapshots.
+     */
+    public void markEvaluated(String eventId, Candidate candidate, boolean live) {
+        EventBook book = books.get(eventId);
+        if (book == null) {
+            return;
+        }
+        if (live) {
+            book.livePairs.put(pairKey(candidate), candidate);
+        } else {
+            book.livePairs.remove(pairKey(candidate));
+        }
+    }
+
+    /**
+     * Drop events with no snapshot newer than the cutoff.
+     */
+    public int evictOlderThan(Instant cutoff) {
+        return evictOlderThan(cutoff, eventId -> true);
+    }
+
+    /**
+     * Drop idle events among those selected, so a shard thread only evicts the events it owns.
+     */
+    public int evictOlderThan(Instant cutoff, Predicate<String> owned) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        int removed = 0;
+        Iterator<Map.Entry<String, EventBook>> it = books.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, EventBook> entry = it.next();
+            if (entry.getValue().lastSeenMillis < cutoffMillis && owned.test(entry.getKey())) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void remove(String eventId) {
+        books.remove(eventId);
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public long totalQuotes() {
+        long total = 0;
+        for (EventBook book : books.values()) {
+            total += book.quoteCount;
+        }
+        return total;
+    }
+
+    /**
+     * Pick the best fresh quote per member and screen the implied-probability sum.
+     * Returns null when a member is unpriced, every leg sits with one bookmaker, or the screen fails.
+     */
+    private Candidate bestGroupCandidate(EventBook book, OutcomeGroup group, long cutoff) {
+        Quote[] best = new Quote[group.size()];
+        long impliedPpmSum = 0;
+        BookMaker firstBookie = null;
+        boolean crossBook = false;
+
+        for (int i = 0; i < group.size(); i++) {
+            EnumMap<BookMaker, Quote> quotes = book.sides.get(group.getMembers().get(i));
+            if (quotes == null) {
+                return null;
+            }
+            for (Quote quote : quotes.values()) {
+                if (quote.seenAtMillis() >= cutoff && (best[i] == null || quote.milliOdds() > best[i].milliOdds())) {
+                    best[i] = quote;
+                }
+            }
+            if (best[i] == null) {
+                return null;
+            }
+            impliedPpmSum += ArbCalculator.impliedPpm(best[i].milliOdds());
+            if (firstBookie == null) {
+                firstBookie = best[i].bookmaker();
+            } else if (firstBookie != best[i].bookmaker()) {
+                crossBook = true;
+            }
+        }
+
+        if (!crossBook || !ArbCalculator.passesArbScreen(impliedPpmSum)) {
+            return null;
+        }
+
+        List<NormalizedOutcome> legs = new ArrayList<>(best.length);
+        for (Quote quote : best) {
+            legs.add(quote.outcome());
+        }
+        return new Candidate(group.getCategory(), group, legs);
+    }
+
+    private Map<OutcomeType, Quote> bestQuotes(NormalizedEvent event, long seenAt) {
+        Map<OutcomeType, Quote> best = new EnumMap<>(OutcomeType.class);
+        if (event.getMarkets() == null) {
+            return best;
+        }
+        for (NormalizedMarket market : event.getMarkets()) {
+            if (market.getOutcomes() == null) {
+                continue;
+            }
+            for (NormalizedOutcome outcome : market.getOutcomes()) {
+                if (outcome.getMarketType() == null || outcome.getOdds() == null
+                        || outcome.getOutcomeStatus() == OutcomeStatus.SUSPENDED) {
+                    continue;
+                }
+                OutcomeType type = outcome.getMarketType().getOutcomeType();
+                if (type == null || (!type.hasOpposite() && !OutcomeGroup.isGrouped(type))) {
+                    continue;
+                }
+                Quote current = best.get(type);
+                int milliOdds = ArbCalculator.toMilliOdds(outcome.getOdds());
+                if (current == null || milliOdds > current.milliOdds()) {
+                    best.put(type, new Quote(market.getMarketCategory(), outcome, milliOdds, seenAt));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static String pairKey(Candidate candidate) {
+        if (candidate.group() != null) {
+            return groupKey(candidate.group());
+        }
+        return pairKey(candidate.main().getMarketType().getOutcomeType(),
+                candidate.main().getBookmaker(), candidate.opposite().getBookmaker());
+    }
+
+    private static String groupKey(OutcomeGroup group) {
+        return "GROUP|" + group;
+    }
+
+    private static String pairKey(OutcomeType mainSide, BookMaker mainBookie, BookMaker oppositeBookie) {
+        return mainSide + "|" + mainBookie + "|" + oppositeBookie;
+    }
+
+    private static final class EventBook {
+        private final Map<OutcomeType, EnumMap<BookMaker, Quote>> sides = new EnumMap<>(OutcomeType.class);
+        private final Map<String, Candidate> livePairs = new HashMap<>();
+        private volatile long lastSeenMillis;
+        private volatile int quoteCount;
+        private SportEnum sport;
+    }
+}
@@ -1,13 +1,16 @@
 package com.mouse.bet.entity;
 
-import com.mouse.bet.converter.OddsHistoryConverter;
 import com.mouse.bet.converter.StringListConverter;
 import com.mouse.bet.enums.ChangeReason;
 import com.mouse.bet.enums.SportEnum;
 import com.mouse.bet.enums.Status;
 import com.mouse.bet.model.OddsChange;
+import com.mouse.bet.model.OddsHistoryBuffer;
+import com.mouse.bet.model.OddsMetricsWindow;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -36,11 +39,11 @@ import java.util.*;
         @Index(name = "idx_arb_confidence", columnList = "confidenceScore"),
         @Index(name = "idx_arb_last_seen", columnList = "lastSeenAt"),
         @Index(name = "idx_arb_last_updated", columnList = "lastUpdatedAt"),
-        @Index(name = "idx_arb_profit_last_updated", columnList = "profitPercentage, lastUpdatedAt"), // composite for your ORDER BY
-        @Index(name = "idx_arb_expires_at_status", columnList = "expiresAt, status, active")
+        @Index(name = "idx_arb_profit_last_updated", columnList = "profitPercentage, lastUpdatedAt") // composite for your ORDER BY
 })
 @EntityListeners(AuditingEntityListener.class)
-@ToString(exclude = {"legs", "history"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "arb")
+@ToString(exclude = {"legs", "history", "oddsTicks", "pendingOddsTicks", "oddsMetrics"})
 public class Arb {
 
     @Id
@@ -135,6 +138,7 @@ public class Arb {
             fetch = FetchType.LAZY
     )
     @OrderBy("isPrimaryLeg DESC, id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "arb-legs")
     private List<BetLeg> legs = new ArrayList<>();
 
     @OneToMany(mappedBy = "arb", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -142,11 +146,33 @@ public class Arb {
     @Builder.Default
     private List<ArbSnapshot> history = new ArrayList<>();
 
-    // Odds tracking
-    @Column(columnDefinition = "TEXT")
-    @Convert(converter = OddsHistoryConverter.class)
+    // Durable odds trail: rows are only ever appended, never loaded to add one
+    @OneToMany(mappedBy = "arb", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("tickAt ASC")
+    @Builder.Default
+    private List<ArbOddsTick> oddsTicks = new ArrayList<>();
+
+    // Odds tracking for the current session, held by the live store only
+    @Transient
+    @Builder.Default
+    private OddsHistoryBuffer oddsHistory = new OddsHistoryBuffer();
+
+    // Ticks recorded since the last write-behind flush
+    @Transient
+    @Builder.Default
+    private List<ArbOddsTick> pendingOddsTicks = new ArrayList<>();
+
+    // Last kept snapshot, for the snapshot writer's downsampling
+    @Transient
+    private Instant lastSnapshotAt;
+
+    @Transient
+    private Status lastSnapshotStatus;
+
+    // Running metric state over the recorded ticks, read by ArbFilter
+    @Transient
     @Builder.Default
-    private Map<Long, OddsChange> oddsHistory = new TreeMap<>();
+    private OddsMetricsWindow oddsMetrics = new OddsMetricsWindow();
 
     @Builder.Default
     @Column(nullable = false)
@@ -227,6 +253,15 @@ public class Arb {
         return gapSeconds > MAX_CONTINUITY_GAP_SECONDS;
     }
 
+    /**
+     * First instant at which {@link #hasContinuityBreak} turns true, if no update arrives before it
+     */
+    @Transient
+    public Instant getContinuityDeadline() {
+        if (lastContinuousUpdateAt == null) return null;
+        return Instant.ofEpochSecond(lastContinuousUpdateAt.getEpochSecond() + MAX_CONTINUITY_GAP_SECONDS + 1);
+    }
+
     /**
      * Mark continuity break and reset session tracking
      */
@@ -239,7 +274,8 @@ public class Arb {
         lastContinuousUpdateAt = now;
 
         // Clear metrics that rely on continuity
-        oddsHistory = new TreeMap<>();
+        oddsHistory.clear();
+        oddsMetrics.reset();
         oddsChangeCount = 0;
         confidenceScore = null;
         volatilitySigma = null;
@@ -280,7 +316,19 @@ public class Arb {
 
     @Transient
     public Optional<BetLeg> getLegB() {
-        return legs.stream().filter(l -> !l.isPrimaryLeg()).findFirst();
+        return legs.stream()
+                .filter(l -> !l.isPrimaryLeg() && (l.getLegIndex() == null || l.getLegIndex() <= 1))
+                .findFirst();
+    }
+
+    /**
+     * Legs beyond A/B, present only on N-way arbs
+     */
+    @Transient
+    public List<BetLeg> getExtraLegs() {
+        return legs.stream()
+                .filter(l -> l.getLegIndex() != null && l.getLegIndex() > 1)
+                .toList();
     }
 
     // ==================== SIMPLE HELPERS ====================
@@ -312,6 +360,8 @@ public class Arb {
         // Replace existing leg with same role
         if (leg.isPrimaryLeg()) {
             getLegA().ifPresent(existing -> legs.remove(existing));
+        } else if (leg.getLegIndex() != null && leg.getLegIndex() > 1) {
+            legs.removeIf(existing -> leg.getLegIndex().equals(existing.getLegIndex()));
         } else {
             getLegB().ifPresent(existing -> legs.remove(existing));
         }
@@ -330,8 +380,18 @@ public class Arb {
      * Add odds change to history
      */
     public void recordOddsChange(Long timestamp, OddsChange change) {
-        oddsHistory.put(timestamp, change);
+        oddsHistory.record(timestamp, change);
         oddsChangeCount++;
+        oddsMetrics.record(timestamp, change);
+        pendingOddsTicks.add(ArbOddsTick.from(change));
+    }
+
+    /**
+     * Append a tick to the durable trail without loading the existing ones
+     */
+    public void appendOddsTick(ArbOddsTick tick) {
+        tick.setArb(this);
+        oddsTicks.add(tick);
     }
 
     /**
@@ -382,28 +442,18 @@ public class Arb {
     }
 
     /**
-     * Get recent odds changes (last N)
+     * Get recent odds changes (last N), newest first
      */
     public List<OddsChange> getRecentOddsChanges(int limit) {
-        if (oddsHistory == null || oddsHistory.isEmpty()) return Collections.emptyList();
-        return oddsHistory.values().stream()
-                .sorted(Comparator.comparing(OddsChange::getTimestamp).reversed())
-                .limit(limit)
-                .toList();
+        if (oddsHistory == null) return Collections.emptyList();
+        return oddsHistory.newest(limit);
     }
 
     /**
-     * Get odds changes within time range
+     * Get odds changes within time range, newest first
      */
     public List<OddsChange> getOddsChangesBetween(Instant start, Instant end) {
-        if (oddsHistory == null || oddsHistory.isEmpty()) return Collections.emptyList();
-        long startMillis = start.toEpochMilli();
-        long endMillis = end.toEpochMilli();
-
-        return oddsHistory.entrySet().stream()
-                .filter(e -> e.getKey() >= startMillis && e.getKey() <= endMillis)
-                .map(Map.Entry::getValue)
-                .sorted(Comparator.comparing(OddsChange::getTimestamp).reversed())
-                .toList();
+        if (oddsHistory == null) return Collections.emptyList();
+        return oddsHistory.between(start.toEpochMilli(), end.toEpochMilli());
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.mouse.bet.entity;
+
+import com.mouse.bet.enums.ChangeReason;
+import com.mouse.bet.model.OddsChange;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One odds change of an Arb, stored as its own append-only row.
+ * Old odds are not stored, and cannot be rebuilt from the delta: CREATED and RESET ticks carry a zero delta.
+ */
+@Entity
+@Table(name = "arb_odds_tick", indexes = {
+        @Index(name = "idx_odds_tick_arb_time", columnList = "arb_id, tickAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@ToString(exclude = "arb")
+public class ArbOddsTick {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "arb_odds_tick_seq")
+    @SequenceGenerator(name = "arb_odds_tick_seq", sequenceName = "arb_odds_tick_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "arb_id", nullable = false)
+    private Arb arb;
+
+    @Column(nullable = false)
+    private Instant tickAt;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal oddsLegA;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal oddsLegB;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal deltaA;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal deltaB;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 64)
+    private ChangeReason changeReason;
+
+    public static ArbOddsTick from(OddsChange change) {
+        return ArbOddsTick.builder()
+                .tickAt(change.getTimestamp())
+                .oddsLegA(change.getNewOddsA())
+                .oddsLegB(change.getNewOddsB())
+                .deltaA(change.getDeltaA())
+                .deltaB(change.getDeltaB())
+                .changeReason(change.getChangeReason())
+                .build();
+    }
+}
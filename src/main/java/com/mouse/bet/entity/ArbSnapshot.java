@@ -23,7 +23,8 @@ import java.time.Instant;
 public class ArbSnapshot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "arb_snapshot_seq")
+    @SequenceGenerator(name = "arb_snapshot_seq", sequenceName = "arb_snapshot_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,6 +5,8 @@ import com.mouse.bet.enums.BetLegStatus;
 import com.mouse.bet.enums.SportEnum;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -21,8 +23,8 @@ import java.time.Instant;
                 @Index(name = "idx_leg_event", columnList = "eventId")
         },
         uniqueConstraints = {
-                // guarantees only one primary leg and one secondary leg per Arb
-                @UniqueConstraint(name = "uq_arb_leg_role", columnNames = {"arb_id", "isPrimaryLeg"})
+                // guarantees one leg per position per Arb (0 = primary, 1 = secondary, 2+ = N-way extras)
+                @UniqueConstraint(name = "uq_arb_leg_index", columnNames = {"arb_id", "legIndex"})
         }
 )
 
@@ -32,6 +34,7 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 @ToString(exclude = "arb")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bet-leg")
 public class BetLeg {
 
     @Id
@@ -59,6 +62,12 @@ public class BetLeg {
     @Column(length = 128)
     private String eventId;
 
+    /**
+     * Canonical event id shared across bookmakers; {@code eventId} is the bookmaker's own.
+     */
+    @Column(length = 128)
+    private String normalEventId;
+
     @Column(length = 128)
     private String homeTeam;
 
@@ -114,6 +123,13 @@ public class BetLeg {
     @Column(nullable = false)
     private boolean isPrimaryLeg = false;
 
+    /**
+     * Position of the leg within its arb; 2+ only exists for N-way arbs.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer legIndex = 0;
+
     private String matchStatus;
     private String outcomeDescription;
     private String outcomeId;
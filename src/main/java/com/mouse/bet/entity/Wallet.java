@@ -3,6 +3,8 @@ package com.mouse.bet.entity;
 import com.mouse.bet.enums.BookMaker;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,7 +25,7 @@ import java.time.Instant;
                 @Index(name = "idx_wallet_last_updated", columnList = "lastUpdated")
         })
 @EntityListeners(AuditingEntityListener.class)
-
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wallet")
 public class Wallet {
 
     @Id
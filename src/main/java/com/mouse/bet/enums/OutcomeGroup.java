@@ -0,0 +1,64 @@
+package com.mouse.bet.enums;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Sets of mutually exclusive outcomes that together cover every result of a market.
+ * Backing each member at the best available price is an arb when the implied
+ * probabilities sum to less than one, even when no single member has an opposite.
+ */
+@Getter
+public enum OutcomeGroup {
+    FOOTBALL_1X2(MarketCategory.MATCH_RESULT, SportEnum.FOOTBALL,
+            OutcomeType.HOME, OutcomeType.DRAW, OutcomeType.AWAY),
+    FOOTBALL_1X_2(MarketCategory.DOUBLE_CHANCE, SportEnum.FOOTBALL,
+            OutcomeType.HOME_OR_DRAW, OutcomeType.AWAY),
+    FOOTBALL_X2_1(MarketCategory.DOUBLE_CHANCE, SportEnum.FOOTBALL,
+            OutcomeType.DRAW_OR_AWAY, OutcomeType.HOME),
+    TABLE_TENNIS_WINNER(MarketCategory.MATCH_RESULT, SportEnum.TABLE_TENNIS,
+            OutcomeType.HOME, OutcomeType.AWAY);
+
+    private final MarketCategory category;
+    private final SportEnum sport;
+    private final List<OutcomeType> members;
+
+    private static final Map<OutcomeType, List<OutcomeGroup>> BY_MEMBER = new EnumMap<>(OutcomeType.class);
+
+    static {
+        for (OutcomeGroup group : values()) {
+            for (OutcomeType member : group.members) {
+                BY_MEMBER.computeIfAbsent(member, k -> new ArrayList<>()).add(group);
+            }
+        }
+    }
+
+    OutcomeGroup(MarketCategory category, SportEnum sport, OutcomeType... members) {
+        this.category = category;
+        this.sport = sport;
+        this.members = List.of(members);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public static boolean isGrouped(OutcomeType type) {
+        return BY_MEMBER.containsKey(type);
+    }
+
+    public static List<OutcomeGroup> groupsFor(OutcomeType type, SportEnum sport) {
+        List<OutcomeGroup> groups = BY_MEMBER.get(type);
+        if (groups == null || sport == null) {
+            return Collections.emptyList();
+        }
+        List<OutcomeGroup> matching = new ArrayList<>(groups.size());
+        for (OutcomeGroup group : groups) {
+            if (group.sport == sport) {
+                matching.add(group);
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,372 @@
+package com.mouse.bet.finance;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import com.mouse.bet.entity.Wallet;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.repository.WalletRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory wallet balances in kobo. Each bookmaker holds two atomic counters: what is free to
+ * stake and what is reserved for arbs in flight. A reservation is one CAS on the free counter, so
+ * two concurrent arbs can never both claim the same naira, and a fund check is a single volatile
+ * read. Reserved stakes are committed when their leg is placed or released when it is not.
+ * The {@code wallet} table is written behind on the {@link Lane#PERSIST} lane; a bookmaker's row is read once,
+ * on first use, and after that the ledger is the writer of its balance column.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletLedger {
+
+    private static final int SCALE = 2;
+
+    private final WalletRepository walletRepository;
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    private final Account[] accounts = newAccounts();
+
+    /** Kobo reserved per reservation id, indexed by bookmaker ordinal. */
+    private final Map<String, long[]> reservations = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    private ScheduledFuture<?> flushSchedule;
+
+    @Value("${wallet.ledger.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000;
+
+    private static final class Account {
+        final BookMaker bookmaker;
+        final AtomicLong available = new AtomicLong();
+        final AtomicLong reserved = new AtomicLong();
+        final AtomicBoolean dirty = new AtomicBoolean();
+        final ReentrantLock loadLock = new ReentrantLock();
+        volatile boolean loaded;
+        volatile boolean exists;
+
+        Account(BookMaker bookmaker) {
+            this.bookmaker = bookmaker;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Account account : accounts) {
+            String tag = account.bookmaker.name();
+            Gauge.builder("wallet.ledger.available", account.available, kobo -> kobo.get() / 100.0)
+                    .tag("bookmaker", tag).register(meterRegistry);
+            Gauge.builder("wallet.ledger.reserved", account.reserved, kobo -> kobo.get() / 100.0)
+                    .tag("bookmaker", tag).register(meterRegistry);
+        }
+        FunctionCounter.builder("wallet.ledger.rejected", rejected, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("wallet.ledger.flushes", flushes, AtomicLong::get).register(meterRegistry);
+
+        flushSchedule = executionLanes.scheduleAtFixedRate(Lane.PERSIST, this::flushSafely,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Wallet ledger started (flushIntervalMs={})", flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushSchedule != null) {
+            flushSchedule.cancel(false);
+        }
+        flushSafely();
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * True if the bookmaker's free balance covers the amount right now; reserves nothing
+     */
+    public boolean canAfford(BookMaker bookmaker, BigDecimal amount) {
+        if (bookmaker == null || amount == null) {
+            return false;
+        }
+        return account(bookmaker).available.get() >= toKoboCeiling(amount);
+    }
+
+    /** Balance not yet reserved for an arb. */
+    public BigDecimal available(BookMaker bookmaker) {
+        return toNaira(account(bookmaker).available.get());
+    }
+
+    /** Money held at the bookmaker: free plus reserved. */
+    public BigDecimal balance(BookMaker bookmaker) {
+        Account account = account(bookmaker);
+        return toNaira(account.available.get() + account.reserved.get());
+    }
+
+    public boolean hasWallet(BookMaker bookmaker) {
+        return account(bookmaker).exists;
+    }
+
+    /**
+     * Detached view of the ledger's balance for callers that expect a wallet
+     */
+    public Wallet snapshot(BookMaker bookmaker) {
+        return Wallet.builder()
+                .bookmaker(bookmaker)
+                .availableBalance(balance(bookmaker))
+                .lastUpdated(Instant.now())
+                .build();
+    }
+
+    // ==================== RESERVATIONS ====================
+
+    /**
+     * Reserve every stake or none. Bookmakers are claimed in ordinal order and rolled back on the
+     * first shortfall, so a competing arb may briefly see less than is free but never more.
+     */
+    public boolean reserve(String reservationId, Map<BookMaker, BigDecimal> stakes) {
+        long[] kobo = new long[accounts.length];
+        stakes.forEach((bookmaker, stake) -> kobo[bookmaker.ordinal()] += toKoboCeiling(stake));
+
+        if (reservations.putIfAbsent(reservationId, kobo) != null) {
+            log.warn("Reservation already held | Id: {}", reservationId);
+            return false;
+        }
+
+        for (int i = 0; i < kobo.length; i++) {
+            if (kobo[i] > 0 && !claim(accounts[i], kobo[i])) {
+                for (int j = 0; j < i; j++) {
+                    if (kobo[j] > 0) {
+                        unclaim(accounts[j], kobo[j]);
+                    }
+                }
+                reservations.remove(reservationId, kobo);
+                rejected.incrementAndGet();
+                log.warn("💸 Insufficient funds to reserve | Id: {} | Bookmaker: {} | Needed: {} | Available: {}",
+                        reservationId, accounts[i].bookmaker, toNaira(kobo[i]), available(accounts[i].bookmaker));
+                return false;
+            }
+        }
+
+        log.debug("Reserved | Id: {} | Stakes: {}", reservationId, stakes);
+        return true;
+    }
+
+    /**
+     * The bookmaker's reserved stake was placed: it leaves the balance for good
+     */
+    public BigDecimal commit(String reservationId, BookMaker bookmaker) {
+        long kobo = take(reservationId, bookmaker);
+        if (kobo > 0) {
+            Account account = accounts[bookmaker.ordinal()];
+            account.reserved.addAndGet(-kobo);
+            account.dirty.set(true);
+            log.debug("Committed | Id: {} | Bookmaker: {} | Amount: {}", reservationId, bookmaker, toNaira(kobo));
+        }
+        return toNaira(kobo);
+    }
+
+    /**
+     * The bookmaker's reserved stake was not placed: it is free again
+     */
+    public BigDecimal release(String reservationId, BookMaker bookmaker) {
+        long kobo = take(reservationId, bookmaker);
+        if (kobo > 0) {
+            unclaim(accounts[bookmaker.ordinal()], kobo);
+            log.debug("Released | Id: {} | Bookmaker: {} | Amount: {}", reservationId, bookmaker, toNaira(kobo));
+        }
+        return toNaira(kobo);
+    }
+
+    /**
+     * Release whatever is still reserved under the id
+     */
+    public void releaseAll(String reservationId) {
+        for (BookMaker bookmaker : BookMaker.values()) {
+            release(reservationId, bookmaker);
+        }
+    }
+
+    // ==================== DIRECT MOVEMENTS ====================
+
+    /**
+     * Take the amount from the free balance if it is there; false leaves the balance untouched
+     */
+    public boolean debit(BookMaker bookmaker, BigDecimal amount) {
+        Account account = account(bookmaker);
+        if (!claim(account, toKoboCeiling(amount))) {
+            return false;
+        }
+        account.dirty.set(true);
+        return true;
+    }
+
+    /**
+     * Move the free balance by a signed amount without any check; returns the new balance
+     */
+    public BigDecimal adjust(BookMaker bookmaker, BigDecimal delta) {
+        Account account = account(bookmaker);
+        account.available.addAndGet(toKoboFloor(delta));
+        account.dirty.set(true);
+        return balance(bookmaker);
+    }
+
+    /**
+     * Replace the balance with the one read from the bookmaker. Stakes still reserved have not been
+     * placed, so they are part of the actual balance and stay reserved out of it.
+     */
+    public void sync(BookMaker bookmaker, BigDecimal actualBalance) {
+        Account account = accounts[bookmaker.ordinal()];
+        account.loadLock.lock();
+        try {
+            account.available.set(toKoboFloor(actualBalance) - account.reserved.get());
+            account.loaded = true;
+            account.exists = true;
+        } finally {
+            account.loadLock.unlock();
+        }
+    }
+
+    // ==================== WRITE-BEHIND ====================
+
+    void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("❌ Wallet ledger flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write every changed balance to the wallet table; synchronized so the shutdown flush cannot
+     * overtake a lane flush with an older balance
+     */
+    synchronized void flush() {
+        for (Account account : accounts) {
+            if (!account.dirty.getAndSet(false)) {
+                continue;
+            }
+            BigDecimal balance = balance(account.bookmaker);
+            try {
+                if (walletRepository.writeBalance(account.bookmaker, balance, Instant.now()) == 0) {
+                    log.warn("No wallet row to write ledger balance to | Bookmaker: {}", account.bookmaker);
+                }
+                flushes.incrementAndGet();
+            } catch (RuntimeException e) {
+                account.dirty.set(true);
+                throw e;
+            }
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private Account account(BookMaker bookmaker) {
+        Account account = accounts[bookmaker.ordinal()];
+        if (!account.loaded) {
+            load(account);
+        }
+        return account;
+    }
+
+    /**
+     * First use reads the bookmaker's row, after any warm-state restore has run
+     */
+    private void load(Account account) {
+        account.loadLock.lock();
+        try {
+            if (account.loaded) {
+                return;
+            }
+            walletRepository.findByBookmaker(account.bookmaker).ifPresent(wallet -> {
+                account.available.addAndGet(toKoboFloor(wallet.getAvailableBalance()));
+                account.exists = true;
+            });
+            account.loaded = true;
+            log.info("Wallet ledger loaded | Bookmaker: {} | Balance: {}", account.bookmaker, toNaira(account.available.get()));
+        } finally {
+            account.loadLock.unlock();
+        }
+    }
+
+    /**
+     * Reserved is raised before free is lowered: a sync landing in between then deducts the
+     * stake twice until the next sync, instead of not at all
+     */
+    private boolean claim(Account account, long kobo) {
+        if (!account.loaded) {
+            load(account);
+        }
+        account.reserved.addAndGet(kobo);
+        long free;
+        do {
+            free = account.available.get();
+            if (free < kobo) {
+                account.reserved.addAndGet(-kobo);
+                return false;
+            }
+        } while (!account.available.compareAndSet(free, free - kobo));
+        return true;
+    }
+
+    private void unclaim(Account account, long kobo) {
+        account.reserved.addAndGet(-kobo);
+        account.available.addAndGet(kobo);
+    }
+
+    /**
+     * Remove one bookmaker's share of a reservation, dropping the reservation once it is empty
+     */
+    private long take(String reservationId, BookMaker bookmaker) {
+        long[] taken = new long[1];
+        reservations.computeIfPresent(reservationId, (id, kobo) -> {
+            taken[0] = kobo[bookmaker.ordinal()];
+            kobo[bookmaker.ordinal()] = 0;
+            for (long k : kobo) {
+                if (k > 0) {
+                    return kobo;
+                }
+            }
+            return null;
+        });
+        return taken[0];
+    }
+
+    private static Account[] newAccounts() {
+        Account[] accounts = new Account[BookMaker.values().length];
+        for (BookMaker bookmaker : BookMaker.values()) {
+            accounts[bookmaker.ordinal()] = new Account(bookmaker);
+        }
+        return accounts;
+    }
+
+    // Stakes round up and balances round down, so the ledger never believes in money it lacks
+    private static long toKoboCeiling(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    private static long toKoboFloor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toNaira(long kobo) {
+        return BigDecimal.valueOf(kobo, SCALE);
+    }
+}
@@ -20,6 +20,7 @@ public class WalletService {
 
     private final WalletRepository walletRepository;
     private final ExecutionLogService executionLogService;
+    private final WalletLedger walletLedger;
 
     /**
      * Save or update the available balance for a bookmaker.
@@ -48,7 +49,7 @@ public class WalletService {
         }
 
         BigDecimal finalActualBalance = actualBalance;
-        return walletRepository.findByBookmaker(bookMaker)
+        Wallet saved = walletRepository.findByBookmaker(bookMaker)
                 .map(existing -> {
                     BigDecimal oldBalance = existing.getAvailableBalance();
                     if (oldBalance.compareTo(finalActualBalance) != 0) {
@@ -72,60 +73,51 @@ public class WalletService {
                             .build();
                     return walletRepository.save(newWallet);
                 });
+
+        // Stakes still reserved for arbs in flight stay reserved out of the synced balance
+        walletLedger.sync(bookMaker, finalActualBalance);
+        return saved;
     }
 
     /**
-     * Get available balance by bookmaker
+     * Get the balance free to stake by bookmaker, net of reservations for arbs in flight
      */
-    @Transactional
     public BigDecimal getBalance(BookMaker bookMaker) {
         if (bookMaker == null) {
             log.warn("Cannot get balance with null bookMaker");
             return BigDecimal.ZERO;
         }
 
-        return walletRepository.findByBookmaker(bookMaker)
-                .map(Wallet::getAvailableBalance)
-                .orElseGet(() -> {
-                    log.warn("No wallet found for bookmaker={}, returning zero", bookMaker);
-                    return BigDecimal.ZERO;
-                });
+        if (!walletLedger.hasWallet(bookMaker)) {
+            log.warn("No wallet found for bookmaker={}, returning zero", bookMaker);
+            return BigDecimal.ZERO;
+        }
+        return walletLedger.available(bookMaker);
     }
 
     /**
      * Update balance by adding or subtracting amount
      */
-    @Transactional
     public Wallet updateBalance(BookMaker bookMaker, BigDecimal amount) {
         if (bookMaker == null || amount == null) {
             log.warn("Cannot update balance with null bookMaker or amount");
             return null;
         }
 
-        Wallet wallet = walletRepository.findByBookmaker(bookMaker)
-                .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
-
-        BigDecimal oldBalance = wallet.getAvailableBalance();
-        BigDecimal newBalance = oldBalance.add(amount);
-
-        wallet.setAvailableBalance(newBalance);
-        wallet.setLastUpdated(Instant.now());
+        requireWallet(bookMaker);
+        BigDecimal newBalance = walletLedger.adjust(bookMaker, amount);
 
         log.info("Updated balance for bookmaker={}: {} -> {} (change: {})",
-                bookMaker, oldBalance, newBalance, amount);
+                bookMaker, newBalance.subtract(amount), newBalance, amount);
 
-        return walletRepository.save(wallet);
+        return walletLedger.snapshot(bookMaker);
     }
 
     /**
-     * Quick check if bookmaker can afford amount
+     * Quick check if bookmaker can afford amount; an in-memory read, safe on the detection path
      */
-    @Transactional
     public boolean canAfford(BookMaker bookMaker, BigDecimal amount) {
-        if (bookMaker == null || amount == null) {
-            return false;
-        }
-        return getBalance(bookMaker).compareTo(amount) >= 0;
+        return walletLedger.canAfford(bookMaker, amount);
     }
 
 
@@ -140,7 +132,6 @@ public class WalletService {
      * @throws IllegalStateException if wallet doesn't exist
      * @throws IllegalArgumentException if amount is negative or zero
      */
-    @Transactional
     public Wallet spend(BookMaker bookMaker, BigDecimal amount) {
         if (bookMaker == null || amount == null) {
             log.warn("Cannot spend with null bookMaker or amount");
@@ -153,30 +144,23 @@ public class WalletService {
         }
 
         // Get wallet or throw exception
-        Wallet wallet = walletRepository.findByBookmaker(bookMaker)
-                .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
-
-        BigDecimal currentBalance = wallet.getAvailableBalance();
+        requireWallet(bookMaker);
 
-        // Check if wallet has sufficient balance
-        if (!wallet.hasSufficientBalance(amount)) {
+        // Deduct amount from the free balance, only if it is there
+        if (!walletLedger.debit(bookMaker, amount)) {
             log.error("Insufficient balance for bookmaker={}: required={}, available={}",
-                    bookMaker, amount, currentBalance);
+                    bookMaker, amount, walletLedger.available(bookMaker));
             return null;
         }
 
-        // Deduct amount from balance
-        BigDecimal newBalance = currentBalance.subtract(amount);
-        wallet.setAvailableBalance(newBalance);
-        wallet.setLastUpdated(Instant.now());
-
+        Wallet wallet = walletLedger.snapshot(bookMaker);
         log.info("Spent {} from bookmaker={}: balance {} -> {}",
-                amount, bookMaker, currentBalance, newBalance);
+                amount, bookMaker, wallet.getAvailableBalance().add(amount), wallet.getAvailableBalance());
 
         // Log to execution log if needed
 //        executionLogService.logBalanceChange(bookMaker, currentBalance, newBalance, amount.negate(), "BET_PLACED");
 
-        return walletRepository.save(wallet);
+        return wallet;
     }
 
     /**
@@ -187,7 +171,6 @@ public class WalletService {
      * @param reason Description of the spend (e.g., "Bet on Arsenal vs Chelsea")
      * @return Updated Wallet entity, or null if insufficient balance
      */
-    @Transactional
     public Wallet spend(BookMaker bookMaker, BigDecimal amount, String reason) {
         log.info("Spending {} from bookmaker={} - Reason: {}", amount, bookMaker, reason);
 
@@ -214,7 +197,6 @@ public class WalletService {
      * @param amount The winning amount to add
      * @return Updated Wallet entity
      */
-    @Transactional
     public Wallet addWinnings(BookMaker bookMaker, BigDecimal amount) {
         if (bookMaker == null || amount == null) {
             log.warn("Cannot add winnings with null bookMaker or amount");
@@ -226,21 +208,15 @@ public class WalletService {
             return null;
         }
 
-        Wallet wallet = walletRepository.findByBookmaker(bookMaker)
-                .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
-
-        BigDecimal oldBalance = wallet.getAvailableBalance();
-        BigDecimal newBalance = oldBalance.add(amount);
-
-        wallet.setAvailableBalance(newBalance);
-        wallet.setLastUpdated(Instant.now());
+        requireWallet(bookMaker);
+        BigDecimal newBalance = walletLedger.adjust(bookMaker, amount);
 
         log.info("Added winnings {} to bookmaker={}: balance {} -> {}",
-                amount, bookMaker, oldBalance, newBalance);
+                amount, bookMaker, newBalance.subtract(amount), newBalance);
 
 //        executionLogService.logBalanceChange(bookMaker, oldBalance, newBalance, amount, "BET_WON");
 
-        return walletRepository.save(wallet);
+        return walletLedger.snapshot(bookMaker);
     }
 
     /**
@@ -252,7 +228,6 @@ public class WalletService {
      * @param reason Reason for refund
      * @return Updated Wallet entity
      */
-    @Transactional
     public Wallet refund(BookMaker bookMaker, BigDecimal amount, String reason) {
         if (bookMaker == null || amount == null) {
             log.warn("Cannot refund with null bookMaker or amount");
@@ -264,21 +239,15 @@ public class WalletService {
             return null;
         }
 
-        Wallet wallet = walletRepository.findByBookmaker(bookMaker)
-                .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
-
-        BigDecimal oldBalance = wallet.getAvailableBalance();
-        BigDecimal newBalance = oldBalance.add(amount);
-
-        wallet.setAvailableBalance(newBalance);
-        wallet.setLastUpdated(Instant.now());
+        requireWallet(bookMaker);
+        BigDecimal newBalance = walletLedger.adjust(bookMaker, amount);
 
         log.info("Refunded {} to bookmaker={}: balance {} -> {} - Reason: {}",
-                amount, bookMaker, oldBalance, newBalance, reason);
+                amount, bookMaker, newBalance.subtract(amount), newBalance, reason);
 
 //        executionLogService.logBalanceChange(bookMaker, oldBalance, newBalance, amount, "REFUND: " + reason);
 
-        return walletRepository.save(wallet);
+        return walletLedger.snapshot(bookMaker);
     }
 
     /**
@@ -298,8 +267,8 @@ public class WalletService {
         Wallet wallet = walletRepository.findByBookmaker(bookMaker)
                 .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
 
-        BigDecimal oldBalance = wallet.getAvailableBalance();
-        BigDecimal newBalance = oldBalance.add(amount);
+        BigDecimal newBalance = walletLedger.adjust(bookMaker, amount);
+        BigDecimal oldBalance = newBalance.subtract(amount);
 
         wallet.setAvailableBalance(newBalance);
         wallet.setTotalDeposited(wallet.getTotalDeposited().add(amount));
@@ -330,14 +299,14 @@ public class WalletService {
         Wallet wallet = walletRepository.findByBookmaker(bookMaker)
                 .orElseThrow(() -> new IllegalStateException("No wallet found for bookmaker: " + bookMaker));
 
-        if (!wallet.hasSufficientBalance(amount)) {
+        if (!walletLedger.debit(bookMaker, amount)) {
             log.error("Insufficient balance for withdrawal: required={}, available={}",
-                    amount, wallet.getAvailableBalance());
+                    amount, walletLedger.available(bookMaker));
             return null;
         }
 
-        BigDecimal oldBalance = wallet.getAvailableBalance();
-        BigDecimal newBalance = oldBalance.subtract(amount);
+        BigDecimal newBalance = walletLedger.balance(bookMaker);
+        BigDecimal oldBalance = newBalance.add(amount);
 
         wallet.setAvailableBalance(newBalance);
         wallet.setTotalWithdrawn(wallet.getTotalWithdrawn().add(amount));
@@ -351,5 +320,9 @@ public class WalletService {
         return walletRepository.save(wallet);
     }
 
-
+    private void requireWallet(BookMaker bookMaker) {
+        if (!walletLedger.hasWallet(bookMaker)) {
+            throw new IllegalStateException("No wallet found for bookmaker: " + bookMaker);
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.mouse.bet.interfaces;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.model.NormalizedEvent;
+
+/**
+ * Checks failed bet legs against freshly fetched odds. Optional: the fetchers run without it when no bean provides one.
+ */
+@FunctionalInterface
+public interface BetLegRetryHook {
+    void updateFailedBetLeg(NormalizedEvent normalizedEvent, BookMaker bookmaker);
+}
@@ -1,48 +1,65 @@
 package com.mouse.bet.manager;
 
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
 import com.mouse.bet.entity.Arb;
 import com.mouse.bet.entity.BetLeg;
 import com.mouse.bet.enums.BookMaker;
 import com.mouse.bet.enums.Status;
+import com.mouse.bet.finance.WalletLedger;
 import com.mouse.bet.model.arb.LegResult;
+import com.mouse.bet.service.ArbCommand;
 import com.mouse.bet.service.ArbPollingService;
 import com.mouse.bet.service.ArbService;
 
 import com.mouse.bet.tasks.LegTask;
-import com.mouse.bet.utils.ArbitrageUtil;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
- * Single-slot orchestrator: processes one Arb at a time.
- * Dispatches legs to per-bookmaker worker queues and waits (via Phaser) until all assigned legs finish.
+ * Concurrent orchestrator: several Arbs execute at once, bounded by a global in-flight limit and by
+ * per-bookmaker leg capacity, so Arbs on disjoint bookmakers or with free worker slots proceed in parallel.
+ * Capacity is reserved when an Arb is loaded and released after its legs finish and the cooldown passes.
+ * The loop thread only dispatches legs to the per-bookmaker worker queues; each Arb's Phaser completes it
+ * asynchronously, so no thread waits on a running Arb.
+ * Every loaded Arb carries a deadline derived from when its odds were last seen; the loop dispatches
+ * the earliest deadline first and workers drop tasks past it at dequeue, so stale work never executes
+ * and valid work is never swept away.
+ * Dispatch runs on one thread, and worker queues keep dispatch order, so every worker queue sees
+ * shared Arbs in the same order and two workers never end up waiting on each other's later Arb.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ArbOrchestrator {
-    /** Single active Arb slot. */
 
     private static final String EMOJI_CLEANUP = "🧹";
-    private static final String EMOJI_QUEUE = "📋";
     private static final String EMOJI_REMOVED = "🗑️";
     private static final String EMOJI_EMPTY = "📭";
-    private static final String EMOJI_INFO = "ℹ️";
     private static final String EMOJI_SKIP = "⏭️";
 
-    @Getter
-    private final BlockingQueue<Arb> arbQueue = new ArrayBlockingQueue<>(1);
+    /** Pause before an Arb's bookmakers take another one, as the single slot used to. */
+    private static final long COOLDOWN_MIN_MS = 15000;
+    private static final long COOLDOWN_MAX_MS = 25000;
+
+    /** Loaded Arbs waiting for the loop to dispatch them, earliest deadline first; their capacity is already reserved. */
+    private final PriorityBlockingQueue<QueuedArb> arbQueue = new PriorityBlockingQueue<>(16,
+            Comparator.comparing(QueuedArb::deadline).thenComparingLong(QueuedArb::sequence));
+    private final AtomicLong loadSequence = new AtomicLong();
 
     /** Per-bookmaker worker task queues. */
     @Getter
@@ -52,24 +69,42 @@ public class ArbOrchestrator {
     private volatile Set<BookMaker> registeredWorkers = Set.of();
 
     private final ArbService arbService;
+    private final ArbRevalidator revalidator;
+    private final WalletLedger walletLedger;
+    private final ExecutionLanes executionLanes;
+
+    /** Reserved bookmakers per loaded Arb, and the resulting legs in flight per bookmaker. */
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition capacityFreed = capacityLock.newCondition();
+    private final Map<String, Set<BookMaker>> reservations = new HashMap<>();
+    private final Map<BookMaker, Integer> legsInFlight = new EnumMap<>(BookMaker.class);
+
+    @Value("${arb.orchestrator.max-concurrent-arbs:4}")
+    private int maxConcurrentArbs = 4;
 
+    /** Legs a bookmaker's worker may have queued or executing at once. */
+    @Value("${arb.orchestrator.bookmaker-capacity:2}")
+    private int bookmakerCapacity = 2;
 
-    @Value("${sporty.poll.interval.ms:2000}")
-    private long pollIntervalMs;
+    /** Odds older than this are not acted on: queued Arbs and leg tasks past it are dropped. */
+    @Value("${arb.orchestrator.task-max-age-ms:5000}")
+    private long taskMaxAgeMs = 5000;
+
+    /** An Arb whose legs have not all arrived by then is failed and its workers released. */
+    @Value("${arb.orchestrator.completion-timeout-seconds:180}")
+    private long completionTimeoutSeconds = 180;
 
     /** Retry policy for each Leg. */
     private int maxRetries;
     private Duration retryBackoff;
 
-    /** Orchestrator loop. */
-    private final ExecutorService orchestratorExec = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "arb-orchestrator");
-        t.setDaemon(true);
-        return t;
-    });
+    /** Orchestrator loop, on a dedicated thread from the execution lanes. */
+    private volatile Thread loopThread;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
 
+    private record QueuedArb(Arb arb, Instant deadline, long sequence) {}
+
 
     /** Register a worker queue for a bookmaker. Call this at startup after creating workers. */
     public void registerWorker(BookMaker bookmaker, BlockingQueue<LegTask> queue) {
@@ -85,40 +120,151 @@ public class ArbOrchestrator {
                 bookmaker, registeredWorkers.size());
     }
 
-    /** Non-blocking: put an Arb into the single slot; returns false if busy. */
+    /** Non-blocking: load an Arb if there is capacity for all its bookmakers; returns false otherwise. */
     public boolean tryLoadArb(Arb arb) {
         Objects.requireNonNull(arb);
-        boolean loaded = arbQueue.offer(arb);
+        boolean loaded = tryReserve(arb.getArbId(), bookmakersOf(arb)) && enqueue(arb);
 
         if (loaded) {
-            log.info("Arb loaded into queue (non-blocking) | ArbId: {} | Status: {} | LegsCount: {}",
-                    arb.getArbId(), arb.getStatus(), arb.getLegs().size());
+            log.info("Arb loaded into queue (non-blocking) | ArbId: {} | Status: {} | LegsCount: {} | InFlight: {}",
+                    arb.getArbId(), arb.getStatus(), arb.getLegs().size(), arbsInFlight());
         } else {
-            log.warn("Failed to load Arb (queue full) | ArbId: {} | QueueSize: {}",
-                    arb.getArbId(), arbQueue.size());
+            log.warn("Failed to load Arb (no capacity) | ArbId: {} | InFlight: {} | LegsInFlight: {}",
+                    arb.getArbId(), arbsInFlight(), legsInFlightSnapshot());
         }
 
         return loaded;
     }
 
-    /** Blocking: put an Arb into the single slot; waits until free. */
+    /** Blocking: load an Arb; waits until there is capacity for all its bookmakers. */
     public void loadArb(Arb arb) throws InterruptedException {
         Objects.requireNonNull(arb);
-        log.info("Attempting to load Arb (blocking) | ArbId: {} | QueueSize: {}",
-                arb.getArbId(), arbQueue.size());
-
-        arbQueue.put(arb);
+        log.info("Attempting to load Arb (blocking) | ArbId: {} | InFlight: {}",
+                arb.getArbId(), arbsInFlight());
+
+        Set<BookMaker> bookmakers = bookmakersOf(arb);
+        capacityLock.lock();
+        try {
+            while (!reserveLocked(arb.getArbId(), bookmakers)) {
+                capacityFreed.await();
+            }
+        } finally {
+            capacityLock.unlock();
+        }
+        enqueue(arb);
 
         log.info("Arb loaded into queue (blocking completed) | ArbId: {} | Status: {} | LegsCount: {}",
                 arb.getArbId(), arb.getStatus(), arb.getLegs().size());
     }
 
+    private boolean enqueue(Arb arb) {
+        return arbQueue.offer(new QueuedArb(arb, deadlineFor(arb), loadSequence.incrementAndGet()));
+    }
+
+    /** The moment the Arb's odds become too old to place: last seen plus the task max age. */
+    Instant deadlineFor(Arb arb) {
+        Instant seenAt = arb.getLastUpdatedAt() != null ? arb.getLastUpdatedAt() : Instant.now();
+        return seenAt.plusMillis(taskMaxAgeMs);
+    }
+
+    /** Wait until fewer than the maximum Arbs are in flight, without reserving anything. */
+    public boolean awaitCapacity(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        capacityLock.lock();
+        try {
+            while (reservations.size() >= maxConcurrentArbs) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = capacityFreed.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /** True if an Arb on these bookmakers would be admitted right now. */
+    public boolean canAccept(Set<BookMaker> bookmakers) {
+        capacityLock.lock();
+        try {
+            return hasCapacityLocked(bookmakers);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private boolean tryReserve(String arbId, Set<BookMaker> bookmakers) {
+        capacityLock.lock();
+        try {
+            return reserveLocked(arbId, bookmakers);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private boolean reserveLocked(String arbId, Set<BookMaker> bookmakers) {
+        if (reservations.containsKey(arbId) || !hasCapacityLocked(bookmakers)) {
+            return false;
+        }
+        reservations.put(arbId, bookmakers);
+        bookmakers.forEach(bm -> legsInFlight.merge(bm, 1, Integer::sum));
+        return true;
+    }
+
+    private boolean hasCapacityLocked(Set<BookMaker> bookmakers) {
+        if (reservations.size() >= maxConcurrentArbs) {
+            return false;
+        }
+        for (BookMaker bm : bookmakers) {
+            if (legsInFlight.getOrDefault(bm, 0) >= bookmakerCapacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Give back the Arb's reserved capacity and wake anyone waiting for it. */
+    private void release(String arbId) {
+        capacityLock.lock();
+        try {
+            Set<BookMaker> bookmakers = reservations.remove(arbId);
+            if (bookmakers == null) {
+                return;
+            }
+            bookmakers.forEach(bm -> legsInFlight.computeIfPresent(bm, (k, n) -> n > 1 ? n - 1 : null));
+            capacityFreed.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+        log.debug("Arb capacity released | ArbId: {} | InFlight: {}", arbId, arbsInFlight());
+    }
+
+    public int arbsInFlight() {
+        capacityLock.lock();
+        try {
+            return reservations.size();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private Map<BookMaker, Integer> legsInFlightSnapshot() {
+        capacityLock.lock();
+        try {
+            return Map.copyOf(legsInFlight);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
     /** Start the orchestrator loop. Safe to call multiple times. */
     public void start() {
         if (running.compareAndSet(false, true)) {
-            log.info("Starting ArbOrchestrator | RegisteredWorkers: {} | PollIntervalMs: {}",
-                    registeredWorkers, pollIntervalMs);
-            orchestratorExec.submit(this::runLoop);
+            log.info("Starting ArbOrchestrator | RegisteredWorkers: {} | MaxConcurrentArbs: {} | BookmakerCapacity: {}",
+                    registeredWorkers, maxConcurrentArbs, bookmakerCapacity);
+            loopThread = executionLanes.blockingThreadFactory("arb-orchestrator", true).newThread(this::runLoop);
+            loopThread.start();
         } else {
             log.debug("ArbOrchestrator start() called but already running");
         }
@@ -126,9 +272,12 @@ public class ArbOrchestrator {
 
     /** Stop the orchestrator loop. */
     public void stop() {
-        log.info("Stopping ArbOrchestrator | CurrentQueueSize: {}", arbQueue.size());
+        log.info("Stopping ArbOrchestrator | CurrentQueueSize: {} | InFlight: {}", arbQueue.size(), arbsInFlight());
         running.set(false);
-        orchestratorExec.shutdownNow();
+        Thread loop = loopThread;
+        if (loop != null) {
+            loop.interrupt();
+        }
         log.info("ArbOrchestrator shutdown initiated");
     }
 
@@ -137,31 +286,32 @@ public class ArbOrchestrator {
 
         while (running.get()) {
             try {
-                // Poll with timeout — returns null if nothing in queue within 150ms
-                log.trace("Polling arb queue | QueueSize: {}", arbQueue.size());
-                Arb arb = arbQueue.peek();
-
-                // === NULL CHECK: Skip if no arb available (normal during idle) ===
-                if (arb == null) {
-                    // Optional: small sleep to reduce CPU usage during idle periods
-                    // page.waitForTimeout(100); // if you have a page, or Thread.sleep(100);
-                    continue;  // Go back to while loop — wait for next arb
+                // Block until an Arb is loaded; no spinning while idle
+                QueuedArb queued = arbQueue.take();
+                Arb arb = queued.arb();
+
+                if (Instant.now().isAfter(queued.deadline())) {
+                    log.info("{} Queued Arb expired before dispatch | ArbId: {} | Deadline: {}",
+                            EMOJI_SKIP, arb.getArbId(), queued.deadline());
+                    release(arb.getArbId());
+                    continue;
                 }
 
-                // === ARB FOUND → PROCESS IT ===
-                log.info("=== Processing Arb | ArbId: {} | Status: {} | LegsCount: {} ===",
-                        arb.getArbId(), arb.getStatus(), arb.getLegs().size());
+                try {
+                    log.info("=== Dispatching Arb | ArbId: {} | Status: {} | LegsCount: {} | InFlight: {} ===",
+                            arb.getArbId(), arb.getStatus(), arb.getLegs().size(), arbsInFlight());
 
-                processOneArb(arb);
+                    processOneArb(arb, queued.deadline());
 
-                log.info("=== Completed Processing Arb | ArbId: {} | FinalStatus: {} ===",
-                        arb.getArbId(), arb.getStatus());
-                log.info("Trying to clear arb queue");
-
-                arbQueue.clear();
-
-                ArbitrageUtil.randomHumanDelay(15000, 25000);
+                } catch (InterruptedException ie) {
+                    finishImmediately(arb, Status.FAILED);
+                    throw ie;
 
+                } catch (Exception ex) {
+                    log.error("Dispatch failed, releasing Arb | ArbId: {} | Type: {} | Message: {}",
+                            arb.getArbId(), ex.getClass().getSimpleName(), ex.getMessage(), ex);
+                    finishImmediately(arb, Status.FAILED);
+                }
 
             } catch (InterruptedException ie) {
                 log.warn("ArbOrchestrator loop interrupted", ie);
@@ -178,104 +328,27 @@ public class ArbOrchestrator {
         log.info("ArbOrchestrator loop stopped | FinalQueueSize: {}", arbQueue.size());
     }
 
-    @Scheduled(fixedDelay = 5000, initialDelay = 5000)
-    public void cleanupQueues() {
-        log.debug("{} Starting scheduled queue cleanup", EMOJI_CLEANUP);
-
-        int totalRemoved = 0;
-
-        // Clean arbQueue only if not empty
-        int arbsRemoved = cleanArbQueueIfNotEmpty();
-        totalRemoved += arbsRemoved;
-
-        // Clean worker queues only if they have items
-        int legTasksRemoved = cleanNonEmptyWorkerQueues();
-        totalRemoved += legTasksRemoved;
-
-        if (totalRemoved > 0) {
-            log.info("{} {} Cleanup completed | Removed: {} arbs, {} leg tasks (Total: {})",
-                    EMOJI_CLEANUP, EMOJI_REMOVED, arbsRemoved, legTasksRemoved, totalRemoved);
-        } else {
-            log.trace("{} {} Cleanup skipped | All queues empty", EMOJI_CLEANUP, EMOJI_EMPTY);
-        }
-    }
-
     /**
-     * Clean arbQueue only if it has items
-     * @return number of Arbs removed
+     * Next live task for a bookmaker's worker, or null if none. Tasks past their deadline are dropped
+     * on the way, settling their leg as failed, so a worker never picks up odds that are already too old.
      */
-    private int cleanArbQueueIfNotEmpty() {
-        // Check if queue is empty before attempting cleanup
-        if (arbQueue.isEmpty()) {
-            log.trace("{} {} arbQueue is empty, skipping cleanup", EMOJI_SKIP, EMOJI_EMPTY);
-            return 0;
-        }
-
-        int removed = 0;
-        Arb arb;
-
-        log.debug("{} {} arbQueue has items, starting cleanup", EMOJI_CLEANUP, EMOJI_QUEUE);
-
-        while ((arb = arbQueue.poll()) != null) {
-            removed++;
-            log.debug("{} Removed Arb from queue | ArbId: {} | Profit: {}%",
-                    EMOJI_REMOVED, arb.getArbId(), arb.getProfitPercentage());
+    public LegTask nextTask(BookMaker bookmaker) {
+        BlockingQueue<LegTask> queue = workerQueues.get(bookmaker);
+        if (queue == null) {
+            return null;
         }
 
-        log.info("{} {} Cleared arbQueue | Removed {} arb(s)",
-                EMOJI_CLEANUP, EMOJI_QUEUE, removed);
-
-        return removed;
-    }
-
-    /**
-     * Clean worker queues only if they have items
-     * Skips empty queues entirely
-     * @return total number of LegTasks removed
-     */
-    private int cleanNonEmptyWorkerQueues() {
-        int totalRemoved = 0;
-        int skippedQueues = 0;
-        int cleanedQueues = 0;
-
-        for (var entry : workerQueues.entrySet()) {
-            BookMaker bookMaker = entry.getKey();
-            BlockingQueue<LegTask> queue = entry.getValue();
-
-            // Check if queue is empty before attempting cleanup
-            if (queue.isEmpty()) {
-                log.trace("{} {} {} queue is empty, skipping cleanup",
-                        EMOJI_SKIP, EMOJI_EMPTY, bookMaker);
-                skippedQueues++;
-                continue;
-            }
-
-            log.debug("{} {} {} queue has items, starting cleanup",
-                    EMOJI_CLEANUP, EMOJI_QUEUE, bookMaker);
-
-            int removed = 0;
-            LegTask task;
-
-            while ((task = queue.poll()) != null) {
-                removed++;
-                log.trace("{} Removed LegTask from {} queue | LegId: {}",
-                        EMOJI_REMOVED, bookMaker, task.getLeg().getBetLegId());
-            }
-
-            if (removed > 0) {
-                log.debug("{} {} Cleared {} queue | Removed {} task(s)",
-                        EMOJI_CLEANUP, EMOJI_QUEUE, bookMaker, removed);
-                totalRemoved += removed;
-                cleanedQueues++;
+        Instant now = Instant.now();
+        LegTask task;
+        while ((task = queue.poll()) != null) {
+            if (!task.isExpired(now)) {
+                return task;
             }
+            log.info("{} Dropped expired leg task | ArbId: {} | Bookmaker: {} | Deadline: {}",
+                    EMOJI_REMOVED, task.getArbId(), bookmaker, task.getDeadline());
+            task.expire();
         }
-
-        if (skippedQueues > 0 || cleanedQueues > 0) {
-            log.debug("{} Worker queues summary | Cleaned: {}, Skipped (empty): {}, Total: {}",
-                    EMOJI_INFO, cleanedQueues, skippedQueues, workerQueues.size());
-        }
-
-        return totalRemoved;
+        return null;
     }
 
     /**
@@ -287,47 +360,93 @@ public class ArbOrchestrator {
                 .mapToInt(BlockingQueue::size)
                 .sum();
 
-        return new QueueStats(arbQueueSize, totalLegTasks, workerQueues.size());
+        return new QueueStats(arbQueueSize, arbsInFlight(), totalLegTasks, workerQueues.size());
     }
 
     /**
      * Record class for queue statistics
      */
-    public record QueueStats(int arbQueueSize, int totalLegTasks, int workerQueueCount) {
+    public record QueueStats(int arbQueueSize, int arbsInFlight, int totalLegTasks, int workerQueueCount) {
         @Override
         public String toString() {
-            return String.format("QueueStats[arbs=%d, legTasks=%d, workers=%d]",
-                    arbQueueSize, totalLegTasks, workerQueueCount);
+            return String.format("QueueStats[arbs=%d, inFlight=%d, legTasks=%d, workers=%d]",
+                    arbQueueSize, arbsInFlight, totalLegTasks, workerQueueCount);
         }
     }
 
     /**
-     * Manual cleanup trigger (for testing or emergency use)
+     * Manual cleanup trigger (for emergency use): drops every queued Arb and leg task, releasing
+     * their capacity and settling their legs as failed
      */
     public void forceCleanup() {
         log.warn("{} Force cleanup triggered manually", EMOJI_CLEANUP);
-        cleanupQueues();
+
+        int arbsRemoved = 0;
+        QueuedArb queued;
+        while ((queued = arbQueue.poll()) != null) {
+            release(queued.arb().getArbId());
+            arbsRemoved++;
+        }
+
+        int legTasksRemoved = 0;
+        for (var entry : workerQueues.entrySet()) {
+            LegTask task;
+            while ((task = entry.getValue().poll()) != null) {
+                task.expire();
+                legTasksRemoved++;
+            }
+        }
+
+        if (arbsRemoved > 0 || legTasksRemoved > 0) {
+            log.info("{} {} Cleanup completed | Removed: {} arbs, {} leg tasks",
+                    EMOJI_CLEANUP, EMOJI_REMOVED, arbsRemoved, legTasksRemoved);
+        } else {
+            log.info("{} {} Cleanup skipped | All queues empty", EMOJI_CLEANUP, EMOJI_EMPTY);
+        }
     }
 
 
-    public void processOneArb(Arb arb) throws InterruptedException {
+    /**
+     * Dispatch the Arb's legs to their workers and return; completion is handled when the last leg arrives.
+     * The Arb's capacity stays reserved until then.
+     */
+    public void processOneArb(Arb arb, Instant deadline) throws InterruptedException {
         log.info("Starting arb processing | ArbId: {} | CurrentStatus: {}",
                 arb.getArbId(), arb.getStatus());
 
+        // Re-price against what the fetchers just published; a closed Arb never reaches a browser
+        ArbRevalidator.Verdict verdict = revalidator.revalidate(arb);
+        if (!verdict.proceed()) {
+            log.warn("{} Arb closed before dispatch, skipping | ArbId: {} | Reason: {}",
+                    EMOJI_SKIP, arb.getArbId(), verdict.reason());
+            release(arb.getArbId());
+            return;
+        }
+        if (verdict.resized()) {
+            log.info("Arb re-priced before dispatch | ArbId: {} | Profit: {}% | {}",
+                    arb.getArbId(), verdict.profit(), verdict.reason());
+        }
+
+        // Hold the final stakes so no concurrent Arb can spend the same funds
+        Map<BookMaker, BetLeg> legsByBook = legsByBookmaker(arb);
+        if (!walletLedger.reserve(arb.getArbId(), stakesOf(legsByBook))) {
+            log.warn("{} Insufficient funds for Arb stakes, skipping | ArbId: {}", EMOJI_SKIP, arb.getArbId());
+            release(arb.getArbId());
+            return;
+        }
+
         // Mark as IN_PROGRESS to avoid being picked again
         arb.setStatus(Status.IN_PROGRESS);
-        arbService.saveArb(arb);
+        arbService.submit(new ArbCommand.StatusTransition(arb.getArbId(), Status.IN_PROGRESS, arb.isActive()));
         log.info("Arb marked as IN_PROGRESS | ArbId: {}", arb.getArbId());
 
-        Map<BookMaker, BetLeg> legsByBook = legsByBookmaker(arb);
         log.info("Arb legs grouped by bookmaker | ArbId: {} | BookmakersCount: {} | Bookmakers: {}",
                 arb.getArbId(), legsByBook.size(), legsByBook.keySet());
 
         // If Arb has no legs, just complete it.
         if (legsByBook.isEmpty()) {
             log.warn("Arb has no legs, completing immediately | ArbId: {}", arb.getArbId());
-            arb.setStatus(Status.COMPLETED);
-            arbService.saveArb(arb);
+            finishImmediately(arb, Status.COMPLETED);
             return;
         }
 
@@ -338,8 +457,7 @@ public class ArbOrchestrator {
         if (!missingWorkers.isEmpty()) {
             log.error("Arb rejected - missing workers | ArbId: {} | MissingWorkers: {} | RegisteredWorkers: {}",
                     arb.getArbId(), missingWorkers, registeredWorkers);
-            arb.setStatus(Status.FAILED);
-            arbService.saveArb(arb);
+            finishImmediately(arb, Status.FAILED);
             return;
         }
 
@@ -348,24 +466,37 @@ public class ArbOrchestrator {
 
         // Targets are exactly the bookmakers that have legs on this Arb
         List<BookMaker> targets = new ArrayList<>(legsByBook.keySet());
-        Phaser barrier = new Phaser(targets.size());
         ConcurrentMap<BookMaker, LegResult> results = new ConcurrentHashMap<>();
+        CompletableFuture<Void> legsDone = new CompletableFuture<>();
+
+        // The last leg to arrive completes the Arb; nothing waits on the barrier but the workers themselves
+        Phaser barrier = new Phaser(targets.size()) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                legsDone.complete(null);
+                return true;
+            }
+        };
 
         log.info("Initializing leg dispatch | ArbId: {} | TargetsCount: {} | PhaserParties: {}",
                 arb.getArbId(), targets.size(), barrier.getRegisteredParties());
 
-        // Dispatch tasks to matching workers only
+        // Resolve every queue first so an Arb is dispatched to all its workers or to none
+        Map<BookMaker, BlockingQueue<LegTask>> queues = new EnumMap<>(BookMaker.class);
         for (BookMaker bm : targets) {
             BlockingQueue<LegTask> q = workerQueues.get(bm);
-
             if (q == null) {
                 log.error("Worker queue missing at dispatch time | ArbId: {} | Bookmaker: {} | FailingArb",
                         arb.getArbId(), bm);
-                arb.setStatus(Status.FAILED);
-                arbService.saveArb(arb);
+                finishImmediately(arb, Status.FAILED);
                 return;
             }
+            queues.put(bm, q);
+        }
 
+        // Dispatch tasks to matching workers only
+        for (BookMaker bm : targets) {
+            BlockingQueue<LegTask> q = queues.get(bm);
             BetLeg leg = legsByBook.get(bm);
             log.info("Preparing leg task | ArbId: {} | Bookmaker: {} | LegId: {} | Market: {} | Selection: {} | Odds: {} | Stake: {}",
                     arb.getArbId(),
@@ -385,6 +516,7 @@ public class ArbOrchestrator {
                     .retryBackoff(retryBackoff)
                     .barrier(barrier)
                     .results(results)
+                    .deadline(deadline)
                     .build();
 
             log.debug("Dispatching leg task to worker queue | ArbId: {} | Bookmaker: {} | QueueSize: {} | QueueCapacity: {}",
@@ -396,41 +528,109 @@ public class ArbOrchestrator {
                     arb.getArbId(), bm, leg.getBetLegId(), q.size());
         }
 
-        log.info("All leg tasks dispatched, waiting for completion | ArbId: {} | TotalLegs: {} | PhaserPhase: {}",
-                arb.getArbId(), targets.size(), barrier.getPhase());
-
-        // BLOCK until ALL leg tasks finish
-        log.info(("======================BLOCKED untill all the legs finish========================="));
-        int phase = barrier.getPhase();
-        barrier.awaitAdvance(phase);
+        legsDone.orTimeout(completionTimeoutSeconds, TimeUnit.SECONDS)
+                .whenCompleteAsync((ignored, error) -> completeArb(arb, targets, results, barrier, error),
+                        executionLanes.executor(Lane.EXECUTE));
 
-        log.info("All leg tasks completed | ArbId: {} | ResultsReceived: {} | ExpectedResults: {}",
-                arb.getArbId(), results.size(), targets.size());
+        log.info("All leg tasks dispatched, completing asynchronously | ArbId: {} | TotalLegs: {} | InFlight: {}",
+                arb.getArbId(), targets.size(), arbsInFlight());
+    }
 
-        // Log individual leg results
-        results.forEach((bookmaker, result) -> {
-            log.info("Leg result | ArbId: {} | Bookmaker: {} | Success: {} | Message: {}",
-                    arb.getArbId(), bookmaker, result.success(), result.message());
-        });
+    /**
+     * Record the legs' outcome on the live Arb, then release its capacity after the cooldown
+     */
+    private void completeArb(Arb arb, List<BookMaker> targets, Map<BookMaker, LegResult> results,
+                             Phaser barrier, Throwable error) {
+        try {
+            if (error != null) {
+                // Free any worker still parked on the barrier; the Arb is failed below
+                barrier.forceTermination();
+                log.error("Arb legs did not complete in time | ArbId: {} | TimeoutSeconds: {} | ArrivedLegs: {}/{}",
+                        arb.getArbId(), completionTimeoutSeconds, barrier.getArrivedParties(), targets.size());
+            }
 
-        boolean allSuccess = results.size() == targets.size()
-                && results.values().stream().allMatch(LegResult::success);
+            log.info("All leg tasks completed | ArbId: {} | ResultsReceived: {} | ExpectedResults: {}",
+                    arb.getArbId(), results.size(), targets.size());
+
+            // Log individual leg results
+            results.forEach((bookmaker, result) -> {
+                log.info("Leg result | ArbId: {} | Bookmaker: {} | Success: {} | Message: {}",
+                        arb.getArbId(), bookmaker, result.success(), result.message());
+            });
+            settleStakes(arb.getArbId(), targets, results);
+
+            boolean allSuccess = error == null
+                    && results.size() == targets.size()
+                    && results.values().stream().allMatch(LegResult::success);
+
+            Status finalStatus = allSuccess ? Status.COMPLETED : Status.FAILED;
+            arb.setStatus(finalStatus);
+            arb.setActive(false);
+            arbService.submit(new ArbCommand.LegResults(arb));
+            arbService.submit(new ArbCommand.StatusTransition(arb.getArbId(), finalStatus, false));
+
+            if (allSuccess) {
+                log.info("Arb completed successfully | ArbId: {} | Status: {} | SuccessfulLegs: {}/{}",
+                        arb.getArbId(), finalStatus, results.size(), targets.size());
+            } else {
+                long failedCount = results.values().stream().filter(r -> !r.success()).count();
+                log.error("Arb failed | ArbId: {} | Status: {} | FailedLegs: {} | SuccessfulLegs: {} | TotalLegs: {}",
+                        arb.getArbId(), finalStatus, failedCount, results.size() - failedCount, targets.size());
+            }
+        } catch (Exception e) {
+            log.error("Arb completion failed | ArbId: {} | Error: {}", arb.getArbId(), e.getMessage(), e);
+        } finally {
+            long cooldownMs = ThreadLocalRandom.current().nextLong(COOLDOWN_MIN_MS, COOLDOWN_MAX_MS + 1);
+            executionLanes.scheduler().schedule(() -> release(arb.getArbId()), cooldownMs, TimeUnit.MILLISECONDS);
+        }
+    }
 
-        Status finalStatus = allSuccess ? Status.COMPLETED : Status.FAILED;
-        arb.setStatus(finalStatus);
+    /**
+     * Settle an Arb that never reached its workers and give its capacity straight back
+     */
+    private void finishImmediately(Arb arb, Status status) {
+        arb.setStatus(status);
         arb.setActive(false);
-        arbService.saveArb(arb);
+        arbService.submit(new ArbCommand.StatusTransition(arb.getArbId(), status, false));
+        walletLedger.releaseAll(arb.getArbId());
+        release(arb.getArbId());
+    }
 
-        if (allSuccess) {
-            log.info("Arb completed successfully | ArbId: {} | Status: {} | SuccessfulLegs: {}/{}",
-                    arb.getArbId(), finalStatus, results.size(), targets.size());
-        } else {
-            long failedCount = results.values().stream().filter(r -> !r.success()).count();
-            log.error("Arb failed | ArbId: {} | Status: {} | FailedLegs: {} | SuccessfulLegs: {} | TotalLegs: {}",
-                    arb.getArbId(), finalStatus, failedCount, results.size() - failedCount, targets.size());
+    /**
+     * Placed legs spend their reserved stake and failed legs free it. A leg with no result may
+     * have been placed before it timed out, so its stake stays spent until the next balance sync.
+     */
+    private void settleStakes(String arbId, List<BookMaker> targets, Map<BookMaker, LegResult> results) {
+        for (BookMaker bm : targets) {
+            LegResult result = results.get(bm);
+            if (result != null && !result.success()) {
+                walletLedger.release(arbId, bm);
+            } else {
+                walletLedger.commit(arbId, bm);
+            }
         }
     }
 
+    private static Map<BookMaker, BigDecimal> stakesOf(Map<BookMaker, BetLeg> legsByBook) {
+        Map<BookMaker, BigDecimal> stakes = new EnumMap<>(BookMaker.class);
+        legsByBook.forEach((bm, leg) -> {
+            if (leg.getStake() != null) {
+                stakes.put(bm, leg.getStake());
+            }
+        });
+        return stakes;
+    }
+
+    private Set<BookMaker> bookmakersOf(Arb arb) {
+        Set<BookMaker> bookmakers = EnumSet.noneOf(BookMaker.class);
+        arb.getLegs().forEach(leg -> {
+            if (leg.getBookmaker() != null) {
+                bookmakers.add(leg.getBookmaker());
+            }
+        });
+        return bookmakers;
+    }
+
     private Map<BookMaker, BetLeg> legsByBookmaker(Arb arb) {
         Map<BookMaker, BetLeg> grouped = arb.getLegs().stream()
                 .collect(Collectors.toMap(BetLeg::getBookmaker, l -> l, (a, b) -> a));
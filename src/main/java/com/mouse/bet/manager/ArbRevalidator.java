@@ -0,0 +1,148 @@
+package com.mouse.bet.manager;
+
+import com.mouse.bet.detector.LiveOddsBoard;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.utils.ArbCalculator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last-moment check before an Arb's legs reach the workers. Every leg is re-priced from the
+ * {@link LiveOddsBoard}; profit is recomputed with {@link ArbCalculator} and the Arb is either
+ * dropped as closed or its stakes are resized to the current odds. Pure in-memory work on the
+ * detached execution copy, so browser time is only spent on arbs that are still open.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArbRevalidator {
+
+    private final LiveOddsBoard liveOddsBoard;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong aborted = new AtomicLong();
+    private final AtomicLong resized = new AtomicLong();
+
+    // A leg's quote may trail the arb's last detection by one list cadence of its fetcher, which backs
+    // off to 15s; a quote older than that was not re-published with the arb and is treated as gone
+    @Value("${arb.revalidate.max-quote-lag-ms:15000}")
+    private long maxQuoteLagMs = 15000;
+
+    // Below this profit at current odds the arb is treated as closed
+    @Value("${arb.revalidate.min-profit:1.0}")
+    private double minProfit = 1.0;
+
+    /**
+     * Outcome of a revalidation; {@code profit} is at current odds when the Arb proceeds.
+     */
+    public record Verdict(boolean proceed, String reason, BigDecimal profit, boolean resized) {
+        static Verdict abort(String reason) {
+            return new Verdict(false, reason, null, false);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("arb.revalidate.aborted", aborted, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("arb.revalidate.resized", resized, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Re-price the Arb's legs; on a price move the legs' odds, stakes and payouts and the Arb's
+     * profit are rewritten in place
+     */
+    public Verdict revalidate(Arb arb) {
+        long startNanos = System.nanoTime();
+        Verdict verdict = check(arb, System.currentTimeMillis());
+
+        if (!verdict.proceed()) {
+            aborted.incrementAndGet();
+        } else if (verdict.resized()) {
+            resized.incrementAndGet();
+        }
+        log.debug("Revalidated arb | ArbId: {} | Proceed: {} | Reason: {} | TookMicros: {}",
+                arb.getArbId(), verdict.proceed(), verdict.reason(), (System.nanoTime() - startNanos) / 1_000);
+        return verdict;
+    }
+
+    private Verdict check(Arb arb, long nowMillis) {
+        List<BetLeg> legs = arb.getLegs();
+        if (legs.isEmpty()) {
+            return Verdict.abort("No legs");
+        }
+
+        // Quotes are aged against the arb's own detection; how old the arb may be is the orchestrator's call
+        long detectedAtMillis = arb.getLastUpdatedAt() != null ? arb.getLastUpdatedAt().toEpochMilli() : nowMillis;
+        List<BigDecimal> odds = new ArrayList<>(legs.size());
+        boolean moved = false;
+        for (BetLeg leg : legs) {
+            // The board is keyed by the canonical event id, not the bookmaker's own
+            Optional<LiveOddsBoard.LivePrice> live = liveOddsBoard.price(leg.getNormalEventId(), leg.getBookmaker(), leg.getOutcomeId());
+            if (live.isEmpty()) {
+                return Verdict.abort(leg.getBookmaker() + " no longer quotes outcome " + leg.getOutcomeId());
+            }
+            LiveOddsBoard.LivePrice price = live.get();
+            if (price.isSuspended() || price.odds() == null || price.odds().signum() <= 0) {
+                return Verdict.abort(leg.getBookmaker() + " suspended outcome " + leg.getOutcomeId());
+            }
+            long lagMillis = detectedAtMillis - price.seenAtMillis();
+            if (lagMillis > maxQuoteLagMs) {
+                return Verdict.abort(leg.getBookmaker() + " quote is " + lagMillis + "ms older than the arb");
+            }
+            odds.add(price.odds());
+            moved |= leg.getOdds() == null || price.odds().compareTo(leg.getOdds()) != 0;
+        }
+
+        BigDecimal profit = ArbCalculator.calculateProfitPercentage(ArbCalculator.calculateArbitragePercentage(odds));
+        if (profit.compareTo(BigDecimal.valueOf(minProfit)) < 0) {
+            return Verdict.abort("Profit " + profit + "% at current odds " + odds + " is below " + minProfit + "%");
+        }
+
+        if (moved) {
+            resize(arb, odds, profit);
+        }
+        return new Verdict(true, moved ? "Resized to current odds " + odds : "Odds unchanged", profit, moved);
+    }
+
+    /**
+     * Split the Arb's original total stake over the current odds so every outcome still pays the same
+     */
+    private void resize(Arb arb, List<BigDecimal> odds, BigDecimal profit) {
+        List<BetLeg> legs = arb.getLegs();
+        BigDecimal totalStake = BigDecimal.ZERO;
+        for (BetLeg leg : legs) {
+            BigDecimal stake = leg.getRawStake() != null ? leg.getRawStake() : leg.getStake();
+            if (stake != null) {
+                totalStake = totalStake.add(stake);
+            }
+        }
+
+        List<BigDecimal> rawStakes = totalStake.signum() > 0 ? ArbCalculator.stakesForLegs(odds, totalStake) : null;
+        for (int i = 0; i < legs.size(); i++) {
+            BetLeg leg = legs.get(i);
+            leg.setOdds(odds.get(i));
+            if (rawStakes != null) {
+                BigDecimal stake = ArbCalculator.roundStakeForAntiDetection(rawStakes.get(i));
+                leg.setRawStake(rawStakes.get(i));
+                leg.setStake(stake);
+                leg.setPotentialPayout(stake.multiply(odds.get(i)));
+            }
+        }
+
+        arb.setProfitPercentage(profit);
+        arb.getLegA().ifPresent(leg -> arb.setStakeA(leg.getStake()));
+        arb.getLegB().ifPresent(leg -> arb.setStakeB(leg.getStake()));
+    }
+}
@@ -4,44 +4,63 @@ import com.mouse.bet.enums.BookMaker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongPredicate;
 
 @Slf4j
 @Component
 public class WindowSyncManager {
 
-    // Tracks which windows have signaled "ready" for a specific arbId
+    // Legs assumed for an arb whose windows did not say how many legs it has
+    static final int DEFAULT_LEGS = 2;
+
+    // Cancelled states are kept this long so late partners still see the cancellation
+    private static final long CANCELLED_RETENTION_MS = 5000;
+
+    // Tracks the coordination state of every arb currently being placed
     private final Map<String, ArbSyncState> syncMap = new ConcurrentHashMap<>();
 
-    // Registered windows (only two expected: SPORTY_BET and MSPORT)
+    // Registered windows, one per bookmaker
     private final Map<BookMaker, Object> registeredWindows = new ConcurrentHashMap<>();
 
     /**
      * Register a window (SportyWindow or MsportWindow) with the sync manager
      */
-    public synchronized void registerWindow(BookMaker bookmaker, Object window) {
+    public void registerWindow(BookMaker bookmaker, Object window) {
         registeredWindows.put(bookmaker, window);
         log.info("Window registered: {} ({})", bookmaker, window.getClass().getSimpleName());
     }
 
     /**
-     * Register intent to participate in this arb (called BEFORE navigation)
+     * Register intent to participate in a two-leg arb (called BEFORE navigation)
      * Returns false if arb is already cancelled
      */
     public boolean registerIntent(String arbId, BookMaker bookmaker, double odds) {
-        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState());
+        return registerIntent(arbId, bookmaker, odds, DEFAULT_LEGS);
+    }
 
-        if (state.isCancelled()) {
+    /**
+     * Register intent to participate in an arb of {@code legs} legs (called BEFORE navigation);
+     * the first window to register fixes the number of parties every phase waits for.
+     * Returns false if arb is already cancelled
+     */
+    public boolean registerIntent(String arbId, BookMaker bookmaker, double odds, int legs) {
+        evictCancelled(System.currentTimeMillis());
+        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState(legs));
+
+        if (!state.registerIntent(bookmaker)) {
             log.warn("⚠️ Cannot register intent - arb already cancelled | ArbId: {} | Bookmaker: {}",
                     arbId, bookmaker);
             return false;
         }
 
-        state.registerIntent(bookmaker, odds);
-        log.info("✓ Intent registered | ArbId: {} | Bookmaker: {} | Odds: {}", arbId, bookmaker, odds);
+        log.info("✓ Intent registered | ArbId: {} | Bookmaker: {} | Odds: {} | Legs: {}",
+                arbId, bookmaker, odds, state.parties());
         return true;
     }
 
@@ -61,25 +80,24 @@ public class WindowSyncManager {
      * Returns false if arb is already cancelled
      */
     public boolean markDeploymentSuccess(String arbId, BookMaker bookmaker) {
-        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState());
+        ArbSyncState state = state(arbId);
 
-        if (state.isCancelled()) {
+        if (!state.markDeployed(bookmaker)) {
             log.warn("⚠️ Cannot mark deployment - arb already cancelled | ArbId: {} | Bookmaker: {}",
                     arbId, bookmaker);
             return false;
         }
 
-        state.markDeploymentSuccess(bookmaker);
         log.info("✓ Bet DEPLOYED | ArbId: {} | Bookmaker: {}", arbId, bookmaker);
         return true;
     }
 
     /**
-     * Wait for partner's deployment to complete with timeout
-     * Returns true only if BOTH windows successfully deployed
+     * Wait for the partners' deployments to complete with timeout
+     * Returns true only if EVERY leg successfully deployed
      */
     public boolean waitForPartnerDeploymentOrTimeout(String arbId, BookMaker myBookmaker, Duration timeout) {
-        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState());
+        ArbSyncState state = state(arbId);
 
         if (state.isCancelled()) {
             log.warn("⚠️ Arb already cancelled, not waiting for deployment | ArbId: {} | Bookmaker: {}",
@@ -87,21 +105,19 @@ public class WindowSyncManager {
             return false;
         }
 
-        BookMaker partner = myBookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-
         if (!state.isDeployed(myBookmaker)) {
             log.error("❌ BUG: Waiting for deployment but {} never marked deployed! | ArbId: {}", myBookmaker, arbId);
             skipArbAndSync(arbId);
             return false;
         }
 
-        log.info("⏳ Waiting for partner {} deployment | ArbId: {} | Timeout: {}s | My bookmaker: {}",
-                partner, arbId, timeout.toSeconds(), myBookmaker);
+        log.info("⏳ Waiting for {} partner deployment(s) | ArbId: {} | Timeout: {}s | My bookmaker: {}",
+                state.parties() - 1, arbId, timeout.toSeconds(), myBookmaker);
 
         long startTime = System.currentTimeMillis();
 
         try {
-            boolean awaitResult = state.deploymentLatch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            boolean awaitResult = state.await(ArbSyncState.ALL_DEPLOYED, timeout);
             long elapsedTime = System.currentTimeMillis() - startTime;
 
             if (state.isCancelled()) {
@@ -111,30 +127,23 @@ public class WindowSyncManager {
             }
 
             if (awaitResult) {
-                if (state.areBothDeployed()) {
-                    log.info("✅ Both windows DEPLOYED successfully | ArbId: {} | Elapsed: {}ms",
-                            arbId, elapsedTime);
-                    return true;
-                } else {
-                    log.error("⚠️ Deployment latch completed but not both deployed | ArbId: {} | Deployed: {}",
-                            arbId, state.getDeployedWindows());
-                    skipArbAndSync(arbId);
-                    return false;
-                }
-            } else {
-                log.warn("⏱️ Timeout waiting for partner {} deployment | ArbId: {} | Elapsed: {}ms | Bookmaker: {}",
-                        partner, arbId, elapsedTime, myBookmaker);
-
-                if (state.trySetDeploymentTimeoutFlag(myBookmaker)) {
-                    log.info("🚫 {} triggered deployment timeout - skipping arb | ArbId: {}",
-                            myBookmaker, arbId);
-                    skipArbAndSync(arbId);
-                } else {
-                    log.info("⏭️ Partner already triggered deployment timeout - following skip | ArbId: {}", arbId);
-                }
+                log.info("✅ All {} windows DEPLOYED successfully | ArbId: {} | Elapsed: {}ms",
+                        state.parties(), arbId, elapsedTime);
+                return true;
+            }
 
-                return false;
+            log.warn("⏱️ Timeout waiting for partner deployment | ArbId: {} | Elapsed: {}ms | Bookmaker: {} | Deployed: {}",
+                    arbId, elapsedTime, myBookmaker, state.getDeployedWindows());
+
+            if (state.trySetDeploymentTimeoutFlag(myBookmaker)) {
+                log.info("🚫 {} triggered deployment timeout - skipping arb | ArbId: {}",
+                        myBookmaker, arbId);
+                skipArbAndSync(arbId);
+            } else {
+                log.info("⏭️ Partner already triggered deployment timeout - following skip | ArbId: {}", arbId);
             }
+
+            return false;
         } catch (InterruptedException e) {
             long elapsedTime = System.currentTimeMillis() - startTime;
             Thread.currentThread().interrupt();
@@ -154,25 +163,24 @@ public class WindowSyncManager {
      * Returns false if arb is already cancelled
      */
     public boolean markReady(String arbId, BookMaker bookmaker) {
-        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState());
+        ArbSyncState state = state(arbId);
 
-        if (state.isCancelled()) {
+        if (!state.markReady(bookmaker)) {
             log.warn("⚠️ Cannot mark ready - arb already cancelled by partner | ArbId: {} | Bookmaker: {}",
                     arbId, bookmaker);
             return false;
         }
 
-        state.markReady(bookmaker);
         log.info("✓ Window READY | ArbId: {} | Bookmaker: {}", arbId, bookmaker);
         return true;
     }
 
     /**
-     * Wait for partner with automatic skip on timeout
-     * Returns true only if BOTH windows are ready and synchronized
+     * Wait for partners with automatic skip on timeout
+     * Returns true only if EVERY window is ready and synchronized
      */
     public boolean waitForPartnersReadyOrTimeout(String arbId, BookMaker myBookmaker, Duration timeout) {
-        ArbSyncState state = syncMap.computeIfAbsent(arbId, k -> new ArbSyncState());
+        ArbSyncState state = state(arbId);
 
         if (state.isCancelled()) {
             log.warn("⚠️ Arb already cancelled by partner, not waiting | ArbId: {} | Bookmaker: {}",
@@ -180,21 +188,19 @@ public class WindowSyncManager {
             return false;
         }
 
-        BookMaker partner = myBookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-
         if (!state.isReady(myBookmaker)) {
             log.error("❌ BUG: Waiting but {} never marked ready! | ArbId: {}", myBookmaker, arbId);
             skipArbAndSync(arbId);
             return false;
         }
 
-        log.info("⏳ Waiting for partner {} to be ready | ArbId: {} | Timeout: {}s | My bookmaker: {}",
-                partner, arbId, timeout.toSeconds(), myBookmaker);
+        log.info("⏳ Waiting for {} partner(s) to be ready | ArbId: {} | Timeout: {}s | My bookmaker: {}",
+                state.parties() - 1, arbId, timeout.toSeconds(), myBookmaker);
 
         long startTime = System.currentTimeMillis();
 
         try {
-            boolean awaitResult = state.latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            boolean awaitResult = state.await(ArbSyncState.ALL_READY, timeout);
             long elapsedTime = System.currentTimeMillis() - startTime;
 
             if (state.isCancelled()) {
@@ -204,30 +210,23 @@ public class WindowSyncManager {
             }
 
             if (awaitResult) {
-                if (state.areBothReady()) {
-                    log.info("✅ Both windows READY and synchronized - SIMULTANEOUS BETTING | ArbId: {} | Elapsed: {}ms",
-                            arbId, elapsedTime);
-                    return true;
-                } else {
-                    log.error("⚠️ Latch completed but not both ready (race condition?) | ArbId: {} | Ready: {}",
-                            arbId, state.getReadyWindows());
-                    skipArbAndSync(arbId);
-                    return false;
-                }
-            } else {
-                log.warn("⏱️ Timeout waiting for partner {} | ArbId: {} | Elapsed: {}ms | Bookmaker: {}",
-                        partner, arbId, elapsedTime, myBookmaker);
-
-                if (state.trySetTimeoutFlag(myBookmaker)) {
-                    log.info("🚫 {} triggered timeout - skipping arb for both windows | ArbId: {}",
-                            myBookmaker, arbId);
-                    skipArbAndSync(arbId);
-                } else {
-                    log.info("⏭️ Partner already triggered timeout - following skip | ArbId: {}", arbId);
-                }
+                log.info("✅ All {} windows READY and synchronized - SIMULTANEOUS BETTING | ArbId: {} | Elapsed: {}ms",
+                        state.parties(), arbId, elapsedTime);
+                return true;
+            }
 
-                return false;
+            log.warn("⏱️ Timeout waiting for partners | ArbId: {} | Elapsed: {}ms | Bookmaker: {} | Ready: {}",
+                    arbId, elapsedTime, myBookmaker, state.getReadyWindows());
+
+            if (state.trySetTimeoutFlag(myBookmaker)) {
+                log.info("🚫 {} triggered timeout - skipping arb for all windows | ArbId: {}",
+                        myBookmaker, arbId);
+                skipArbAndSync(arbId);
+            } else {
+                log.info("⏭️ Partner already triggered timeout - following skip | ArbId: {}", arbId);
             }
+
+            return false;
         } catch (InterruptedException e) {
             long elapsedTime = System.currentTimeMillis() - startTime;
             Thread.currentThread().interrupt();
@@ -244,39 +243,33 @@ public class WindowSyncManager {
 
     /**
      * Notify that this bookmaker successfully placed the bet
-     * This triggers a check to see if partner also succeeded
+     * This wakes partners waiting for the bet phase to settle
      */
     public void notifyBetPlaced(String arbId, BookMaker bookmaker) {
         ArbSyncState state = syncMap.get(arbId);
         if (state != null) {
             state.recordBetPlaced(bookmaker);
             log.info("✅ Bet PLACED and recorded | ArbId: {} | Bookmaker: {}", arbId, bookmaker);
-
-            // Count down completion latch
-            state.betCompletionLatch.countDown();
         }
         cleanupIfDone(arbId);
     }
 
     /**
      * Notify that bet placement failed
-     * This triggers a check to see if partner succeeded (rollback needed)
+     * This wakes partners waiting for the bet phase to settle (rollback needed if they placed)
      */
     public void notifyBetFailure(String arbId, BookMaker bookmaker, String reason) {
         ArbSyncState state = syncMap.get(arbId);
         if (state != null) {
             state.recordFailure(bookmaker, reason);
             log.warn("❌ Bet FAILED | ArbId: {} | Bookmaker: {} | Reason: {}", arbId, bookmaker, reason);
-
-            // Count down completion latch
-            state.betCompletionLatch.countDown();
         }
         cleanupIfDone(arbId);
     }
 
     /**
-     * Wait for partner to complete their bet (success or failure)
-     * Returns the partner's result
+     * Wait for every partner to complete their bet (success or failure)
+     * Returns success only if all partners placed; otherwise the first partner failure
      */
     public PartnerBetResult waitForPartnerBetCompletion(String arbId, BookMaker myBookmaker, Duration timeout) {
         ArbSyncState state = syncMap.get(arbId);
@@ -290,20 +283,18 @@ public class WindowSyncManager {
             return PartnerBetResult.cancelled("Arb cancelled");
         }
 
-        BookMaker partner = myBookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-
-        log.info("⏳ {} waiting for partner {} to complete bet | ArbId: {} | Timeout: {}s",
-                myBookmaker, partner, arbId, timeout.toSeconds());
+        log.info("⏳ {} waiting for {} partner(s) to complete bet | ArbId: {} | Timeout: {}s",
+                myBookmaker, state.parties() - 1, arbId, timeout.toSeconds());
 
         long startTime = System.currentTimeMillis();
 
         try {
-            boolean completed = state.betCompletionLatch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            boolean completed = state.await(ArbSyncState.ALL_SETTLED, timeout);
             long elapsed = System.currentTimeMillis() - startTime;
 
             if (!completed) {
-                log.warn("⏱️ Timeout waiting for partner {} | ArbId: {} | Elapsed: {}ms",
-                        partner, arbId, elapsed);
+                log.warn("⏱️ Timeout waiting for partners | ArbId: {} | Elapsed: {}ms | Placed: {}",
+                        arbId, elapsed, state.getPlacedWindows());
                 return PartnerBetResult.timeout("Partner bet timeout");
             }
 
@@ -312,14 +303,13 @@ public class WindowSyncManager {
                 return PartnerBetResult.cancelled("Arb cancelled");
             }
 
-            if (state.hasPlacedBet(partner)) {
-                log.info("✅ Partner {} successfully placed bet | ArbId: {} | Elapsed: {}ms",
-                        partner, arbId, elapsed);
+            if (state.havePartnersPlaced(myBookmaker)) {
+                log.info("✅ All partners successfully placed bet | ArbId: {} | Elapsed: {}ms", arbId, elapsed);
                 return PartnerBetResult.success();
             } else {
-                String failureReason = state.getFailureReason(partner);
-                log.warn("❌ Partner {} failed to place bet | ArbId: {} | Reason: {} | Elapsed: {}ms",
-                        partner, arbId, failureReason, elapsed);
+                String failureReason = state.getPartnerFailureReason(myBookmaker);
+                log.warn("❌ Partner failed to place bet | ArbId: {} | Reason: {} | Elapsed: {}ms",
+                        arbId, failureReason, elapsed);
                 return PartnerBetResult.failure(failureReason);
             }
 
@@ -331,40 +321,34 @@ public class WindowSyncManager {
     }
 
     /**
-     * Check if both bookmakers successfully placed their bets
+     * Check if every leg's bookmaker successfully placed its bet
      */
-    public boolean areBothBetsPlaced(String arbId) {
+    public boolean areAllBetsPlaced(String arbId) {
         ArbSyncState state = syncMap.get(arbId);
-        if (state == null) return false;
-
-        return state.hasPlacedBet(BookMaker.SPORTY_BET) && state.hasPlacedBet(BookMaker.M_SPORT);
+        return state != null && state.allPlaced();
     }
 
     /**
-     * Check if both bookmakers successfully deployed their bets
+     * Check if every leg's bookmaker successfully deployed its bet
      */
-    public boolean areBothDeployed(String arbId) {
+    public boolean areAllDeployed(String arbId) {
         ArbSyncState state = syncMap.get(arbId);
-        if (state == null) return false;
-
-        return state.isDeployed(BookMaker.SPORTY_BET) && state.isDeployed(BookMaker.M_SPORT);
+        return state != null && ArbSyncState.ALL_DEPLOYED.test(state.word());
     }
 
     /**
-     * Check if exactly one bookmaker placed bet (rollback scenario)
+     * Check if this bookmaker placed but not every partner did (rollback scenario)
      */
     public boolean needsRollback(String arbId, BookMaker bookmaker) {
         ArbSyncState state = syncMap.get(arbId);
         if (state == null) return false;
 
-        BookMaker partner = bookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-
-        // Rollback needed if I succeeded but partner failed
-        return state.hasPlacedBet(bookmaker) && !state.hasPlacedBet(partner);
+        // Rollback needed if I succeeded but a partner did not
+        return state.hasPlacedBet(bookmaker) && !state.allPlaced();
     }
 
     /**
-     * Request rollback - called by a window if they succeeded but partner failed
+     * Request rollback - called by a window if they succeeded but a partner failed
      */
     public boolean requestRollback(String arbId, BookMaker requestor, String reason) {
         ArbSyncState state = syncMap.get(arbId);
@@ -393,7 +377,7 @@ public class WindowSyncManager {
     public void notifyRollbackCompleted(String arbId, BookMaker bookmaker, boolean success) {
         ArbSyncState state = syncMap.get(arbId);
         if (state != null) {
-            state.recordRollbackCompleted(bookmaker, success);
+            state.recordRollbackCompleted(bookmaker);
             log.info("🔄 Rollback {} for {} | ArbId: {}",
                     success ? "SUCCEEDED" : "FAILED", bookmaker, arbId);
         }
@@ -401,17 +385,19 @@ public class WindowSyncManager {
     }
 
     /**
-     * Skip this arb and cancel for both windows
+     * Skip this arb and cancel it for every window; the state lingers briefly so late
+     * partners still read the cancellation
      */
     public void skipArbAndSync(String arbId) {
+        long now = System.currentTimeMillis();
         ArbSyncState state = syncMap.get(arbId);
         if (state != null) {
-            state.cancel();
-            log.info("⏭️ Arb cancelled and synced - both windows will skip | ArbId: {}", arbId);
+            state.cancel(now);
+            log.info("⏭️ Arb cancelled and synced - all windows will skip | ArbId: {}", arbId);
         } else {
             log.warn("⚠️ Attempted to skip non-existent arb state | ArbId: {}", arbId);
         }
-        scheduledCleanup(arbId, 5000);
+        evictCancelled(now);
     }
 
     /**
@@ -423,25 +409,19 @@ public class WindowSyncManager {
     }
 
     /**
-     * Check if the partner has already placed their bet
+     * Check if every partner has already placed their bet
      */
     public boolean hasPartnerPlacedBet(String arbId, BookMaker myBookmaker) {
         ArbSyncState state = syncMap.get(arbId);
-        if (state == null) return false;
-
-        BookMaker partner = myBookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-        return state.hasPlacedBet(partner);
+        return state != null && state.havePartnersPlaced(myBookmaker);
     }
 
     /**
-     * Check if the partner has deployed their bet
+     * Check if every partner has deployed their bet
      */
     public boolean hasPartnerDeployed(String arbId, BookMaker myBookmaker) {
         ArbSyncState state = syncMap.get(arbId);
-        if (state == null) return false;
-
-        BookMaker partner = myBookmaker == BookMaker.SPORTY_BET ? BookMaker.M_SPORT : BookMaker.SPORTY_BET;
-        return state.isDeployed(partner);
+        return state != null && state.havePartnersDeployed(myBookmaker);
     }
 
     /**
@@ -455,23 +435,33 @@ public class WindowSyncManager {
         return state.getStateSummary();
     }
 
-    private void scheduledCleanup(String arbId, long delayMs) {
-        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS)
-                .execute(() -> {
-                    syncMap.remove(arbId);
-                    log.debug("🧹 Delayed cleanup completed | ArbId: {}", arbId);
-                });
+    private ArbSyncState state(String arbId) {
+        return syncMap.computeIfAbsent(arbId, k -> new ArbSyncState(DEFAULT_LEGS));
+    }
+
+    /**
+     * Drop states cancelled longer than the retention ago; piggybacks on arb starts and skips
+     * instead of scheduling a timer per cancellation
+     */
+    private void evictCancelled(long nowMillis) {
+        syncMap.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().cancelledLongerThan(nowMillis, CANCELLED_RETENTION_MS);
+            if (expired) {
+                log.debug("🧹 Delayed cleanup completed | ArbId: {}", entry.getKey());
+            }
+            return expired;
+        });
     }
 
     private void cleanupIfDone(String arbId) {
         ArbSyncState state = syncMap.get(arbId);
-        if (state != null && state.isCompleted()) {
-            syncMap.remove(arbId);
+        if (state != null && state.isCompleted() && !state.isCancelled()) {
+            syncMap.remove(arbId, state);
             log.debug("🧹 Cleaned up sync state for ArbId: {}", arbId);
         }
     }
 
-    public synchronized void unregisterWindow(BookMaker bookmaker) {
+    public void unregisterWindow(BookMaker bookmaker) {
         registeredWindows.remove(bookmaker);
         log.info("Window unregistered: {}", bookmaker);
     }
@@ -556,164 +546,327 @@ public class WindowSyncManager {
     }
 
     // =================================================================
-    // Inner class to track synchronization state per Arb
+    // Per-arb coordination state: one 64-bit word moved by CAS
     // =================================================================
-    private static class ArbSyncState {
-        private final CountDownLatch deploymentLatch = new CountDownLatch(2); // Wait for both deployments
-        private final CountDownLatch latch = new CountDownLatch(2);
-        private final CountDownLatch betCompletionLatch = new CountDownLatch(2); // Both must complete
-        private final Set<BookMaker> intentRegistered = ConcurrentHashMap.newKeySet();
-        private final Set<BookMaker> deployedWindows = ConcurrentHashMap.newKeySet();
-        private final Set<BookMaker> readyWindows = ConcurrentHashMap.newKeySet();
-        private final Map<BookMaker, Double> oddsMap = new ConcurrentHashMap<>();
-        private final Map<BookMaker, Boolean> betPlaced = new ConcurrentHashMap<>();
-        private final Map<BookMaker, String> failures = new ConcurrentHashMap<>();
-        private final Map<BookMaker, Boolean> rollbackCompleted = new ConcurrentHashMap<>();
-
-        private volatile boolean cancelled = false;
-        private volatile BookMaker timeoutTriggeredBy = null;
-        private volatile BookMaker deploymentTimeoutTriggeredBy = null;
-        private volatile boolean rollbackNeeded = false;
-        private volatile String rollbackReason = null;
-        private volatile BookMaker rollbackRequestor = null;
-
-        private final AtomicBoolean timeoutFlagSet = new AtomicBoolean(false);
-        private final AtomicBoolean deploymentTimeoutFlagSet = new AtomicBoolean(false);
-
-        public synchronized void registerIntent(BookMaker bookmaker, double odds) {
-            if (!cancelled) {
-                intentRegistered.add(bookmaker);
-                oddsMap.put(bookmaker, odds);
+
+    /**
+     * Every leg walks intent → deployed → ready → placed/failed → rolled-back. Each phase is a
+     * bitmask over bookmaker ordinals packed into one {@code long}, next to the cancel, rollback
+     * and timeout flags and the party count, so a transition is a single CAS and a phase check is
+     * a popcount. Waiters push a node on a Treiber stack and park; every successful transition
+     * detaches the stack and unparks it, and each waiter re-tests its phase predicate.
+     */
+    static final class ArbSyncState {
+
+        private static final int LEG_FIELD_BITS = 8;
+        private static final long LEG_FIELD_MASK = (1L << LEG_FIELD_BITS) - 1;
+
+        private static final int INTENT = 0;
+        private static final int DEPLOYED = 8;
+        private static final int READY = 16;
+        private static final int PLACED = 24;
+        private static final int FAILED = 32;
+        private static final int ROLLED_BACK = 40;
+
+        private static final long CANCELLED = 1L << 48;
+        private static final long ROLLBACK_NEEDED = 1L << 49;
+        private static final long READY_TIMEOUT = 1L << 50;
+        private static final long DEPLOY_TIMEOUT = 1L << 51;
+        private static final int READY_TIMEOUT_BY = 52;
+        private static final int DEPLOY_TIMEOUT_BY = 56;
+        private static final int PARTIES = 60;
+
+        static final int MAX_LEGS = BookMaker.values().length;
+
+        static final LongPredicate ALL_DEPLOYED = s -> count(s, DEPLOYED) >= parties(s);
+        static final LongPredicate ALL_READY = s -> count(s, READY) >= parties(s);
+        static final LongPredicate ALL_SETTLED = s -> count(s, PLACED) + count(s, FAILED) >= parties(s);
+
+        private static final VarHandle STATE;
+        private static final VarHandle WAITERS;
+
+        static {
+            if (MAX_LEGS > LEG_FIELD_BITS) {
+                throw new ExceptionInInitializerError("Too many bookmakers for the sync state word: " + MAX_LEGS);
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                STATE = lookup.findVarHandle(ArbSyncState.class, "state", long.class);
+                WAITERS = lookup.findVarHandle(ArbSyncState.class, "waiters", Waiter.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
             }
         }
 
-        public synchronized void unRegisterIntent(BookMaker bookmaker) {
-            intentRegistered.remove(bookmaker);
-            oddsMap.remove(bookmaker);
-        }
+        private static final class Waiter {
+            volatile Thread thread;
+            Waiter next;
 
-        public synchronized void markDeploymentSuccess(BookMaker bookmaker) {
-            if (!cancelled && deployedWindows.add(bookmaker)) {
-                deploymentLatch.countDown();
+            Waiter(Thread thread) {
+                this.thread = thread;
             }
         }
 
-        public boolean isDeployed(BookMaker bookmaker) {
-            return deployedWindows.contains(bookmaker);
+        private volatile long state;
+        private volatile Waiter waiters;
+
+        // Written before the CAS that publishes the matching bit
+        private final String[] failureReasons = new String[MAX_LEGS];
+        private volatile String rollbackReason;
+        private volatile BookMaker rollbackRequestor;
+        private volatile long cancelledAtMillis;
+
+        ArbSyncState(int legs) {
+            int parties = legs >= 2 && legs <= MAX_LEGS ? legs : DEFAULT_LEGS;
+            this.state = (long) parties << PARTIES;
         }
 
-        public boolean areBothDeployed() {
-            return deployedWindows.size() == 2;
+        boolean registerIntent(BookMaker bookmaker) {
+            return transition(bit(INTENT, bookmaker), 0L, true);
         }
 
-        public Set<BookMaker> getDeployedWindows() {
-            return new HashSet<>(deployedWindows);
+        void unRegisterIntent(BookMaker bookmaker) {
+            transition(0L, bit(INTENT, bookmaker), false);
         }
 
-        public boolean trySetDeploymentTimeoutFlag(BookMaker bookmaker) {
-            if (deploymentTimeoutFlagSet.compareAndSet(false, true)) {
-                deploymentTimeoutTriggeredBy = bookmaker;
-                return true;
+        boolean hasIntent(BookMaker bookmaker) {
+            return (state & bit(INTENT, bookmaker)) != 0;
+        }
+
+        boolean markDeployed(BookMaker bookmaker) {
+            return transition(bit(DEPLOYED, bookmaker), 0L, true);
+        }
+
+        boolean isDeployed(BookMaker bookmaker) {
+            return (state & bit(DEPLOYED, bookmaker)) != 0;
+        }
+
+        boolean havePartnersDeployed(BookMaker me) {
+            return others(state, DEPLOYED, me) >= parties(state) - 1;
+        }
+
+        boolean markReady(BookMaker bookmaker) {
+            return transition(bit(READY, bookmaker), 0L, true);
+        }
+
+        boolean isReady(BookMaker bookmaker) {
+            return (state & bit(READY, bookmaker)) != 0;
+        }
+
+        void recordBetPlaced(BookMaker bookmaker) {
+            transition(bit(PLACED, bookmaker), bit(FAILED, bookmaker), false);
+        }
+
+        void recordFailure(BookMaker bookmaker, String reason) {
+            failureReasons[bookmaker.ordinal()] = reason;
+            transition(bit(FAILED, bookmaker), bit(PLACED, bookmaker), false);
+        }
+
+        boolean hasPlacedBet(BookMaker bookmaker) {
+            return (state & bit(PLACED, bookmaker)) != 0;
+        }
+
+        boolean allPlaced() {
+            long s = state;
+            return count(s, PLACED) >= parties(s);
+        }
+
+        boolean havePartnersPlaced(BookMaker me) {
+            long s = state;
+            return others(s, PLACED, me) >= parties(s) - 1;
+        }
+
+        /**
+         * Reason of the first failed partner leg, in bookmaker order
+         */
+        String getPartnerFailureReason(BookMaker me) {
+            long failed = field(state, FAILED) & ~(1L << me.ordinal());
+            return failed == 0 ? null : failureReasons[Long.numberOfTrailingZeros(failed)];
+        }
+
+        void initiateRollback(BookMaker requestor, String reason) {
+            rollbackReason = reason;
+            rollbackRequestor = requestor;
+            transition(ROLLBACK_NEEDED, 0L, false);
+        }
+
+        String getRollbackReason() {
+            return rollbackReason;
+        }
+
+        void recordRollbackCompleted(BookMaker bookmaker) {
+            transition(bit(ROLLED_BACK, bookmaker), 0L, false);
+        }
+
+        boolean trySetDeploymentTimeoutFlag(BookMaker bookmaker) {
+            return setOnce(DEPLOY_TIMEOUT, DEPLOY_TIMEOUT_BY, bookmaker);
+        }
+
+        boolean trySetTimeoutFlag(BookMaker bookmaker) {
+            return setOnce(READY_TIMEOUT, READY_TIMEOUT_BY, bookmaker);
+        }
+
+        void cancel(long nowMillis) {
+            if (!isCancelled()) {
+                cancelledAtMillis = nowMillis;
+                transition(CANCELLED, 0L, false);
             }
-            return false;
         }
 
-        public synchronized void markReady(BookMaker bookmaker) {
-            if (!cancelled && readyWindows.add(bookmaker)) {
-                latch.countDown();
+        boolean isCancelled() {
+            return (state & CANCELLED) != 0;
+        }
+
+        boolean cancelledLongerThan(long nowMillis, long retentionMs) {
+            return isCancelled() && nowMillis - cancelledAtMillis >= retentionMs;
+        }
+
+        boolean isCompleted() {
+            long s = state;
+            if ((s & ROLLBACK_NEEDED) != 0) {
+                // If rollback needed, wait for every placed leg to be rolled back
+                return count(s, ROLLED_BACK) >= count(s, PLACED);
             }
+            return ALL_SETTLED.test(s) || (s & CANCELLED) != 0;
         }
 
-        public boolean isReady(BookMaker bookmaker) {
-            return readyWindows.contains(bookmaker);
+        int parties() {
+            return parties(state);
         }
 
-        public boolean areBothReady() {
-            return readyWindows.size() == 2;
+        long word() {
+            return state;
         }
 
-        public Set<BookMaker> getReadyWindows() {
-            return new HashSet<>(readyWindows);
+        Set<BookMaker> getDeployedWindows() {
+            return legs(state, DEPLOYED);
         }
 
-        public boolean trySetTimeoutFlag(BookMaker bookmaker) {
-            if (timeoutFlagSet.compareAndSet(false, true)) {
-                timeoutTriggeredBy = bookmaker;
-                return true;
-            }
-            return false;
+        Set<BookMaker> getReadyWindows() {
+            return legs(state, READY);
+        }
+
+        Set<BookMaker> getPlacedWindows() {
+            return legs(state, PLACED);
         }
 
-        public synchronized void cancel() {
-            if (!cancelled) {
-                cancelled = true;
-                while (deploymentLatch.getCount() > 0) {
-                    deploymentLatch.countDown();
+        /**
+         * Park until the phase predicate holds or the arb is cancelled; false on timeout
+         */
+        boolean await(LongPredicate phase, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (;;) {
+                long s = state;
+                if ((s & CANCELLED) != 0 || phase.test(s)) {
+                    return true;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
                 }
-                while (latch.getCount() > 0) {
-                    latch.countDown();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
                 }
-                while (betCompletionLatch.getCount() > 0) {
-                    betCompletionLatch.countDown();
+
+                // A fresh node per park: a woken node has already been detached from the stack
+                Waiter node = new Waiter(Thread.currentThread());
+                Waiter head;
+                do {
+                    head = waiters;
+                    node.next = head;
+                } while (!WAITERS.compareAndSet(this, head, node));
+
+                if (state == s) {
+                    LockSupport.parkNanos(this, remaining);
                 }
+                node.thread = null;
             }
         }
 
-        public boolean isCancelled() {
-            return cancelled;
+        String getStateSummary() {
+            long s = state;
+            return String.format("Legs: %d, Intent: %s, Deployed: %s, Ready: %s, Placed: %s, Failed: %s, RolledBack: %s, Cancelled: %s, Rollback: %s (by %s), TimeoutBy: %s, DeployTimeoutBy: %s",
+                    parties(s), legs(s, INTENT), legs(s, DEPLOYED), legs(s, READY), legs(s, PLACED), legs(s, FAILED),
+                    legs(s, ROLLED_BACK), (s & CANCELLED) != 0, (s & ROLLBACK_NEEDED) != 0, rollbackRequestor,
+                    flaggedBy(s, READY_TIMEOUT, READY_TIMEOUT_BY), flaggedBy(s, DEPLOY_TIMEOUT, DEPLOY_TIMEOUT_BY));
         }
 
-        public synchronized void recordBetPlaced(BookMaker bookmaker) {
-            betPlaced.put(bookmaker, true);
+        /**
+         * CAS the word to (state | set) & ~clear and wake the waiters; refused once cancelled if asked
+         */
+        private boolean transition(long set, long clear, boolean refuseIfCancelled) {
+            for (;;) {
+                long s = state;
+                if (refuseIfCancelled && (s & CANCELLED) != 0) {
+                    return false;
+                }
+                long next = (s | set) & ~clear;
+                if (next == s) {
+                    return true;
+                }
+                if (STATE.compareAndSet(this, s, next)) {
+                    wakeAll();
+                    return true;
+                }
+            }
         }
 
-        public synchronized void recordFailure(BookMaker bookmaker, String reason) {
-            failures.put(bookmaker, reason);
-            betPlaced.put(bookmaker, false);
+        private boolean setOnce(long flag, int byShift, BookMaker bookmaker) {
+            for (;;) {
+                long s = state;
+                if ((s & flag) != 0) {
+                    return false;
+                }
+                if (STATE.compareAndSet(this, s, s | flag | ((long) bookmaker.ordinal() << byShift))) {
+                    return true;
+                }
+            }
         }
 
-        public boolean hasPlacedBet(BookMaker bookmaker) {
-            return Boolean.TRUE.equals(betPlaced.get(bookmaker));
+        private void wakeAll() {
+            Waiter w = (Waiter) WAITERS.getAndSet(this, (Waiter) null);
+            while (w != null) {
+                Thread thread = w.thread;
+                if (thread != null) {
+                    LockSupport.unpark(thread);
+                }
+                w = w.next;
+            }
         }
 
-        public String getFailureReason(BookMaker bookmaker) {
-            return failures.get(bookmaker);
+        private static long bit(int field, BookMaker bookmaker) {
+            return 1L << (field + bookmaker.ordinal());
         }
 
-        public synchronized void initiateRollback(BookMaker requestor, String reason) {
-            rollbackNeeded = true;
-            rollbackReason = reason;
-            rollbackRequestor = requestor;
+        private static long field(long s, int field) {
+            return (s >>> field) & LEG_FIELD_MASK;
         }
 
-        public boolean needsRollback() {
-            return rollbackNeeded;
+        private static int count(long s, int field) {
+            return Long.bitCount(field(s, field));
         }
 
-        public String getRollbackReason() {
-            return rollbackReason;
+        private static int others(long s, int field, BookMaker me) {
+            return Long.bitCount(field(s, field) & ~(1L << me.ordinal()));
         }
 
-        public synchronized void recordRollbackCompleted(BookMaker bookmaker, boolean success) {
-            rollbackCompleted.put(bookmaker, success);
+        private static int parties(long s) {
+            return (int) (s >>> PARTIES) & 0xF;
         }
 
-        public boolean isCompleted() {
-            if (rollbackNeeded) {
-                // If rollback needed, wait for rollback completion
-                return rollbackCompleted.size() >= betPlaced.keySet().stream()
-                        .filter(bm -> Boolean.TRUE.equals(betPlaced.get(bm))).count();
+        private static Set<BookMaker> legs(long s, int field) {
+            Set<BookMaker> legs = EnumSet.noneOf(BookMaker.class);
+            long mask = field(s, field);
+            for (BookMaker bookmaker : BookMaker.values()) {
+                if ((mask & (1L << bookmaker.ordinal())) != 0) {
+                    legs.add(bookmaker);
+                }
             }
-            return betPlaced.size() >= 2 || cancelled;
-        }
-
-        public String getStateSummary() {
-            return String.format("Deployed: %s, Ready: %s, Placed: %s, Failed: %s, Cancelled: %s, Rollback: %s, TimeoutBy: %s, DeployTimeoutBy: %s",
-                    deployedWindows, readyWindows, betPlaced.keySet(), failures.keySet(), cancelled, rollbackNeeded, timeoutTriggeredBy, deploymentTimeoutTriggeredBy);
+            return legs;
         }
 
-        public boolean hasIntent(BookMaker bookmaker) {
-            return intentRegistered.contains(bookmaker);
+        private static BookMaker flaggedBy(long s, long flag, int byShift) {
+            return (s & flag) == 0 ? null : BookMaker.values()[(int) (s >>> byShift) & 0xF];
         }
     }
-}
\ No newline at end of file
+}
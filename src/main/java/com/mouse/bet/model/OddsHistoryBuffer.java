@@ -0,0 +1,249 @@
+package com.mouse.bet.model;
+
+import com.mouse.bet.enums.ChangeReason;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-capacity odds history of one live arb, kept in parallel primitive arrays.
+ * Times are epoch millis, odds are scaled ints (4 decimal places, as stored on the legs);
+ * once full, the oldest tick is overwritten. Boxed {@link OddsChange} objects are only built
+ * when a caller asks for them. Not thread-safe: only touched under the arb's cache lock.
+ */
+public class OddsHistoryBuffer {
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int NO_ODDS = Integer.MIN_VALUE;
+
+    private static final int ODDS_SCALE = 4;
+    private static final ChangeReason[] REASONS = ChangeReason.values();
+    private static final int INITIAL_SLOTS = 16;
+
+    /**
+     * Allocation-free view of one tick; odds are scaled ints, {@link #NO_ODDS} when missing
+     */
+    @FunctionalInterface
+    public interface TickVisitor {
+        void visit(long atMillis, int oldOddsA, int newOddsA, int oldOddsB, int newOddsB);
+    }
+
+    private final int capacity;
+
+    private long[] tickAt = new long[0];
+    private int[] oldA = new int[0];
+    private int[] newA = new int[0];
+    private int[] oldB = new int[0];
+    private int[] newB = new int[0];
+    private byte[] reason = new byte[0];
+    private int head;
+    private int size;
+    private int recorded;
+
+    public OddsHistoryBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OddsHistoryBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append a tick. A tick at the same millisecond as the newest one replaces it.
+     */
+    public void record(long atMillis, OddsChange change) {
+        int i;
+        if (size > 0 && tickAt[slot(size - 1)] == atMillis) {
+            i = slot(size - 1);
+        } else {
+            if (size == tickAt.length && size < capacity) {
+                grow();
+            }
+            if (size == capacity) {
+                head = slot(1);
+                size--;
+            }
+            i = slot(size);
+            size++;
+            recorded++;
+        }
+
+        tickAt[i] = atMillis;
+        oldA[i] = scale(change.getOldOddsA());
+        newA[i] = scale(change.getNewOddsA());
+        oldB[i] = scale(change.getOldOddsB());
+        newB[i] = scale(change.getNewOddsB());
+        reason[i] = (byte) (change.getChangeReason() != null ? change.getChangeReason().ordinal() : -1);
+    }
+
+    /**
+     * Forget every tick; the arrays are kept for reuse
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        recorded = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Ticks recorded since the last clear, including ones already overwritten
+     */
+    public int recordedCount() {
+        return recorded;
+    }
+
+    public int countBetween(long fromMillis, long toMillis) {
+        int count = 0;
+        for (int k = firstAtOrAfter(fromMillis); k < size && tickAt[slot(k)] <= toMillis; k++) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Visit ticks in the range, newest first, without allocating
+     */
+    public void forEachBetween(long fromMillis, long toMillis, TickVisitor visitor) {
+        int first = firstAtOrAfter(fromMillis);
+        for (int k = size - 1; k >= first; k--) {
+            int i = slot(k);
+            if (tickAt[i] <= toMillis) {
+                visitor.visit(tickAt[i], oldA[i], newA[i], oldB[i], newB[i]);
+            }
+        }
+    }
+
+    /**
+     * Most recent changes, newest first
+     */
+    public List<OddsChange> newest(int limit) {
+        int n = Math.min(Math.max(limit, 0), size);
+        if (n == 0) return Collections.emptyList();
+
+        List<OddsChange> changes = new ArrayList<>(n);
+        for (int k = size - 1; k >= size - n; k--) {
+            changes.add(toOddsChange(slot(k)));
+        }
+        return changes;
+    }
+
+    /**
+     * Changes in the range, newest first
+     */
+    public List<OddsChange> between(long fromMillis, long toMillis) {
+        int first = firstAtOrAfter(fromMillis);
+        if (first == size) return Collections.emptyList();
+
+        List<OddsChange> changes = new ArrayList<>();
+        for (int k = size - 1; k >= first; k--) {
+            int i = slot(k);
+            if (tickAt[i] <= toMillis) {
+                changes.add(toOddsChange(i));
+            }
+        }
+        return changes;
+    }
+
+    public OddsHistoryBuffer copy() {
+        OddsHistoryBuffer copy = new OddsHistoryBuffer(capacity);
+        copy.tickAt = Arrays.copyOf(tickAt, tickAt.length);
+        copy.oldA = Arrays.copyOf(oldA, oldA.length);
+        copy.newA = Arrays.copyOf(newA, newA.length);
+        copy.oldB = Arrays.copyOf(oldB, oldB.length);
+        copy.newB = Arrays.copyOf(newB, newB.length);
+        copy.reason = Arrays.copyOf(reason, reason.length);
+        copy.head = head;
+        copy.size = size;
+        copy.recorded = recorded;
+        return copy;
+    }
+
+    public static BigDecimal toOdds(int scaled) {
+        return scaled == NO_ODDS ? null : BigDecimal.valueOf(scaled, ODDS_SCALE);
+    }
+
+    private OddsChange toOddsChange(int i) {
+        BigDecimal oa = toOdds(oldA[i]);
+        BigDecimal na = toOdds(newA[i]);
+        BigDecimal ob = toOdds(oldB[i]);
+        BigDecimal nb = toOdds(newB[i]);
+        return OddsChange.builder()
+                .timestamp(Instant.ofEpochMilli(tickAt[i]))
+                .oldOddsA(oa)
+                .newOddsA(na)
+                .oldOddsB(ob)
+                .newOddsB(nb)
+                .deltaA(oa != null && na != null ? na.subtract(oa) : null)
+                .deltaB(ob != null && nb != null ? nb.subtract(ob) : null)
+                .changeReason(reason[i] >= 0 ? REASONS[reason[i]] : null)
+                .build();
+    }
+
+    /**
+     * Logical index of the first tick at or after the time; ticks are in time order
+     */
+    private int firstAtOrAfter(long fromMillis) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tickAt[slot(mid)] < fromMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void grow() {
+        int slots = Math.min(capacity, Math.max(INITIAL_SLOTS, tickAt.length * 2));
+        long[] t = new long[slots];
+        int[] oa = new int[slots];
+        int[] na = new int[slots];
+        int[] ob = new int[slots];
+        int[] nb = new int[slots];
+        byte[] r = new byte[slots];
+        for (int k = 0; k < size; k++) {
+            int i = slot(k);
+            t[k] = tickAt[i];
+            oa[k] = oldA[i];
+            na[k] = newA[i];
+            ob[k] = oldB[i];
+            nb[k] = newB[i];
+            r[k] = reason[i];
+        }
+        tickAt = t;
+        oldA = oa;
+        newA = na;
+        oldB = ob;
+        newB = nb;
+        reason = r;
+        head = 0;
+    }
+
+    private int slot(int offset) {
+        return (head + offset) % tickAt.length;
+    }
+
+    private static int scale(BigDecimal odds) {
+        if (odds == null) return NO_ODDS;
+        return odds.setScale(ODDS_SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+}
@@ -0,0 +1,281 @@
+package com.mouse.bet.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Running odds statistics for one arb over a sliding time window.
+ * Each tick updates sums and a Welford variance in O(1); ticks that leave the window are
+ * subtracted back out, so reading the metrics never rescans the history.
+ * Capped like the arb's {@link OddsHistoryBuffer}: once full, the oldest tick is subtracted out, so
+ * both cover the same newest ticks and a burst of updates cannot grow the window without bound.
+ * Not thread-safe: owned by the live arb and only touched under its cache lock.
+ */
+public class OddsMetricsWindow {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int capacity;
+
+    // Ring of ticks in time order; NaN marks a missing value
+    private long[] tickAt;
+    private double[] oddsA;
+    private double[] oddsB;
+    private double[] pctMove;
+    private int head;
+    private int size;
+
+    private double sumA;
+    private int countA;
+    private double sumB;
+    private int countB;
+
+    // Welford state over the absolute percentage moves
+    private int countPct;
+    private double meanPct;
+    private double m2Pct;
+
+    public OddsMetricsWindow() {
+        this(OddsHistoryBuffer.DEFAULT_CAPACITY);
+    }
+
+    public OddsMetricsWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        int slots = Math.min(INITIAL_CAPACITY, capacity);
+        tickAt = new long[slots];
+        oddsA = new double[slots];
+        oddsB = new double[slots];
+        pctMove = new double[slots];
+    }
+
+    /**
+     * Add a tick. A tick at the same millisecond as the newest one replaces it, as in the odds history map.
+     */
+    public void record(long atMillis, OddsChange change) {
+        if (size > 0 && tickAt[index(size - 1)] == atMillis) {
+            removeNewest();
+        }
+        if (size == tickAt.length) {
+            if (size < capacity) {
+                grow();
+            } else {
+                removeOldest();
+            }
+        }
+
+        int i = index(size);
+        tickAt[i] = atMillis;
+        oddsA[i] = toDouble(change.getNewOddsA());
+        oddsB[i] = toDouble(change.getNewOddsB());
+        pctMove[i] = absPctMove(change);
+        size++;
+        add(i);
+    }
+
+    /**
+     * Drop ticks older than the cutoff
+     */
+    public void evictBefore(long cutoffMillis) {
+        while (size > 0 && tickAt[head] < cutoffMillis) {
+            removeOldest();
+        }
+        if (size == 0) {
+            reset();
+        }
+    }
+
+    public void reset() {
+        head = 0;
+        size = 0;
+        sumA = 0;
+        countA = 0;
+        sumB = 0;
+        countB = 0;
+        countPct = 0;
+        meanPct = 0;
+        m2Pct = 0;
+    }
+
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Ticks at or after the given time; binary search over the time-ordered ring
+     */
+    public int countSince(long fromMillis) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tickAt[index(mid)] < fromMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return size - lo;
+    }
+
+    public Double meanOddsA() {
+        return countA == 0 ? null : sumA / countA;
+    }
+
+    public Double meanOddsB() {
+        return countB == 0 ? null : sumB / countB;
+    }
+
+    /**
+     * Total absolute percentage move per second between the first and last tick
+     */
+    public double velocityPctPerSec() {
+        if (size < 2 || countPct == 0) {
+            return 0.0;
+        }
+        long first = Math.floorDiv(tickAt[head], 1000L);
+        long last = Math.floorDiv(tickAt[index(size - 1)], 1000L);
+        long seconds = Math.max(1L, last - first);
+        return meanPct * countPct / seconds;
+    }
+
+    /**
+     * Sample standard deviation of the percentage moves, 0 below the minimum sample count
+     */
+    public double volatilitySigma(int minSamples) {
+        if (size < 2 || countPct < Math.max(2, minSamples)) {
+            return 0.0;
+        }
+        return Math.sqrt(Math.max(0.0, m2Pct / (countPct - 1)));
+    }
+
+    public int percentageMoveCount() {
+        return countPct;
+    }
+
+    public OddsMetricsWindow copy() {
+        OddsMetricsWindow copy = new OddsMetricsWindow(capacity);
+        copy.tickAt = Arrays.copyOf(tickAt, tickAt.length);
+        copy.oddsA = Arrays.copyOf(oddsA, oddsA.length);
+        copy.oddsB = Arrays.copyOf(oddsB, oddsB.length);
+        copy.pctMove = Arrays.copyOf(pctMove, pctMove.length);
+        copy.head = head;
+        copy.size = size;
+        copy.sumA = sumA;
+        copy.countA = countA;
+        copy.sumB = sumB;
+        copy.countB = countB;
+        copy.countPct = countPct;
+        copy.meanPct = meanPct;
+        copy.m2Pct = m2Pct;
+        return copy;
+    }
+
+    private void add(int i) {
+        if (!Double.isNaN(oddsA[i])) {
+            sumA += oddsA[i];
+            countA++;
+        }
+        if (!Double.isNaN(oddsB[i])) {
+            sumB += oddsB[i];
+            countB++;
+        }
+        double x = pctMove[i];
+        if (!Double.isNaN(x)) {
+            countPct++;
+            double delta = x - meanPct;
+            meanPct += delta / countPct;
+            m2Pct += delta * (x - meanPct);
+        }
+    }
+
+    private void subtract(int i) {
+        if (!Double.isNaN(oddsA[i])) {
+            sumA -= oddsA[i];
+            countA--;
+        }
+        if (!Double.isNaN(oddsB[i])) {
+            sumB -= oddsB[i];
+            countB--;
+        }
+        double x = pctMove[i];
+        if (!Double.isNaN(x)) {
+            if (countPct == 1) {
+                countPct = 0;
+                meanPct = 0;
+                m2Pct = 0;
+            } else {
+                double oldMean = meanPct;
+                meanPct = (oldMean * countPct - x) / (countPct - 1);
+                m2Pct -= (x - oldMean) * (x - meanPct);
+                countPct--;
+            }
+        }
+    }
+
+    private void removeOldest() {
+        subtract(head);
+        head = index(1);
+        size--;
+    }
+
+    private void removeNewest() {
+        subtract(index(size - 1));
+        size--;
+    }
+
+    private void grow() {
+        int slots = Math.min(capacity, tickAt.length * 2);
+        tickAt = unwrap(tickAt, slots);
+        oddsA = unwrap(oddsA, slots);
+        oddsB = unwrap(oddsB, slots);
+        pctMove = unwrap(pctMove, slots);
+        head = 0;
+    }
+
+    private long[] unwrap(long[] src, int slots) {
+        long[] dst = new long[slots];
+        for (int k = 0; k < size; k++) {
+            dst[k] = src[(head + k) % src.length];
+        }
+        return dst;
+    }
+
+    private double[] unwrap(double[] src, int slots) {
+        double[] dst = new double[slots];
+        for (int k = 0; k < size; k++) {
+            dst[k] = src[(head + k) % src.length];
+        }
+        return dst;
+    }
+
+    private int index(int offset) {
+        return (head + offset) % tickAt.length;
+    }
+
+    /**
+     * Mean of the two legs' absolute percentage moves, or the one leg that has both odds; NaN if neither
+     */
+    private static double absPctMove(OddsChange change) {
+        double a = pctMove(change.getOldOddsA(), change.getNewOddsA());
+        double b = pctMove(change.getOldOddsB(), change.getNewOddsB());
+        if (Double.isNaN(a)) {
+            return Double.isNaN(b) ? Double.NaN : Math.abs(b);
+        }
+        return Double.isNaN(b) ? Math.abs(a) : (Math.abs(a) + Math.abs(b)) / 2.0;
+    }
+
+    private static double pctMove(BigDecimal oldVal, BigDecimal newVal) {
+        if (oldVal == null || newVal == null || oldVal.signum() == 0) {
+            return Double.NaN;
+        }
+        double old = oldVal.doubleValue();
+        return (newVal.doubleValue() - old) / old * 100.0;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,119 @@
+package com.mouse.bet.model;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: scheduling and firing are O(1) per item, whatever the number of
+ * pending deadlines. Level 0 has one slot per tick; each higher level covers a whole rotation of
+ * the level below per slot, and its slots are cascaded down as the wheel turns. Deadlines are
+ * rounded up to the next tick, so an item never fires early and at most one tick late.
+ * There is no cancel: owners check on fire whether the deadline still holds.
+ * Not thread-safe: scheduled and advanced by a single thread.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(T item, long tick) {}
+
+    private final long tickMillis;
+    private final int bits;
+    private final long mask;
+    private final ArrayDeque<Entry<T>>[][] levels;
+    private final ArrayDeque<Entry<T>> overdue = new ArrayDeque<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution of the wheel
+     * @param slotBits   log2 of the slots per level
+     * @param levelCount number of levels; they span tickMillis * 2^(slotBits * levelCount) in total
+     * @param startMillis time the wheel starts turning from
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotBits, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || slotBits <= 0 || levelCount <= 0 || slotBits * levelCount > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = slotBits;
+        this.mask = (1L << slotBits) - 1;
+        this.levels = new ArrayDeque[levelCount][1 << slotBits];
+        for (ArrayDeque<Entry<T>>[] level : levels) {
+            for (int s = 0; s < level.length; s++) {
+                level[s] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Fire the item on the first advance at or after the deadline; past deadlines fire on the next advance
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        place(new Entry<>(item, tick), false);
+        size++;
+    }
+
+    /**
+     * Turn the wheel up to the given time, handing every due item to the consumer in tick order.
+     * Items the consumer schedules while firing wait for the next advance.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        for (int n = overdue.size(); n > 0; n--) {
+            size--;
+            expired.accept(overdue.poll().item());
+        }
+
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+
+            ArrayDeque<Entry<T>> slot = levels[0][(int) (currentTick & mask)];
+            for (int n = slot.size(); n > 0; n--) {
+                size--;
+                expired.accept(slot.poll().item());
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Pull down every higher-level slot whose span starts at the current tick
+     */
+    private void cascade() {
+        for (int level = levels.length - 1; level >= 1; level--) {
+            int shift = bits * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            ArrayDeque<Entry<T>> slot = levels[level][(int) ((currentTick >>> shift) & mask)];
+            for (int n = slot.size(); n > 0; n--) {
+                place(slot.poll(), true);
+            }
+        }
+    }
+
+    /**
+     * A cascaded entry due this tick goes to the level 0 slot about to fire; a newly scheduled one
+     * would miss that slot, so it waits in overdue for the next advance
+     */
+    private void place(Entry<T> entry, boolean cascading) {
+        long delta = entry.tick() - currentTick;
+        if (delta < 0 || (delta == 0 && !cascading)) {
+            overdue.add(entry);
+            return;
+        }
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        // Past the top level's span the entry lands in some top slot and is re-placed when it cascades
+        levels[level][(int) ((entry.tick() >>> (bits * level)) & mask)].add(entry);
+    }
+}
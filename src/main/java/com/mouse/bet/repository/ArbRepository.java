@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,10 @@ public interface ArbRepository extends JpaRepository<Arb, String>, JpaSpecificat
     @EntityGraph(attributePaths = {"legs"})
     Optional<Arb> findById(String arbId);
 
+    // Batch lookup with eager legs for the write-behind flush
+    @EntityGraph(attributePaths = {"legs"})
+    List<Arb> findByArbIdIn(Collection<String> arbIds);
+
     // === SIMPLIFIED: Get fresh arbs for betting ===
     @Query(value = """
     SELECT a FROM Arb a
@@ -39,26 +44,6 @@ public interface ArbRepository extends JpaRepository<Arb, String>, JpaSpecificat
             Pageable pageable
     );
 
-    @Query(value = """
-    SELECT DISTINCT a
-    FROM Arb a
-    LEFT JOIN FETCH a.legs 
-    WHERE a.active = true 
-      AND a.lastUpdatedAt >= :freshCutoff 
-      AND a.profitPercentage >= :minProfit 
-      AND a.currentSessionStartedAt IS NOT NULL
-      AND a.lastUpdatedAt >= :minSessionStartTime
-      AND (a.continuityBreakCount IS NULL OR a.continuityBreakCount <= :maxBreaks) 
-    ORDER BY a.profitPercentage DESC, a.lastUpdatedAt DESC
-    """)
-    Page<Arb> findStableArbsForBetting(
-            @Param("minProfit") BigDecimal minProfit,
-            @Param("freshCutoff") Instant freshCutoff,
-            @Param("minSessionStartTime") Instant minSessionStartTime,  // = now - minStableSeconds
-            @Param("maxBreaks") Integer maxBreaks,
-            Pageable pageable);
-
-
     // === Simple count for monitoring ===
     @Query("""
         SELECT COUNT(a) FROM Arb a
@@ -78,37 +63,6 @@ public interface ArbRepository extends JpaRepository<Arb, String>, JpaSpecificat
         """)
     long countArbsWithMinimumSession(@Param("cutoff") Instant cutoff);
 
-    // === Bulk expiration ===
-    @Modifying
-    @Query("""
-        UPDATE Arb a
-        SET a.status = 'EXPIRED',
-            a.active = false
-        WHERE a.expiresAt IS NOT NULL 
-          AND a.expiresAt < :cutoff
-          AND a.active = true
-        """)
-    int expireOldArbs(@Param("cutoff") Instant cutoff);
-
-    // === Clean up old inactive arbs ===
-    @Modifying
-    @Query("""
-        DELETE FROM Arb a
-        WHERE a.active = false
-          AND a.lastUpdatedAt < :cutoff
-        """)
-    int deleteInactiveArbs(@Param("cutoff") Instant cutoff);
-
-    // === Mark stale arbs (simplified) ===
-    @Modifying
-    @Query("""
-        UPDATE Arb a
-        SET a.continuityBreakCount = COALESCE(a.continuityBreakCount, 0) + 1
-        WHERE a.active = true
-          AND a.lastUpdatedAt < :staleCutoff
-        """)
-    int markStaleArbs(@Param("staleCutoff") Instant staleCutoff);
-
     // === Useful monitoring queries ===
     @Query("""
         SELECT a FROM Arb a
@@ -144,40 +98,6 @@ public interface ArbRepository extends JpaRepository<Arb, String>, JpaSpecificat
             @Param("since") Instant since,
             Pageable pageable
     );
-    @Query(value = """
-    SELECT DISTINCT a.* 
-    FROM arb a
-    LEFT JOIN bet_leg bl ON a.arb_id = bl.arb_id  -- Optional: if you need legs in results
-    WHERE a.active = true 
-      AND a.status = 'ACTIVE' 
-      AND a.should_bet = true 
-      AND a.last_updated_at >= :freshCutoff 
-      AND a.profit_percentage >= :minProfit 
-      AND a.current_session_started_at IS NOT NULL 
-      AND a.last_updated_at >= a.current_session_started_at + (:minSessionSeconds || ' seconds')::interval 
-      AND (a.continuity_break_count IS NULL OR a.continuity_break_count <= :maxBreaks)
-    ORDER BY a.profit_percentage DESC, a.last_updated_at DESC
-    """,
-            countQuery = """
-    SELECT COUNT(DISTINCT a.arb_id) 
-    FROM arb a
-    WHERE a.active = true 
-      AND a.status = 'ACTIVE' 
-      AND a.should_bet = true 
-      AND a.last_updated_at >= :freshCutoff 
-      AND a.profit_percentage >= :minProfit 
-      AND a.current_session_started_at IS NOT NULL 
-      AND a.last_updated_at >= a.current_session_started_at + (:minSessionSeconds || ' seconds')::interval 
-      AND (a.continuity_break_count IS NULL OR a.continuity_break_count <= :maxBreaks)
-    """,
-            nativeQuery = true)
-    Page<Arb> findStableArbsNative(
-            @Param("minProfit") BigDecimal minProfit,
-            @Param("freshCutoff") Instant freshCutoff,
-            @Param("minSessionSeconds") Long minSessionSeconds,
-            @Param("maxBreaks") Integer maxBreaks,
-            Pageable pageable
-    );
 
     // === Statistics query (simplified) ===
     @Query("""
@@ -2,10 +2,17 @@ package com.mouse.bet.repository;
 
 import com.mouse.bet.entity.Wallet;
 import com.mouse.bet.enums.BookMaker;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,7 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
     /**
      * Find wallet by bookmaker
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Wallet> findByBookmaker(BookMaker bookmaker);
 
     /**
@@ -27,4 +35,18 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
      */
     List<Wallet> findByAvailableBalanceGreaterThan(BigDecimal amount);
 
+    /**
+     * Overwrite the balance column only, leaving the deposit and withdrawal totals to their own writers
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("""
+        UPDATE Wallet w
+        SET w.availableBalance = :balance, w.lastUpdated = :updatedAt
+        WHERE w.bookmaker = :bookmaker
+        """)
+    int writeBalance(@Param("bookmaker") BookMaker bookmaker,
+                     @Param("balance") BigDecimal balance,
+                     @Param("updatedAt") Instant updatedAt);
+
 }
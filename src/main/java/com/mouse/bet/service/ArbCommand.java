@@ -0,0 +1,43 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.enums.Status;
+
+/**
+ * A mutation of one live arb. Commands for the same arbId are applied one at a time,
+ * in submission order, on that arb's {@link ArbCommandLanes} lane.
+ */
+public sealed interface ArbCommand {
+
+    String arbId();
+
+    /**
+     * Fresh detection of the arb: odds, stakes, profit and event state
+     */
+    record OddsUpdate(Arb incoming) implements ArbCommand {
+        @Override
+        public String arbId() {
+            return incoming.getArbId();
+        }
+    }
+
+    /**
+     * Execution lifecycle change made by the orchestrator
+     */
+    record StatusTransition(String arbId, Status status, boolean active) implements ArbCommand {}
+
+    /**
+     * Bet outcomes recorded on the legs of an execution copy
+     */
+    record LegResults(Arb executed) implements ArbCommand {
+        @Override
+        public String arbId() {
+            return executed.getArbId();
+        }
+    }
+
+    /**
+     * An expiry, continuity or idle deadline fired on the {@link ArbExpiryService} wheel
+     */
+    record Deadline(String arbId) implements ArbCommand {}
+}
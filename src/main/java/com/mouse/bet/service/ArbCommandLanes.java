@@ -0,0 +1,100 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serial executors for arb mutations. Each arbId hashes to one single-threaded lane, so the
+ * detector, the orchestrator and the betting windows never race on the same arb: their commands
+ * queue up and run one after another in the order they were submitted. The lane count and thread
+ * names come from the {@link Lane#COMMAND} lane.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArbCommandLanes {
+
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ThreadPoolExecutor[] lanes;
+
+    @PostConstruct
+    public void init() {
+        int count = executionLanes.threads(Lane.COMMAND);
+        ThreadFactory threads = executionLanes.threadFactory(Lane.COMMAND);
+        lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threads);
+        }
+
+        Gauge.builder("arb.commands.pending", this, ArbCommandLanes::pending).register(meterRegistry);
+        FunctionCounter.builder("arb.commands.applied", applied, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("arb.commands.failed", failed, AtomicLong::get).register(meterRegistry);
+        log.info("Arb command lanes started (lanes={})", count);
+    }
+
+    /**
+     * Run the command on the arb's lane, after every command already queued for it
+     */
+    public void execute(String arbId, Runnable command) {
+        lanes[laneOf(arbId)].execute(() -> {
+            try {
+                command.run();
+                applied.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Arb command failed | ArbId: {}", arbId, e);
+            }
+        });
+    }
+
+    int laneOf(String arbId) {
+        return Math.floorMod(arbId.hashCode(), lanes.length);
+    }
+
+    public int pending() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            total += lane.getQueue().size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor lane : lanes) {
+                if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (ThreadPoolExecutor lane : lanes) {
+                lane.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+        log.info("Arb command lanes stopped | applied={} failed={}", applied.get(), failed.get());
+    }
+}
@@ -0,0 +1,187 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.enums.Status;
+import com.mouse.bet.model.TimingWheel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Deadline clock for live arbs, replacing the periodic expiry, staleness and idle sweeps.
+ * Each live arb has at most one pending deadline on a {@link TimingWheel}: its expiry or continuity
+ * deadline while active, its idle-eviction time once it has gone stale, expired or finished executing.
+ * Deadlines are not moved when an arb is updated; when one fires, the owner re-checks the arb on its
+ * command lane and tracks it again, so a busy arb costs one wheel entry per continuity gap.
+ * The wheel is advanced by a timer on the shared lane scheduler; a tick only hands fired arbIds on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArbExpiryService {
+
+    private static final int WHEEL_SLOT_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+
+    // Statuses an arb never leaves by itself; such an arb is retired even if still flagged active
+    private static final Set<Status> RETIRED_STATUSES =
+            EnumSet.of(Status.STALE, Status.EXPIRED, Status.EXECUTED, Status.COMPLETED, Status.FAILED);
+
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    // Deadline currently on the wheel per arb; a fired entry that no longer matches is ignored
+    private final Map<String, Long> scheduledAt = new ConcurrentHashMap<>();
+    private final Queue<Deadline> intake = new ConcurrentLinkedQueue<>();
+    private final AtomicLong fired = new AtomicLong();
+
+    private ScheduledFuture<?> ticker;
+    private TimingWheel<Deadline> wheel;
+    private volatile Consumer<String> deadlineHandler;
+
+    @Value("${arb.expiry.tick-ms:100}")
+    private long tickMs = 100;
+
+    // Stale, expired and finished arbs unseen for this long leave the live store
+    @Value("${arb.cache.idle-evict-seconds:300}")
+    private long idleEvictSeconds = 300;
+
+    private record Deadline(String arbId, long atMillis) {}
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel<>(tickMs, WHEEL_SLOT_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+
+        Gauge.builder("arb.expiry.scheduled", scheduledAt, Map::size).register(meterRegistry);
+        FunctionCounter.builder("arb.expiry.fired", fired, AtomicLong::get).register(meterRegistry);
+
+        ticker = executionLanes.scheduler().scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Arb expiry wheel started (tickMs={}, idleEvictSeconds={})", tickMs, idleEvictSeconds);
+    }
+
+    /**
+     * Receives the arbId of every deadline that fires, on the scheduler thread; must not block
+     */
+    public void onDeadline(Consumer<String> handler) {
+        this.deadlineHandler = handler;
+    }
+
+    /**
+     * Schedule the arb's next deadline unless an earlier one is already pending.
+     * Called under the live arb's lock after every change to it.
+     */
+    public void track(Arb arb) {
+        long deadline = nextDeadline(arb);
+        if (deadline == Long.MAX_VALUE) {
+            return;
+        }
+
+        boolean[] earlier = new boolean[1];
+        scheduledAt.compute(arb.getArbId(), (id, at) -> {
+            if (at == null || deadline < at) {
+                earlier[0] = true;
+                return deadline;
+            }
+            return at;
+        });
+        if (earlier[0]) {
+            intake.offer(new Deadline(arb.getArbId(), deadline));
+        }
+    }
+
+    /**
+     * Epoch millis of the next moment the arb needs attention, Long.MAX_VALUE if none.
+     * Arbs in execution have none: the orchestrator owns them until it hands back a final status.
+     */
+    long nextDeadline(Arb arb) {
+        if (arb.isActive() && arb.getStatus() == Status.ACTIVE) {
+            long deadline = Long.MAX_VALUE;
+            if (arb.getContinuityDeadline() != null) {
+                deadline = arb.getContinuityDeadline().toEpochMilli();
+            }
+            if (arb.getExpiresAt() != null) {
+                // isExpired is strict, so the first expired instant is one milli later
+                deadline = Math.min(deadline, arb.getExpiresAt().toEpochMilli() + 1);
+            }
+            return deadline;
+        }
+        if (isRetired(arb)) {
+            Instant lastSeen = lastSeen(arb);
+            return lastSeen != null
+                    ? lastSeen.plusSeconds(idleEvictSeconds).toEpochMilli()
+                    : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(idleEvictSeconds);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * True once a stale, expired or finished arb has gone unseen for the idle period
+     */
+    public boolean isIdle(Arb arb, Instant now) {
+        Instant lastSeen = lastSeen(arb);
+        return isRetired(arb) && lastSeen != null && !lastSeen.plusSeconds(idleEvictSeconds).isAfter(now);
+    }
+
+    private boolean isRetired(Arb arb) {
+        return !arb.isActive() || RETIRED_STATUSES.contains(arb.getStatus());
+    }
+
+    private static Instant lastSeen(Arb arb) {
+        return arb.getLastSeenAt() != null ? arb.getLastSeenAt() : arb.getLastUpdatedAt();
+    }
+
+    private void tick() {
+        try {
+            Deadline deadline;
+            while ((deadline = intake.poll()) != null) {
+                wheel.schedule(deadline, deadline.atMillis());
+            }
+            wheel.advance(System.currentTimeMillis(), this::fire);
+        } catch (Exception e) {
+            log.error("Arb expiry tick failed", e);
+        }
+    }
+
+    private void fire(Deadline deadline) {
+        if (!scheduledAt.remove(deadline.arbId(), deadline.atMillis())) {
+            return;
+        }
+        fired.incrementAndGet();
+
+        Consumer<String> handler = deadlineHandler;
+        if (handler != null) {
+            handler.accept(deadline.arbId());
+        }
+    }
+
+    public int scheduled() {
+        return scheduledAt.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.cancel(false);
+        }
+        log.info("Arb expiry wheel stopped | fired={} pending={}", fired.get(), scheduledAt.size());
+    }
+}
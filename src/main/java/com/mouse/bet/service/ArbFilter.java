@@ -2,17 +2,15 @@ package com.mouse.bet.service;
 
 import com.mouse.bet.entity.Arb;
 import com.mouse.bet.entity.BetLeg;
-import com.mouse.bet.model.OddsChange;
+import com.mouse.bet.model.OddsMetricsWindow;
 import com.mouse.bet.model.VelocityVolatility;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.*;
 
 /**
  * Utility class for computing derived metrics and confidence scores for arbitrage opportunities.
@@ -104,10 +102,10 @@ public class ArbFilter {
         }
 
         Instant cutoff = Instant.now().minusSeconds(minStableSessionSeconds); // Last 30 seconds
-        List<OddsChange> recent = arb.getOddsChangesBetween(cutoff, Instant.now());
+        int recent = arb.getOddsMetrics().countSince(cutoff.toEpochMilli());
 
-        if (recent.size() > MAX_RECENT_ODDS_CHANGES) {
-            log.debug("Too many recent odds changes: {} | ArbId: {}", recent.size(), arb.getArbId());
+        if (recent > MAX_RECENT_ODDS_CHANGES) {
+            log.debug("Too many recent odds changes: {} | ArbId: {}", recent, arb.getArbId());
             return false;
         }
 
@@ -125,7 +123,8 @@ public class ArbFilter {
     }
 
     /**
-     * Recompute all derived metrics for an arb
+     * Recompute all derived metrics for an arb.
+     * Reads the arb's running window, so the cost is constant per tick however long the arb has lived.
      */
     public void recomputeMetrics(Arb arb) {
         try {
@@ -140,33 +139,30 @@ public class ArbFilter {
             Instant now = Instant.now();
             Instant cutoff = now.minusSeconds(METRICS_WINDOW_MINUTES * 60L);
 
-            List<OddsChange> recent = arb.getOddsChangesBetween(cutoff, now);
-            log.info("Retrieved {} odds changes within {}-minute window",
-                    recent != null ? recent.size() : 0, METRICS_WINDOW_MINUTES);
+            OddsMetricsWindow window = arb.getOddsMetrics();
+            window.evictBefore(cutoff.toEpochMilli());
+            int recent = window.count();
+            log.info("Retrieved {} odds changes within {}-minute window", recent, METRICS_WINDOW_MINUTES);
 
             // Update odds change count
-            int oddsChangeCount = arb.getOddsHistory() != null ? arb.getOddsHistory().size() : 0;
+            int oddsChangeCount = arb.getOddsHistory() != null ? arb.getOddsHistory().recordedCount() : 0;
             arb.setOddsChangeCount(oddsChangeCount);
             log.info("Total odds change count: {}", oddsChangeCount);
 
-            // Current odds as fallback
-            BigDecimal curA = arb.getLegA().map(BetLeg::getOdds).orElse(null);
-            BigDecimal curB = arb.getLegB().map(BetLeg::getOdds).orElse(null);
-            log.info("Current odds | LegA: {} | LegB: {}", curA, curB);
-
-            // Calculate mean odds
-            Double meanA = calculateMeanOddsA(recent, curA);
-            Double meanB = calculateMeanOddsB(recent, curB);
+            // Mean odds, current odds as fallback
+            Double meanA = meanOrFallback(window.meanOddsA(), arb.getLegA().map(BetLeg::getOdds).orElse(null));
+            Double meanB = meanOrFallback(window.meanOddsB(), arb.getLegB().map(BetLeg::getOdds).orElse(null));
             arb.setMeanOddsLegA(meanA);
             arb.setMeanOddsLegB(meanB);
             log.info("Mean odds calculated | LegA: {} | LegB: {}", meanA, meanB);
 
-            // Calculate velocity and volatility
-            VelocityVolatility vv = calculateVelocityAndVolatility(recent);
+            // Velocity and volatility
+            VelocityVolatility vv = new VelocityVolatility(
+                    window.velocityPctPerSec(), window.volatilitySigma(MIN_SAMPLES_FOR_VOL));
             arb.setVelocityPctPerSec(vv.velocityPctPerSec());
             arb.setVolatilitySigma(vv.volatilitySigma());
-            log.info("Velocity & volatility | Velocity: {}%/sec | Volatility: {}",
-                    vv.velocityPctPerSec(), vv.volatilitySigma());
+            log.info("Velocity & volatility | Velocity: {}%/sec | Volatility: {} | Deltas: {}",
+                    vv.velocityPctPerSec(), vv.volatilitySigma(), window.percentageMoveCount());
 
             // Calculate confidence score
             Double confidence = calculateConfidenceScore(vv.volatilitySigma(), recent, cutoff, now);
@@ -181,143 +177,11 @@ public class ArbFilter {
         }
     }
 
-    /**
-     * Calculate mean odds for Leg A
-     */
-    private Double calculateMeanOddsA(List<OddsChange> changes, BigDecimal fallback) {
-        try {
-            List<BigDecimal> vals = changes.stream()
-                    .map(OddsChange::getNewOddsA)
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            if (vals.isEmpty()) {
-                log.info("No odds changes for LegA, using fallback: {}", fallback);
-                return fallback != null ? fallback.doubleValue() : null;
-            }
-
-            BigDecimal sum = vals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            Double mean = sum.divide(BigDecimal.valueOf(vals.size()), 8, RoundingMode.HALF_UP).doubleValue();
-            log.info("Calculated mean odds LegA from {} samples: {}", vals.size(), mean);
-            return mean;
-
-        } catch (Exception e) {
-            log.error("{} Error calculating mean odds for LegA: {}", EMOJI_ERROR, e.getMessage(), e);
-            return fallback != null ? fallback.doubleValue() : null;
-        }
-    }
-
-    /**
-     * Calculate mean odds for Leg B
-     */
-    private Double calculateMeanOddsB(List<OddsChange> changes, BigDecimal fallback) {
-        try {
-            List<BigDecimal> vals = changes.stream()
-                    .map(OddsChange::getNewOddsB)
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            if (vals.isEmpty()) {
-                log.info("No odds changes for LegB, using fallback: {}", fallback);
-                return fallback != null ? fallback.doubleValue() : null;
-            }
-
-            BigDecimal sum = vals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            Double mean = sum.divide(BigDecimal.valueOf(vals.size()), 8, RoundingMode.HALF_UP).doubleValue();
-            log.info("Calculated mean odds LegB from {} samples: {}", vals.size(), mean);
+    private Double meanOrFallback(Double mean, BigDecimal fallback) {
+        if (mean != null) {
             return mean;
-
-        } catch (Exception e) {
-            log.error("{} Error calculating mean odds for LegB: {}", EMOJI_ERROR, e.getMessage(), e);
-            return fallback != null ? fallback.doubleValue() : null;
-        }
-    }
-
-    /**
-     * Calculate velocity and volatility metrics
-     */
-    private VelocityVolatility calculateVelocityAndVolatility(List<OddsChange> changes) {
-        try {
-            if (changes == null || changes.size() < 2) {
-                log.info("Insufficient data for velocity/volatility calculation (samples: {})",
-                        changes != null ? changes.size() : 0);
-                return new VelocityVolatility(0.0, 0.0);
-            }
-
-            List<OddsChange> seq = new ArrayList<>(changes);
-            seq.sort(Comparator.comparing(OddsChange::getTimestamp));
-
-            List<Double> pctDeltas = new ArrayList<>();
-            Instant firstTs = seq.get(0).getTimestamp();
-            Instant lastTs = seq.get(seq.size() - 1).getTimestamp();
-
-            for (OddsChange ch : seq) {
-                Double pctA = calculatePercentageDelta(ch.getOldOddsA(), ch.getNewOddsA());
-                Double pctB = calculatePercentageDelta(ch.getOldOddsB(), ch.getNewOddsB());
-
-                if (pctA == null && pctB == null) continue;
-
-                if (pctA != null && pctB != null) {
-                    pctDeltas.add((Math.abs(pctA) + Math.abs(pctB)) / 2.0);
-                } else {
-                    pctDeltas.add(Math.abs(pctA != null ? pctA : pctB));
-                }
-            }
-
-            if (pctDeltas.isEmpty()) {
-                log.info("No valid percentage deltas found");
-                return new VelocityVolatility(0.0, 0.0);
-            }
-
-            long seconds = Math.max(1L, lastTs.getEpochSecond() - firstTs.getEpochSecond());
-            double totalAbsPct = pctDeltas.stream().mapToDouble(Double::doubleValue).sum();
-
-            double velocity = totalAbsPct / seconds;
-
-            double volatility = 0.0;
-            if (pctDeltas.size() >= MIN_SAMPLES_FOR_VOL) {
-                double mean = totalAbsPct / pctDeltas.size();
-                double variance = pctDeltas.stream()
-                        .mapToDouble(v -> (v - mean) * (v - mean))
-                        .sum() / (pctDeltas.size() - 1);
-                volatility = Math.sqrt(variance);
-                log.info("Volatility calculated from {} samples: {}", pctDeltas.size(), volatility);
-            } else {
-                log.info("{} Insufficient samples ({}) for volatility calculation (min: {})",
-                        EMOJI_WARNING, pctDeltas.size(), MIN_SAMPLES_FOR_VOL);
-            }
-
-            log.info("Velocity/volatility computed | Time span: {}s | Deltas: {} | Velocity: {}",
-                    seconds, pctDeltas.size(), velocity);
-            return new VelocityVolatility(velocity, volatility);
-
-        } catch (Exception e) {
-            log.error("{} Error calculating velocity and volatility: {}", EMOJI_ERROR, e.getMessage(), e);
-            return new VelocityVolatility(0.0, 0.0);
-        }
-    }
-
-    /**
-     * Calculate percentage delta between two odds values
-     */
-    private Double calculatePercentageDelta(BigDecimal oldVal, BigDecimal newVal) {
-        try {
-            if (oldVal == null || newVal == null) return null;
-            if (oldVal.compareTo(BigDecimal.ZERO) == 0) {
-                log.info("{} Division by zero avoided in percentage delta calculation", EMOJI_WARNING);
-                return null;
-            }
-
-            return newVal.subtract(oldVal)
-                    .divide(oldVal, 8, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .doubleValue();
-
-        } catch (Exception e) {
-            log.error("{} Error calculating percentage delta | Old: {} | New: {} | Error: {}",
-                    EMOJI_ERROR, oldVal, newVal, e.getMessage());
-            return null;
         }
+        return fallback != null ? fallback.doubleValue() : null;
     }
 
     /**
@@ -325,7 +189,7 @@ public class ArbFilter {
      * Higher = more stable
      */
     private double calculateConfidenceScore(Double volatilitySigma,
-                                            List<OddsChange> recent,
+                                            int recentChanges,
                                             Instant from,
                                             Instant to) {
         try {
@@ -335,7 +199,7 @@ public class ArbFilter {
             }
 
             long seconds = Math.max(1L, to.getEpochSecond() - from.getEpochSecond());
-            double changesPerMin = (recent != null ? recent.size() : 0) / (seconds / 60.0);
+            double changesPerMin = recentChanges / (seconds / 60.0);
 
             double volatilityScore = Math.exp(-VOLATILITY_WEIGHT * volatilitySigma);
             double changeRateScore = Math.exp(-CHANGE_RATE_WEIGHT * changesPerMin);
@@ -1,11 +1,15 @@
 package com.mouse.bet.service;
 
+import com.mouse.bet.cache.ArbCache;
 import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.ArbOddsTick;
 import com.mouse.bet.entity.ArbSnapshot;
 import com.mouse.bet.entity.BetLeg;
 import com.mouse.bet.enums.ChangeReason;
+import com.mouse.bet.enums.Status;
 import com.mouse.bet.model.OddsChange;
 import com.mouse.bet.repository.ArbRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,18 +18,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing arbitrage opportunities
  * Contains all business logic related to arb lifecycle
+ * Updates are applied to the live {@link ArbCache}; {@link #persistBatch} writes them behind to JPA
  */
 @Slf4j
 @Service
@@ -35,6 +49,14 @@ public class ArbService {
     private final ArbRepository arbRepository;
     private final ArbFilter arbFilter;
     private final ArbContinuityService continuityService;
+    private final ArbCache arbCache;
+    private final BettableArbQueue bettableArbs;
+    private final ArbSnapshotWriter snapshotWriter;
+    private final ArbCommandLanes commandLanes;
+    private final ArbExpiryService expiryService;
+
+    private static final Set<Status> EXECUTION_STATUSES =
+            EnumSet.of(Status.IN_PROGRESS, Status.EXECUTED, Status.COMPLETED, Status.FAILED);
 
     @Value("${arb.session.min-stable-seconds:30}")
     private int minStableSessionSeconds;
@@ -58,11 +80,45 @@ public class ArbService {
     private static final String EMOJI_TROPHY = "🏆";
     private static final String EMOJI_CHANGE = "📈";
 
+    @PostConstruct
+    public void init() {
+        expiryService.onDeadline(arbId -> submit(new ArbCommand.Deadline(arbId)));
+    }
+
     /**
-     * Save or update an arb
+     * Save or update an arb in the live store; applied on the arb's command lane, persisted later by write-behind
      */
-    @Transactional
     public void saveArb(Arb incoming) {
+        submit(new ArbCommand.OddsUpdate(incoming));
+    }
+
+    /**
+     * Queue a mutation on the arb's lane; commands for one arb never run concurrently
+     */
+    public void submit(ArbCommand command) {
+        commandLanes.execute(command.arbId(), () -> apply(command));
+    }
+
+    /**
+     * Re-rank an arb for betting from its live state; call under the arb's lock
+     */
+    public void rank(Arb live) {
+        bettableArbs.update(BettableArbQueue.Candidate.of(live, calculateEnhancedScore(live)));
+    }
+
+    private void apply(ArbCommand command) {
+        if (command instanceof ArbCommand.OddsUpdate update) {
+            applyOddsUpdate(update.incoming());
+        } else if (command instanceof ArbCommand.StatusTransition transition) {
+            applyTransition(transition);
+        } else if (command instanceof ArbCommand.LegResults results) {
+            applyLegResults(results.executed());
+        } else if (command instanceof ArbCommand.Deadline deadline) {
+            applyDeadline(deadline.arbId());
+        }
+    }
+
+    private void applyOddsUpdate(Arb incoming) {
         log.info("{} {} Starting arb save | ArbId: {}",
                 EMOJI_SAVE, EMOJI_TARGET, incoming.getArbId());
 
@@ -76,38 +132,273 @@ public class ArbService {
         }
 
         // Update payouts
-        incoming.getLegA().ifPresent(BetLeg::updatePotentialPayout);
-        incoming.getLegB().ifPresent(BetLeg::updatePotentialPayout);
-
-        // Find existing or create new
-        Arb result = arbRepository.findById(incoming.getArbId())
-                .map(existing -> {
-                    // CHECK CONTINUITY BEFORE UPDATE
-                    boolean continuityMaintained = continuityService.checkAndHandleContinuity(existing, now);
-
-                    if (!continuityMaintained) {
-                        log.warn("{} {} Treating as NEW arb due to continuity break | ArbId: {} | Old Session: {}s",
-                                EMOJI_WARNING, EMOJI_NEW,
-                                existing.getArbId(), existing.getCurrentSessionDurationSeconds());
-                        // Reset and treat as new session
-                        return updateExistingArbAfterBreak(existing, incoming, now);
-                    }
-
-                    // Normal update with continuity maintained
-                    return updateExistingArb(existing, incoming, now);
-                })
-                .orElseGet(() -> createNewArb(incoming, now));
-
-        Arb persisted = arbRepository.save(result);
+        incoming.getLegs().forEach(BetLeg::updatePotentialPayout);
+
+        // Apply to the live arb or start a new one, then re-rank it for betting
+        Arb live = arbCache.update(incoming.getArbId(), existing -> {
+            // The execution lifecycle belongs to the orchestrator; detections only move odds
+            boolean executing = existing != null && EXECUTION_STATUSES.contains(existing.getStatus());
+            Status heldStatus = executing ? existing.getStatus() : null;
+            boolean heldActive = executing && existing.isActive();
+
+            Arb updated = applyUpdate(existing, incoming, now);
+            if (executing) {
+                updated.setStatus(heldStatus);
+                updated.setActive(heldActive);
+            }
+            rank(updated);
+            expiryService.track(updated);
+            return updated;
+        });
 
         log.info("{} {} Arb saved | ArbId: {} | Status: {} | Profit: {}% | Session: {}s | Total: {}s | Breaks: {}",
                 EMOJI_SUCCESS, EMOJI_SAVE,
-                persisted.getArbId(),
-                persisted.getStatus(),
-                persisted.getProfitPercentage(),
-                persisted.getCurrentSessionDurationSeconds(),
-                persisted.getTotalCumulativeDurationSeconds(),
-                persisted.getContinuityBreakCount());
+                live.getArbId(),
+                live.getStatus(),
+                live.getProfitPercentage(),
+                live.getCurrentSessionDurationSeconds(),
+                live.getTotalCumulativeDurationSeconds(),
+                live.getContinuityBreakCount());
+    }
+
+    private void applyTransition(ArbCommand.StatusTransition transition) {
+        arbCache.update(transition.arbId(), live -> {
+            if (live == null) {
+                log.debug("{} Status transition for untracked arb ignored | ArbId: {} | Status: {}",
+                        EMOJI_WARNING, transition.arbId(), transition.status());
+                return null;
+            }
+            live.setStatus(transition.status());
+            live.setActive(transition.active());
+            rank(live);
+            expiryService.track(live);
+            return live;
+        });
+        log.info("{} Arb status transition | ArbId: {} | Status: {} | Active: {}",
+                EMOJI_UPDATE, transition.arbId(), transition.status(), transition.active());
+    }
+
+    /**
+     * A wheel deadline fired: evict the arb if it has been retired long enough, otherwise expire it or
+     * mark it stale if its time is up, then track its next deadline. Changes reach the database with
+     * the next write-behind batch.
+     */
+    private void applyDeadline(String arbId) {
+        Instant now = Instant.now();
+
+        if (arbCache.evictIf(arbId, live -> expiryService.isIdle(live, now))) {
+            bettableArbs.remove(arbId);
+            log.debug("{} Evicted idle arb from live store | ArbId: {}", EMOJI_CLOCK, arbId);
+            return;
+        }
+
+        Status[] retired = new Status[1];
+        boolean changed = arbCache.mutate(arbId, live -> {
+            if (live.isActive() && live.getStatus() == Status.ACTIVE) {
+                if (live.isExpired(now)) {
+                    live.setStatus(Status.EXPIRED);
+                    live.setActive(false);
+                    retired[0] = Status.EXPIRED;
+                } else if (live.hasContinuityBreak(now)) {
+                    // The next detection breaks continuity and revives it as a new session
+                    live.setStatus(Status.STALE);
+                    retired[0] = Status.STALE;
+                }
+            }
+            expiryService.track(live);
+            return retired[0] != null;
+        });
+
+        if (changed) {
+            bettableArbs.remove(arbId);
+            log.info("{} {} Arb deadline reached | ArbId: {} | Status: {}",
+                    EMOJI_CLOCK, EMOJI_WARNING, arbId, retired[0]);
+        }
+    }
+
+    /**
+     * Copy bet outcomes from an execution copy's legs onto the live legs, matched by legIndex
+     */
+    private void applyLegResults(Arb executed) {
+        arbCache.update(executed.getArbId(), live -> {
+            if (live == null) {
+                return null;
+            }
+            for (BetLeg result : executed.getLegs()) {
+                live.getLegs().stream()
+                        .filter(l -> Objects.equals(l.getLegIndex(), result.getLegIndex()))
+                        .findFirst()
+                        .ifPresent(target -> mergeLegOutcome(target, result));
+            }
+            return live;
+        });
+    }
+
+    /**
+     * Merge incoming into the live arb, handling continuity; runs under the live arb's lock
+     */
+    private Arb applyUpdate(Arb existing, Arb incoming, Instant now) {
+        if (existing == null) {
+            return createNewArb(incoming, now);
+        }
+
+        // CHECK CONTINUITY BEFORE UPDATE
+        boolean continuityMaintained = continuityService.checkAndHandleContinuity(existing, now);
+
+        if (!continuityMaintained) {
+            log.warn("{} {} Treating as NEW arb due to continuity break | ArbId: {} | Old Session: {}s",
+                    EMOJI_WARNING, EMOJI_NEW,
+                    existing.getArbId(), existing.getCurrentSessionDurationSeconds());
+            // Reset and treat as new session
+            return updateExistingArbAfterBreak(existing, incoming, now);
+        }
+
+        // Normal update with continuity maintained
+        return updateExistingArb(existing, incoming, now);
+    }
+
+    /**
+     * Detached copy of a live arb for execution; outcomes come back as StatusTransition and LegResults commands
+     */
+    public Optional<Arb> copyForExecution(String arbId) {
+        return arbCache.read(arbId, live -> {
+            Arb copy = live.toBuilder()
+                    .legs(new ArrayList<>())
+                    .history(new ArrayList<>())
+                    .oddsTicks(new ArrayList<>())
+                    .oddsHistory(live.getOddsHistory().copy())
+                    .pendingOddsTicks(new ArrayList<>())
+                    .oddsMetrics(live.getOddsMetrics().copy())
+                    .build();
+            live.getLegs().forEach(leg -> copy.attachLeg(leg.toBuilder().arb(null).build()));
+            return copy;
+        });
+    }
+
+    /**
+     * Persist the current live state of the given arbs in one transaction.
+     * Called by the write-behind writer; arbs no longer in the live store are skipped.
+     */
+    @Transactional
+    public int persistBatch(Collection<String> arbIds) {
+        Map<String, Arb> rows = new HashMap<>();
+        for (Arb row : arbRepository.findByArbIdIn(arbIds)) {
+            rows.put(row.getArbId(), row);
+        }
+
+        List<Arb> created = new ArrayList<>();
+        Map<String, FlushedState> flushed = new HashMap<>();
+
+        for (String arbId : arbIds) {
+            Arb existingRow = rows.get(arbId);
+            Arb row = existingRow != null ? existingRow : Arb.builder().arbId(arbId).build();
+
+            Optional<FlushedState> copied = arbCache.read(arbId, live -> copyLiveState(live, row));
+            if (copied.isEmpty()) {
+                continue;
+            }
+            if (existingRow == null) {
+                created.add(row);
+            }
+            flushed.put(arbId, copied.get());
+        }
+
+        arbRepository.saveAll(created);
+        // A rolled-back batch is retried arb by arb, so the live arbs keep their ticks and snapshots until commit
+        afterCommit(() -> flushed.forEach(this::dropFlushed));
+        int written = flushed.size();
+
+        log.debug("{} Flushed {} arbs ({} new)", EMOJI_SAVE, written, created.size());
+        return written;
+    }
+
+    /**
+     * What a flush took from a live arb; removed from it only once the flush has committed
+     */
+    private record FlushedState(List<ArbOddsTick> ticks, List<ArbSnapshot> snapshots) {}
+
+    /**
+     * Copy the live arb onto its persistent row; odds ticks captured since the last flush are copied to the row;
+     * snapshots go to the snapshot writer once the row is committed. The live arb is only read here.
+     */
+    private FlushedState copyLiveState(Arb live, Arb row) {
+        mergeScalarFields(row, live);
+
+        row.setCreatedAt(live.getCreatedAt());
+        row.setFirstSeenAt(live.getFirstSeenAt());
+        row.setLastSeenAt(live.getLastSeenAt());
+        row.setLastUpdatedAt(live.getLastUpdatedAt());
+
+        row.setConfidenceScore(live.getConfidenceScore());
+        row.setVolatilitySigma(live.getVolatilitySigma());
+        row.setVelocityPctPerSec(live.getVelocityPctPerSec());
+        row.setMeanOddsLegA(live.getMeanOddsLegA());
+        row.setMeanOddsLegB(live.getMeanOddsLegB());
+
+        row.setOddsChangeCount(live.getOddsChangeCount());
+        row.setMaxOddsLegA(live.getMaxOddsLegA());
+        row.setMinOddsLegA(live.getMinOddsLegA());
+        row.setMaxOddsLegB(live.getMaxOddsLegB());
+        row.setMinOddsLegB(live.getMinOddsLegB());
+        row.setPeakProfitPercentage(live.getPeakProfitPercentage());
+        row.setPeakProfitAt(live.getPeakProfitAt());
+
+        row.setLastContinuousUpdateAt(live.getLastContinuousUpdateAt());
+        row.setContinuityBreakCount(live.getContinuityBreakCount());
+        row.setCurrentSessionStartedAt(live.getCurrentSessionStartedAt());
+        row.setTotalCumulativeDurationSeconds(live.getTotalCumulativeDurationSeconds());
+
+        for (BetLeg liveLeg : live.getLegs()) {
+            Optional<BetLeg> rowLeg = row.getLegs().stream()
+                    .filter(l -> Objects.equals(l.getLegIndex(), liveLeg.getLegIndex()))
+                    .findFirst();
+
+            if (rowLeg.isPresent()) {
+                mergeLegFields(rowLeg.get(), liveLeg);
+            } else {
+                row.attachLeg(liveLeg.toBuilder().arb(null).version(null).build());
+            }
+        }
+
+        List<ArbSnapshot> snapshots = new ArrayList<>(live.getHistory());
+        snapshotWriter.enqueueAfterCommit(live.getArbId(), snapshots);
+
+        // Fresh instances, so a rolled-back attempt leaves no generated id behind for the retry
+        List<ArbOddsTick> ticks = new ArrayList<>(live.getPendingOddsTicks());
+        ticks.forEach(tick -> row.appendOddsTick(tick.toBuilder().id(null).build()));
+        return new FlushedState(ticks, snapshots);
+    }
+
+    /**
+     * Remove what a committed flush wrote; anything appended to the live arb since the copy stays
+     */
+    private void dropFlushed(String arbId, FlushedState flushed) {
+        arbCache.mutate(arbId, live -> {
+            removeFlushedPrefix(live.getPendingOddsTicks(), flushed.ticks());
+            removeFlushedPrefix(live.getHistory(), flushed.snapshots());
+            return false;
+        });
+    }
+
+    private static <T> void removeFlushedPrefix(List<T> live, List<T> flushed) {
+        int n = 0;
+        while (n < flushed.size() && n < live.size() && live.get(n) == flushed.get(n)) {
+            n++;
+        }
+        live.subList(0, n).clear();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
@@ -134,6 +425,7 @@ public class ArbService {
 
         upsertLeg(existing, incoming.getLegA().orElse(null), true);
         upsertLeg(existing, incoming.getLegB().orElse(null), false);
+        upsertExtraLegs(existing, incoming);
 
         BigDecimal newA = existing.getLegA().map(BetLeg::getOdds).orElse(null);
         BigDecimal newB = existing.getLegB().map(BetLeg::getOdds).orElse(null);
@@ -175,6 +467,7 @@ public class ArbService {
         // Update legs
         upsertLeg(existing, incoming.getLegA().orElse(null), true);
         upsertLeg(existing, incoming.getLegB().orElse(null), false);
+        upsertExtraLegs(existing, incoming);
 
         // Record initial odds for new session
         BigDecimal a = existing.getLegA().map(BetLeg::getOdds).orElse(null);
@@ -317,8 +610,11 @@ public class ArbService {
 
             if (legA.isEmpty() || legB.isEmpty()) return;
 
+            Instant now = Instant.now();
+            if (!snapshotWriter.shouldCapture(arb, now)) return;
+
             ArbSnapshot snapshot = ArbSnapshot.builder()
-                    .capturedAt(Instant.now())
+                    .capturedAt(now)
                     .oddsLegA(legA.get().getOdds())
                     .oddsLegB(legB.get().getOdds())
                     .stakeA(arb.getStakeA())
@@ -418,6 +714,7 @@ public class ArbService {
             newLeg.setArb(arb);  // This sets arb_id FK via the @ManyToOne
 
             newLeg.setPrimaryLeg(isPrimary);
+            newLeg.setLegIndex(isPrimary ? 0 : 1);
             newLeg.updatePotentialPayout();
 
             // Attach to Arb (your existing method)
@@ -425,12 +722,53 @@ public class ArbService {
         }
     }
 
+    /**
+     * Upsert legs beyond A/B (N-way arbs), matched on legIndex
+     */
+    private void upsertExtraLegs(Arb arb, Arb incoming) {
+        for (BetLeg incomingLeg : incoming.getExtraLegs()) {
+            Optional<BetLeg> maybeExisting = arb.getExtraLegs().stream()
+                    .filter(l -> l.getLegIndex().equals(incomingLeg.getLegIndex()))
+                    .findFirst();
+
+            if (maybeExisting.isPresent()) {
+                mergeLegFields(maybeExisting.get(), incomingLeg);
+                maybeExisting.get().updatePotentialPayout();
+            } else {
+                log.debug("{} {} Creating extra leg #{} | Bookmaker: {} | Odds: {}",
+                        EMOJI_NEW, EMOJI_SUCCESS, incomingLeg.getLegIndex(),
+                        incomingLeg.getBookmaker(), incomingLeg.getOdds());
+                arb.attachLeg(incomingLeg.toBuilder().arb(null).version(null).build());
+            }
+        }
+    }
+
+    /**
+     * Merge only the execution outcome of a leg
+     */
+    private void mergeLegOutcome(BetLeg target, BetLeg source) {
+        if (source.getStatus() != null) {
+            target.setStatus(source.getStatus());
+        }
+        target.setBetId(source.getBetId());
+        target.setPlacedAt(source.getPlacedAt());
+        target.setSettledAt(source.getSettledAt());
+        target.setActualPayout(source.getActualPayout());
+        target.setErrorMessage(source.getErrorMessage());
+        target.setAttemptCount(source.getAttemptCount() != null ? source.getAttemptCount() : target.getAttemptCount());
+        target.setLastAttemptAt(source.getLastAttemptAt());
+        target.setPlacedOdds(source.getPlacedOdds());
+        target.setBalanceBeforeBet(source.getBalanceBeforeBet());
+        target.setBalanceAfterBet(source.getBalanceAfterBet());
+    }
+
     /**
      * Merge leg fields
      */
     private void mergeLegFields(BetLeg target, BetLeg source) {
         target.setBookmaker(source.getBookmaker());
         target.setEventId(source.getEventId());
+        target.setNormalEventId(source.getNormalEventId());
         target.setHomeTeam(source.getHomeTeam());
         target.setAwayTeam(source.getAwayTeam());
         target.setLeague(source.getLeague());
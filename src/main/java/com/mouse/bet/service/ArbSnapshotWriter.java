@@ -0,0 +1,290 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.ArbSnapshot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes ArbSnapshots with JDBC batch inserts on the {@link Lane#PERSIST} lane, off the detection path.
+ * Capture is downsampled per arb: a status change is always kept, otherwise at most one
+ * snapshot per min interval. Ids come from the entity's pooled sequence, one round trip per
+ * allocation block. Snapshots past the retention window are deleted so the table stays bounded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArbSnapshotWriter {
+
+    static final String SEQUENCE = "arb_snapshot_seq";
+    static final int SEQUENCE_ALLOCATION = 50;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO arb_snapshots (id, arb_id, captured_at, odds_leg_a, odds_leg_b, stake_a, stake_b,
+                expected_profit, confidence_score, volatility_sigma, velocity_pct_per_sec, status, change_reason)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM arb_snapshots WHERE captured_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ScheduledFuture<?> writeSchedule;
+    private BlockingQueue<PendingSnapshot> queue;
+    private String nextValSql;
+    private long nextId;
+    private long maxId;
+    private long lastPurgeMillis;
+
+    @Value("${arb.snapshot.min-interval-ms:1000}")
+    private long minIntervalMs;
+
+    @Value("${arb.snapshot.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${arb.snapshot.batch-size:500}")
+    private int batchSize;
+
+    @Value("${arb.snapshot.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${arb.snapshot.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * A queued snapshot; id is 0 until allocated and is kept across a retry, so a row the failed
+     * batch already wrote shows up as a duplicate key instead of a second copy
+     */
+    private record PendingSnapshot(String arbId, ArbSnapshot snapshot, long id, boolean requeued) {
+        PendingSnapshot(String arbId, ArbSnapshot snapshot) {
+            this(arbId, snapshot, 0L, false);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        nextValSql = nextValSql(jdbcTemplate.execute(
+                (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+
+        Gauge.builder("arb.snapshot.queued", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("arb.snapshot.written", written, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("arb.snapshot.dropped", dropped, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("arb.snapshot.failed", failed, AtomicLong::get).register(meterRegistry);
+
+        writeSchedule = executionLanes.scheduleAtFixedRate(Lane.PERSIST, this::writeCycle,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Arb snapshot writer started (minIntervalMs={}, batchSize={}, retentionHours={})",
+                minIntervalMs, batchSize, retentionHours);
+    }
+
+    /**
+     * Downsampling gate, called under the arb's cache lock; records the kept snapshot on the arb
+     */
+    public boolean shouldCapture(Arb arb, Instant now) {
+        boolean statusChanged = arb.getLastSnapshotStatus() != arb.getStatus();
+        boolean intervalElapsed = arb.getLastSnapshotAt() == null
+                || now.toEpochMilli() - arb.getLastSnapshotAt().toEpochMilli() >= minIntervalMs;
+
+        if (!statusChanged && !intervalElapsed) {
+            return false;
+        }
+        arb.setLastSnapshotAt(now);
+        arb.setLastSnapshotStatus(arb.getStatus());
+        return true;
+    }
+
+    /**
+     * Queue snapshots for writing once the surrounding transaction commits, so the arb row exists first
+     */
+    public void enqueueAfterCommit(String arbId, List<ArbSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(arbId, snapshots);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(arbId, snapshots);
+            }
+        });
+    }
+
+    private void enqueue(String arbId, List<ArbSnapshot> snapshots) {
+        for (ArbSnapshot snapshot : snapshots) {
+            if (!queue.offer(new PendingSnapshot(arbId, snapshot))) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void writeCycle() {
+        try {
+            writeQueued();
+            purgeExpired();
+        } catch (Exception e) {
+            log.error("Arb snapshot write cycle failed", e);
+        }
+    }
+
+    /**
+     * Drain and insert everything queued right now, one JDBC batch per batchSize snapshots.
+     * A failed batch is retried row by row; rows that still fail are requeued once for the next cycle.
+     * Synchronized because the shutdown drain may overlap a cycle still running on the lane.
+     */
+    synchronized void writeQueued() {
+        List<PendingSnapshot> batch = new ArrayList<>(batchSize);
+        List<PendingSnapshot> retry = new ArrayList<>();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                batch.replaceAll(this::withId);
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream().map(ArbSnapshotWriter::row).toList());
+                written.addAndGet(batch.size());
+            } catch (Exception e) {
+                log.warn("Snapshot batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+                insertIndividually(batch, retry);
+            }
+            batch.clear();
+        }
+        for (PendingSnapshot pending : retry) {
+            if (!queue.offer(pending)) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    private void insertIndividually(List<PendingSnapshot> batch, List<PendingSnapshot> retry) {
+        for (PendingSnapshot pending : batch) {
+            try {
+                pending = withId(pending);
+                jdbcTemplate.update(INSERT_SQL, row(pending));
+                written.incrementAndGet();
+            } catch (DuplicateKeyException e) {
+                // The failed batch wrote this row before it stopped
+                written.incrementAndGet();
+            } catch (Exception e) {
+                if (pending.requeued()) {
+                    failed.incrementAndGet();
+                    log.warn("Snapshot for arbId={} failed again and was dropped: {}", pending.arbId(), e.getMessage());
+                } else {
+                    retry.add(new PendingSnapshot(pending.arbId(), pending.snapshot(), pending.id(), true));
+                }
+            }
+        }
+    }
+
+    private PendingSnapshot withId(PendingSnapshot pending) {
+        if (pending.id() != 0) {
+            return pending;
+        }
+        return new PendingSnapshot(pending.arbId(), pending.snapshot(), allocateId(), pending.requeued());
+    }
+
+    private static Object[] row(PendingSnapshot pending) {
+        ArbSnapshot s = pending.snapshot();
+        return new Object[]{
+                pending.id(),
+                pending.arbId(),
+                Timestamp.from(s.getCapturedAt()),
+                s.getOddsLegA(),
+                s.getOddsLegB(),
+                s.getStakeA(),
+                s.getStakeB(),
+                s.getExpectedProfit(),
+                s.getConfidenceScore(),
+                s.getVolatilitySigma(),
+                s.getVelocityPctPerSec(),
+                s.getStatus() != null ? s.getStatus().name() : null,
+                s.getChangeReason() != null ? s.getChangeReason().name() : null
+        };
+    }
+
+    /**
+     * Pooled allocation matching Hibernate's optimizer: each sequence value is the top of a block
+     */
+    private long allocateId() {
+        if (nextId == 0 || nextId > maxId) {
+            long hi = nextSequenceValue();
+            if (hi < SEQUENCE_ALLOCATION) {
+                // The first value of a fresh sequence does not cover a full block
+                hi = nextSequenceValue();
+            }
+            maxId = hi;
+            nextId = hi - SEQUENCE_ALLOCATION + 1;
+        }
+        return nextId++;
+    }
+
+    private long nextSequenceValue() {
+        Long value = jdbcTemplate.queryForObject(nextValSql, Long.class);
+        if (value == null) {
+            throw new IllegalStateException("Sequence " + SEQUENCE + " returned no value");
+        }
+        return value;
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis < TimeUnit.MINUTES.toMillis(1)) {
+            return;
+        }
+        lastPurgeMillis = now;
+
+        Instant cutoff = Instant.ofEpochMilli(now).minusSeconds(TimeUnit.HOURS.toSeconds(retentionHours));
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} arb snapshots older than {}", purged, cutoff);
+        }
+    }
+
+    static String nextValSql(String databaseProduct) {
+        if (databaseProduct != null && databaseProduct.toLowerCase().contains("postgres")) {
+            return "SELECT nextval('" + SEQUENCE + "')";
+        }
+        return "SELECT NEXT VALUE FOR " + SEQUENCE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeSchedule != null) {
+            writeSchedule.cancel(false);
+        }
+
+        writeQueued();
+        log.info("Arb snapshot writer stopped | written={} dropped={} failed={}",
+                written.get(), dropped.get(), failed.get());
+    }
+}
@@ -0,0 +1,110 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.cache.ArbCache;
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flushes dirty arbs from the live {@link ArbCache} to JPA on a fixed interval, in batches.
+ * A failed batch is retried arb by arb so one bad row cannot hold back the rest;
+ * arbs that still fail are marked dirty again for the next cycle. Cycles run on the {@link Lane#PERSIST} lane.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArbWriteBehindService {
+
+    private final ArbCache arbCache;
+    private final ArbService arbService;
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ScheduledFuture<?> flushSchedule;
+
+    @Value("${arb.cache.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${arb.cache.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("arb.cache.live", arbCache, ArbCache::size).register(meterRegistry);
+        Gauge.builder("arb.cache.dirty", arbCache, ArbCache::dirtyCount).register(meterRegistry);
+        FunctionCounter.builder("arb.cache.flushed", flushed, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("arb.cache.flush.failed", failed, AtomicLong::get).register(meterRegistry);
+
+        flushSchedule = executionLanes.scheduleAtFixedRate(Lane.PERSIST, this::flushCycle,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Arb write-behind started (intervalMs={}, batchSize={})", flushIntervalMs, flushBatchSize);
+    }
+
+    private void flushCycle() {
+        try {
+            flushDirty();
+        } catch (Exception e) {
+            log.error("Arb write-behind cycle failed", e);
+        }
+    }
+
+    /**
+     * Drain and persist every arb that is dirty right now
+     */
+    public void flushDirty() {
+        List<String> batch;
+        while (!(batch = arbCache.drainDirty(flushBatchSize)).isEmpty()) {
+            try {
+                flushed.addAndGet(arbService.persistBatch(batch));
+            } catch (Exception e) {
+                log.warn("Batch flush of {} arbs failed, retrying individually: {}", batch.size(), e.getMessage());
+                flushIndividually(batch);
+            } finally {
+                // Committed or dirty again; until here the arbs could not be evicted
+                arbCache.completeFlush(batch);
+            }
+            if (batch.size() < flushBatchSize) {
+                break;
+            }
+        }
+    }
+
+    private void flushIndividually(List<String> batch) {
+        for (String arbId : batch) {
+            try {
+                flushed.addAndGet(arbService.persistBatch(List.of(arbId)));
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                arbCache.markDirty(arbId);
+                log.error("Flush failed for arbId={}", arbId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushSchedule != null) {
+            flushSchedule.cancel(false);
+        }
+
+        // A cycle still running on the lane drains other arbs, so the two never write the same one
+        flushDirty();
+        log.info("Arb write-behind stopped | flushed={} failed={}", flushed.get(), failed.get());
+    }
+}
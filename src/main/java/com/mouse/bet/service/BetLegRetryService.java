@@ -3,6 +3,7 @@
 //import com.mouse.bet.entity.BetLeg;
 //import com.mouse.bet.enums.BetLegStatus;
 //import com.mouse.bet.enums.BookMaker;
+//import com.mouse.bet.interfaces.BetLegRetryHook;
 //import com.mouse.bet.model.NormalizedEvent;
 //import com.mouse.bet.model.NormalizedMarket;
 //import com.mouse.bet.model.NormalizedOutcome;
@@ -40,7 +41,7 @@
 //@Service
 //@RequiredArgsConstructor
 //@Slf4j
-//public class BetLegRetryService {
+//public class BetLegRetryService implements BetLegRetryHook {
 //
 //    private final BetLegRepository betLegRepository;
 //
@@ -116,6 +117,7 @@
 //     *  2) Enqueues legId to the bookmaker’s ready queue (signal to worker)
 //     */
 //    @Transactional
+//    @Override
 //    public void updateFailedBetLeg(NormalizedEvent event, BookMaker bookMaker) {
 //        if (event == null || bookMaker == null) return;
 //
@@ -0,0 +1,240 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * In-process ranking of arbs that are bettable right now, replacing the database poll.
+ * ArbService pushes a {@link Candidate} on every live update; the candidate enters the ranking the
+ * moment it meets the stability, freshness and profit criteria and leaves the moment it stops.
+ * Freshness also decays with time, so stale heads are dropped when the dispatcher looks.
+ * Waiters are woken by signal as soon as a bettable arb arrives.
+ */
+@Slf4j
+@Component
+public class BettableArbQueue {
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingDouble(Candidate::score).reversed()
+            .thenComparing(Candidate::arbId);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Map<String, Candidate> ranked = new HashMap<>();
+    private final TreeSet<Candidate> ranking = new TreeSet<>(BEST_FIRST);
+
+    @Value("${arb.min.profit:2.0}")
+    private double minProfit = 2.0;
+
+    @Value("${arb.polling.min-session-seconds:2}")
+    private int minSessionSeconds = 2;
+
+    @Value("${arb.polling.max-breaks:2}")
+    private int maxBreaks = 2;
+
+    @Value("${arb.polling.fresh-cutoff-seconds:2}")
+    private int freshCutoffSeconds = 2;
+
+    /**
+     * The fields the bettable criteria and ranking need, captured under the live arb's lock.
+     */
+    public record Candidate(String arbId,
+                            double score,
+                            BigDecimal profitPercentage,
+                            Status status,
+                            boolean active,
+                            Instant lastUpdatedAt,
+                            Long sessionSeconds,
+                            int continuityBreaks,
+                            boolean executableLegs,
+                            Set<BookMaker> bookmakers) {
+
+        public static Candidate of(Arb arb, double score) {
+            BetLeg legA = arb.getLegA().orElse(null);
+            BetLeg legB = arb.getLegB().orElse(null);
+            // Execution pairs exactly two windows; N-way arbs are tracked but not bet yet
+            boolean executable = legA != null && legB != null
+                    && legA.getOdds() != null && legB.getOdds() != null
+                    && arb.getExtraLegs().isEmpty();
+
+            Set<BookMaker> bookmakers = EnumSet.noneOf(BookMaker.class);
+            arb.getLegs().forEach(leg -> {
+                if (leg.getBookmaker() != null) {
+                    bookmakers.add(leg.getBookmaker());
+                }
+            });
+
+            return new Candidate(
+                    arb.getArbId(),
+                    score,
+                    arb.getProfitPercentage(),
+                    arb.getStatus(),
+                    arb.isActive(),
+                    arb.getLastUpdatedAt(),
+                    arb.getCurrentSessionDurationSeconds(),
+                    arb.getContinuityBreakCount() != null ? arb.getContinuityBreakCount() : 0,
+                    executable,
+                    bookmakers);
+        }
+    }
+
+    /**
+     * Re-evaluate an arb after a live update; enters, moves within, or leaves the ranking
+     */
+    public void update(Candidate candidate) {
+        boolean bettable = isBettable(candidate, Instant.now());
+
+        lock.lock();
+        try {
+            Candidate previous = ranked.remove(candidate.arbId());
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            if (bettable) {
+                ranked.put(candidate.arbId(), candidate);
+                ranking.add(candidate);
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (bettable) {
+            log.debug("Bettable arb ranked | ArbId: {} | Score: {}", candidate.arbId(), candidate.score());
+        }
+    }
+
+    public void remove(String arbId) {
+        lock.lock();
+        try {
+            Candidate previous = ranked.remove(arbId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Best bettable arb, waiting up to the timeout for one to arrive. Does not remove it.
+     */
+    public Optional<Candidate> awaitBest(long timeout, TimeUnit unit) throws InterruptedException {
+        return awaitBest(c -> true, timeout, unit);
+    }
+
+    /**
+     * Best bettable arb the filter admits, waiting up to the timeout for one to arrive. Does not remove it.
+     * Ranked arbs the filter turns down stay ranked for a later call.
+     */
+    public Optional<Candidate> awaitBest(Predicate<Candidate> admissible, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (true) {
+                Candidate best = freshBest(Instant.now(), admissible);
+                if (best != null) {
+                    return Optional.of(best);
+                }
+                if (nanos <= 0) {
+                    return Optional.empty();
+                }
+                nanos = available.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Walk the ranking best first, dropping arbs whose odds have gone stale since they were ranked.
+     * Caller holds the lock.
+     */
+    private Candidate freshBest(Instant now, Predicate<Candidate> admissible) {
+        Iterator<Candidate> it = ranking.iterator();
+        while (it.hasNext()) {
+            Candidate candidate = it.next();
+            if (!isFresh(candidate, now)) {
+                it.remove();
+                ranked.remove(candidate.arbId());
+                log.trace("Dropped stale bettable arb | ArbId: {}", candidate.arbId());
+                continue;
+            }
+            if (admissible.test(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBettable(Candidate c, Instant now) {
+        if (!c.active() || c.status() != Status.ACTIVE || !c.executableLegs()) {
+            return false;
+        }
+        if (c.profitPercentage() == null || c.profitPercentage().compareTo(currentMinProfit()) < 0) {
+            return false;
+        }
+        if (c.sessionSeconds() == null || c.sessionSeconds() < minSessionSeconds) {
+            return false;
+        }
+        if (c.continuityBreaks() > maxBreaks) {
+            return false;
+        }
+        return isFresh(c, now);
+    }
+
+    private boolean isFresh(Candidate c, Instant now) {
+        return c.lastUpdatedAt() != null && !c.lastUpdatedAt().isBefore(now.minusSeconds(freshCutoffSeconds));
+    }
+
+    /**
+     * Time-of-day profit floor: stricter at peak hours, looser overnight
+     */
+    BigDecimal currentMinProfit() {
+        LocalTime now = LocalTime.now();
+        BigDecimal baseProfit = BigDecimal.valueOf(minProfit);
+
+        // Peak hours (6PM - 11PM): require higher profit
+        if (now.isAfter(LocalTime.of(18, 0)) && now.isBefore(LocalTime.of(23, 0))) {
+            return baseProfit.multiply(new BigDecimal("1.15"));
+        }
+
+        // Off-peak (1AM - 6AM): accept lower profit
+        if (now.isAfter(LocalTime.of(1, 0)) && now.isBefore(LocalTime.of(6, 0))) {
+            return baseProfit.multiply(new BigDecimal("0.85"));
+        }
+
+        return baseProfit;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.time.Instant;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +24,8 @@ public class ScraperCycleSyncService {
     // Map: cycleId -> SyncState
     private final ConcurrentMap<Long, SyncState> cycles = new ConcurrentHashMap<>();
 
+    private final ReentrantLock cycleLock = new ReentrantLock();
+
     // Minimum time a cycle must live before being consumed when incomplete (prevents storm)
     private static final Duration MIN_CYCLE_LIFETIME = Duration.ofMillis(300);
 
@@ -90,8 +93,13 @@ public class ScraperCycleSyncService {
     /**
      * Force move to next cycle (only used during startup or recovery)
      */
-    public synchronized long forceNewCycle() {
-        return advanceToNextCycle();
+    public long forceNewCycle() {
+        cycleLock.lock();
+        try {
+            return advanceToNextCycle();
+        } finally {
+            cycleLock.unlock();
+        }
     }
 
     private long advanceToNextCycle() {
@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern; // Use Pattern for efficiency
 
 @Slf4j
@@ -32,6 +33,7 @@ public class TeamAliasService {
     private String aliasesPath;
     private volatile Map<String, String> aliasToCanonicalMap = Map.of(); // Initialize to empty immutable map
     private volatile Set<String> allCanonicalNames = Set.of(); // Initialize to empty immutable set
+    private final ReentrantLock reloadLock = new ReentrantLock(); // Held across file I/O, so not a monitor
 
 
 
@@ -49,10 +51,15 @@ public class TeamAliasService {
     }
 
     /** Reload at runtime. */
-    public synchronized void reload() throws IOException {
-        List<TeamAlias> aliases = loadTeamAliases();
-        rebuildMaps(aliases);
-        log.info("Reloaded alias maps: entries={}", aliasToCanonicalMap.size());
+    public void reload() throws IOException {
+        reloadLock.lock();
+        try {
+            List<TeamAlias> aliases = loadTeamAliases();
+            rebuildMaps(aliases);
+            log.info("Reloaded alias maps: entries={}", aliasToCanonicalMap.size());
+        } finally {
+            reloadLock.unlock();
+        }
     }
 
 
@@ -0,0 +1,519 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.entity.Wallet;
+import com.mouse.bet.enums.BetLegStatus;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.SportEnum;
+import com.mouse.bet.enums.Status;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of the warm-state file: a header, a section directory, then the section payloads.
+ * Each section carries its own CRC so a torn or corrupt section is skipped on its own, and sections
+ * can be decoded in parallel straight off the memory mapping. Enums are stored by name so a
+ * reordered enum in a new build still reads back correctly; unknown names read back as null.
+ */
+final class WarmStateCodec {
+
+    static final int MAGIC = 0x41524257; // "ARBW"
+    static final short VERSION = 2;
+
+    static final byte SECTION_ARBS = 1;
+    static final byte SECTION_WALLETS = 2;
+
+    // magic, version, writtenAt, section count
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4;
+    // type, offset, length, crc
+    private static final int DIRECTORY_ENTRY_BYTES = 1 + 4 + 4 + 8;
+
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private WarmStateCodec() {
+    }
+
+    record Section(byte type, ByteBuffer payload) {}
+
+    record Snapshot(long writtenAtMillis, List<Section> sections, int corruptSections) {}
+
+    // ==================== FILE ====================
+
+    /**
+     * Write the sections through a memory mapping of a temp file, then move it over the previous snapshot
+     */
+    static long writeFile(Path path, long writtenAtMillis, List<Section> sections) throws IOException {
+        int offset = HEADER_BYTES + sections.size() * DIRECTORY_ENTRY_BYTES;
+        long total = offset;
+        for (Section section : sections) {
+            total += section.payload().remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Warm state of " + total + " bytes exceeds a single mapping");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            out.putInt(MAGIC);
+            out.putShort(VERSION);
+            out.putLong(writtenAtMillis);
+            out.putInt(sections.size());
+
+            for (Section section : sections) {
+                int length = section.payload().remaining();
+                out.put(section.type());
+                out.putInt(offset);
+                out.putInt(length);
+                out.putLong(crc(section.payload()));
+                offset += length;
+            }
+            for (Section section : sections) {
+                out.put(section.payload().duplicate());
+            }
+            out.force();
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return total;
+    }
+
+    /**
+     * Map the file read-only and return its intact sections as slices of the mapping
+     */
+    static Snapshot readFile(Path path) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IOException("Not a warm state file: " + path);
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported warm state version " + version);
+        }
+        long writtenAt = in.getLong();
+        int count = in.getInt();
+
+        List<Section> sections = new ArrayList<>(count);
+        int corrupt = 0;
+        for (int i = 0; i < count; i++) {
+            byte type = in.get();
+            int offset = in.getInt();
+            int length = in.getInt();
+            long crc = in.getLong();
+
+            if (offset < 0 || length < 0 || (long) offset + length > in.capacity()) {
+                corrupt++;
+                continue;
+            }
+            ByteBuffer payload = in.slice(offset, length);
+            if (crc(payload) != crc) {
+                corrupt++;
+                continue;
+            }
+            sections.add(new Section(type, payload));
+        }
+        return new Snapshot(writtenAt, sections, corrupt);
+    }
+
+    private static long crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return crc.getValue();
+    }
+
+    // ==================== ARBS ====================
+
+    static void writeArb(StateOutput out, Arb arb) {
+        out.putString(arb.getArbId());
+        out.putEnum(arb.getSportEnum());
+        out.putString(arb.getLeague());
+        out.putString(arb.getPeriod());
+        out.putString(arb.getSelectionKey());
+        out.putInstant(arb.getEventStartTime());
+        out.putString(arb.getSetScore());
+        out.putStringList(arb.getGameScore());
+        out.putString(arb.getMatchStatus());
+        out.putString(arb.getPlayedSeconds());
+
+        out.putInstant(arb.getCreatedAt());
+        out.putInstant(arb.getFirstSeenAt());
+        out.putInstant(arb.getLastSeenAt());
+        out.putInstant(arb.getLastUpdatedAt());
+        out.putInstant(arb.getExpiresAt());
+        out.putInteger(arb.getPredictedHoldUpMs());
+
+        out.putEnum(arb.getStatus());
+        out.putBoolean(arb.isActive());
+        out.putBoolean(arb.isShouldBet());
+
+        out.putDouble(arb.getConfidenceScore());
+        out.putDouble(arb.getVolatilitySigma());
+        out.putDouble(arb.getVelocityPctPerSec());
+        out.putDouble(arb.getMeanOddsLegA());
+        out.putDouble(arb.getMeanOddsLegB());
+
+        out.putBigDecimal(arb.getStakeA());
+        out.putBigDecimal(arb.getStakeB());
+        out.putBigDecimal(arb.getProfitPercentage());
+        out.putLongValue(arb.getTotalCumulativeDurationSeconds());
+        out.putInteger(arb.getOddsChangeCount());
+
+        out.putBigDecimal(arb.getMaxOddsLegA());
+        out.putBigDecimal(arb.getMinOddsLegA());
+        out.putBigDecimal(arb.getMaxOddsLegB());
+        out.putBigDecimal(arb.getMinOddsLegB());
+        out.putBigDecimal(arb.getPeakProfitPercentage());
+        out.putInstant(arb.getPeakProfitAt());
+
+        out.putInstant(arb.getLastContinuousUpdateAt());
+        out.putInteger(arb.getContinuityBreakCount());
+        out.putInstant(arb.getCurrentSessionStartedAt());
+
+        out.putInt(arb.getLegs().size());
+        for (BetLeg leg : arb.getLegs()) {
+            writeLeg(out, leg);
+        }
+    }
+
+    static Arb readArb(ByteBuffer in) {
+        Arb arb = Arb.builder()
+                .arbId(getString(in))
+                .sportEnum(getEnum(in, SportEnum.class))
+                .league(getString(in))
+                .period(getString(in))
+                .selectionKey(getString(in))
+                .eventStartTime(getInstant(in))
+                .setScore(getString(in))
+                .gameScore(getStringList(in))
+                .matchStatus(getString(in))
+                .playedSeconds(getString(in))
+                .createdAt(getInstant(in))
+                .firstSeenAt(getInstant(in))
+                .lastSeenAt(getInstant(in))
+                .lastUpdatedAt(getInstant(in))
+                .expiresAt(getInstant(in))
+                .predictedHoldUpMs(getInteger(in))
+                .status(getEnum(in, Status.class))
+                .active(getBoolean(in))
+                .shouldBet(getBoolean(in))
+                .confidenceScore(getDouble(in))
+                .volatilitySigma(getDouble(in))
+                .velocityPctPerSec(getDouble(in))
+                .meanOddsLegA(getDouble(in))
+                .meanOddsLegB(getDouble(in))
+                .stakeA(getBigDecimal(in))
+                .stakeB(getBigDecimal(in))
+                .profitPercentage(getBigDecimal(in))
+                .totalCumulativeDurationSeconds(getLongValue(in))
+                .oddsChangeCount(getInteger(in))
+                .maxOddsLegA(getBigDecimal(in))
+                .minOddsLegA(getBigDecimal(in))
+                .maxOddsLegB(getBigDecimal(in))
+                .minOddsLegB(getBigDecimal(in))
+                .peakProfitPercentage(getBigDecimal(in))
+                .peakProfitAt(getInstant(in))
+                .lastContinuousUpdateAt(getInstant(in))
+                .continuityBreakCount(getInteger(in))
+                .currentSessionStartedAt(getInstant(in))
+                .build();
+
+        if (arb.getStatus() == null) {
+            arb.setStatus(Status.STALE);
+        }
+        if (arb.getOddsChangeCount() == null) {
+            arb.setOddsChangeCount(0);
+        }
+        if (arb.getContinuityBreakCount() == null) {
+            arb.setContinuityBreakCount(0);
+        }
+
+        int legs = in.getInt();
+        for (int i = 0; i < legs; i++) {
+            arb.attachLeg(readLeg(in));
+        }
+        return arb;
+    }
+
+    private static void writeLeg(StateOutput out, BetLeg leg) {
+        out.putString(leg.getBetLegId());
+        out.putEnum(leg.getBookmaker());
+        out.putString(leg.getEventId());
+        out.putString(leg.getNormalEventId());
+        out.putString(leg.getHomeTeam());
+        out.putString(leg.getAwayTeam());
+        out.putString(leg.getLeague());
+        out.putEnum(leg.getSportEnum());
+        out.putBigDecimal(leg.getOdds());
+        out.putBigDecimal(leg.getRawStake());
+        out.putBigDecimal(leg.getStake());
+        out.putBigDecimal(leg.getPotentialPayout());
+        out.putEnum(leg.getStatus());
+        out.putString(leg.getBetId());
+        out.putInstant(leg.getPlacedAt());
+        out.putInstant(leg.getSettledAt());
+        out.putBigDecimal(leg.getActualPayout());
+        out.putString(leg.getErrorMessage());
+        out.putInteger(leg.getAttemptCount());
+        out.putInstant(leg.getLastAttemptAt());
+        out.putBigDecimal(leg.getPlacedOdds());
+        out.putBoolean(leg.isPrimaryLeg());
+        out.putInteger(leg.getLegIndex());
+        out.putString(leg.getMatchStatus());
+        out.putString(leg.getOutcomeDescription());
+        out.putString(leg.getOutcomeId());
+        out.putString(leg.getPeriod());
+        out.putInteger(leg.getCashOutAvailable());
+        out.putBigDecimal(leg.getProfitPercent());
+        out.putString(leg.getProviderMarketName());
+        out.putString(leg.getProviderMarketTitle());
+        out.putBigDecimal(leg.getBalanceBeforeBet());
+        out.putBigDecimal(leg.getBalanceAfterBet());
+        out.putString(leg.getNavigationLink());
+    }
+
+    private static BetLeg readLeg(ByteBuffer in) {
+        BetLeg leg = new BetLeg();
+        leg.setBetLegId(getString(in));
+        leg.setBookmaker(getEnum(in, BookMaker.class));
+        leg.setEventId(getString(in));
+        leg.setNormalEventId(getString(in));
+        leg.setHomeTeam(getString(in));
+        leg.setAwayTeam(getString(in));
+        leg.setLeague(getString(in));
+        leg.setSportEnum(getEnum(in, SportEnum.class));
+        leg.setOdds(getBigDecimal(in));
+        leg.setRawStake(getBigDecimal(in));
+        leg.setStake(getBigDecimal(in));
+        leg.setPotentialPayout(getBigDecimal(in));
+        BetLegStatus status = getEnum(in, BetLegStatus.class);
+        leg.setStatus(status != null ? status : BetLegStatus.PENDING);
+        leg.setBetId(getString(in));
+        leg.setPlacedAt(getInstant(in));
+        leg.setSettledAt(getInstant(in));
+        leg.setActualPayout(getBigDecimal(in));
+        leg.setErrorMessage(getString(in));
+        Integer attempts = getInteger(in);
+        leg.setAttemptCount(attempts != null ? attempts : 0);
+        leg.setLastAttemptAt(getInstant(in));
+        leg.setPlacedOdds(getBigDecimal(in));
+        leg.setPrimaryLeg(getBoolean(in));
+        Integer legIndex = getInteger(in);
+        leg.setLegIndex(legIndex != null ? legIndex : 0);
+        leg.setMatchStatus(getString(in));
+        leg.setOutcomeDescription(getString(in));
+        leg.setOutcomeId(getString(in));
+        leg.setPeriod(getString(in));
+        leg.setCashOutAvailable(getInteger(in));
+        leg.setProfitPercent(getBigDecimal(in));
+        leg.setProviderMarketName(getString(in));
+        leg.setProviderMarketTitle(getString(in));
+        leg.setBalanceBeforeBet(getBigDecimal(in));
+        leg.setBalanceAfterBet(getBigDecimal(in));
+        leg.setNavigationLink(getString(in));
+        return leg;
+    }
+
+    // ==================== WALLETS ====================
+
+    static void writeWallet(StateOutput out, Wallet wallet) {
+        out.putEnum(wallet.getBookmaker());
+        out.putBigDecimal(wallet.getAvailableBalance());
+        out.putBigDecimal(wallet.getTotalDeposited());
+        out.putBigDecimal(wallet.getTotalWithdrawn());
+        out.putInstant(wallet.getLastUpdated());
+    }
+
+    static Wallet readWallet(ByteBuffer in) {
+        return Wallet.builder()
+                .bookmaker(getEnum(in, BookMaker.class))
+                .availableBalance(getBigDecimal(in))
+                .totalDeposited(getBigDecimal(in))
+                .totalWithdrawn(getBigDecimal(in))
+                .lastUpdated(getInstant(in))
+                .build();
+    }
+
+    // ==================== PRIMITIVES ====================
+
+    /**
+     * Growable heap buffer a section is encoded into before it is copied into the mapping
+     */
+    static final class StateOutput {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        void putInt(int value) {
+            ensure(4).putInt(value);
+        }
+
+        void putBoolean(boolean value) {
+            ensure(1).put((byte) (value ? 1 : 0));
+        }
+
+        void putInteger(Integer value) {
+            ensure(5).put((byte) (value != null ? 1 : 0)).putInt(value != null ? value : 0);
+        }
+
+        void putLongValue(Long value) {
+            ensure(9).put((byte) (value != null ? 1 : 0)).putLong(value != null ? value : 0L);
+        }
+
+        void putDouble(Double value) {
+            ensure(9).put((byte) (value != null ? 1 : 0)).putDouble(value != null ? value : 0.0);
+        }
+
+        void putInstant(Instant value) {
+            ensure(8).putLong(value != null ? value.toEpochMilli() : NULL_INSTANT);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length).putInt(bytes.length).put(bytes);
+        }
+
+        void putStringList(List<String> values) {
+            if (values == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(values.size());
+            values.forEach(this::putString);
+        }
+
+        void putEnum(Enum<?> value) {
+            putString(value != null ? value.name() : null);
+        }
+
+        /**
+         * Unscaled long plus scale when it fits, the plain string otherwise
+         */
+        void putBigDecimal(BigDecimal value) {
+            if (value == null) {
+                ensure(1).put((byte) 0);
+            } else if (value.unscaledValue().bitLength() < 64) {
+                ensure(13).put((byte) 1).putLong(value.unscaledValue().longValue()).putInt(value.scale());
+            } else {
+                ensure(1).put((byte) 2);
+                putString(value.toPlainString());
+            }
+        }
+
+        ByteBuffer toPayload() {
+            return buffer.duplicate().flip();
+        }
+
+        int size() {
+            return buffer.position();
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                grown.put(buffer.flip());
+                buffer = grown;
+            }
+            return buffer;
+        }
+    }
+
+    static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    static Integer getInteger(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        int value = in.getInt();
+        return present ? value : null;
+    }
+
+    static Long getLongValue(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        long value = in.getLong();
+        return present ? value : null;
+    }
+
+    static Double getDouble(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        double value = in.getDouble();
+        return present ? value : null;
+    }
+
+    static Instant getInstant(ByteBuffer in) {
+        long millis = in.getLong();
+        return millis == NULL_INSTANT ? null : Instant.ofEpochMilli(millis);
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static List<String> getStringList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(getString(in));
+        }
+        return values;
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer in, Class<E> type) {
+        String name = getString(in);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static BigDecimal getBigDecimal(ByteBuffer in) {
+        byte kind = in.get();
+        if (kind == 0) {
+            return null;
+        }
+        if (kind == 1) {
+            long unscaled = in.getLong();
+            return new BigDecimal(BigInteger.valueOf(unscaled), in.getInt());
+        }
+        return new BigDecimal(getString(in));
+    }
+}
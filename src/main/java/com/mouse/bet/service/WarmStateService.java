@@ -0,0 +1,265 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.cache.ArbCache;
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.Wallet;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.Status;
+import com.mouse.bet.repository.WalletRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Warm restart for the live store. Live arbs (with their continuity sessions and odds ranges) and
+ * wallets are written periodically and on shutdown to a binary snapshot through a memory mapping,
+ * and mapped back on startup before the fetchers begin, so detection resumes on existing sessions
+ * instead of rebuilding them from scratch. The database stays the durable trail; the snapshot only
+ * shortens the time back to a warm state. Sections are decoded on the {@link Lane#PARSE} lane and
+ * snapshots written on the {@link Lane#PERSIST} lane.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarmStateService {
+
+    private static final int ARBS_PER_SECTION = 1024;
+    private static final Set<Status> RESTORABLE = EnumSet.of(Status.ACTIVE, Status.STALE);
+
+    private final ArbCache arbCache;
+    private final ArbExpiryService expiryService;
+    private final ArbService arbService;
+    private final WalletRepository walletRepository;
+    private final ExecutionLanes executionLanes;
+    private final MeterRegistry meterRegistry;
+
+    private ScheduledFuture<?> writeSchedule;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong lastBytes = new AtomicLong();
+    private final AtomicInteger restoredArbs = new AtomicInteger();
+
+    // Set once the previous snapshot has been loaded; until then a write would overwrite it with an empty store
+    private volatile boolean started;
+
+    @Value("${arb.warm-state.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${arb.warm-state.path:./data/warm-state.bin}")
+    private String path = "./data/warm-state.bin";
+
+    @Value("${arb.warm-state.interval-seconds:30}")
+    private long intervalSeconds = 30;
+
+    // Arbs in an older snapshot would all be idle already, so only wallets are restored from it
+    @Value("${arb.warm-state.max-age-seconds:300}")
+    private long maxAgeSeconds = 300;
+
+    /**
+     * Runs on ApplicationStartedEvent, ahead of the ApplicationReadyEvent that starts the fetchers
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Warm state disabled");
+            return;
+        }
+
+        Gauge.builder("arb.warm-state.bytes", lastBytes, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("arb.warm-state.restored", restoredArbs, AtomicInteger::get).register(meterRegistry);
+        FunctionCounter.builder("arb.warm-state.written", written, AtomicLong::get).register(meterRegistry);
+
+        restore();
+        started = true;
+        writeSchedule = executionLanes.scheduleAtFixedRate(Lane.PERSIST, this::writeSafely,
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // ==================== RESTORE ====================
+
+    void restore() {
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            log.info("No warm state at {}, starting cold", file);
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        WarmStateCodec.Snapshot snapshot;
+        try {
+            snapshot = WarmStateCodec.readFile(file);
+        } catch (Exception e) {
+            log.warn("⚠️ Warm state at {} unreadable, starting cold: {}", file, e.getMessage());
+            return;
+        }
+        if (snapshot.corruptSections() > 0) {
+            log.warn("⚠️ Skipping {} corrupt warm state sections", snapshot.corruptSections());
+        }
+
+        long ageSeconds = (System.currentTimeMillis() - snapshot.writtenAtMillis()) / 1000;
+        boolean arbsUsable = ageSeconds <= maxAgeSeconds;
+        Queue<Wallet> wallets = new ConcurrentLinkedQueue<>();
+
+        Executor loader = executionLanes.executor(Lane.PARSE);
+        try {
+            CompletableFuture.allOf(snapshot.sections().stream()
+                    .map(section -> CompletableFuture.runAsync(() -> {
+                        if (section.type() == WarmStateCodec.SECTION_ARBS && arbsUsable) {
+                            restoreArbs(section.payload());
+                        } else if (section.type() == WarmStateCodec.SECTION_WALLETS) {
+                            wallets.addAll(decodeWallets(section.payload()));
+                        }
+                    }, loader))
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (Exception e) {
+            log.warn("⚠️ Warm state partially restored: {}", e.getMessage());
+        }
+
+        int walletsRestored = restoreMissingWallets(wallets);
+        log.info("♻️ Warm state restored in {}ms | arbs={} wallets={} age={}s{}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), restoredArbs.get(), walletsRestored,
+                ageSeconds, arbsUsable ? "" : " (arbs too old, skipped)");
+    }
+
+    /**
+     * Live arbs win over restored ones; a restored arb is marked dirty so its trail is rewritten,
+     * and an active one is ranked again so it can be bet without waiting for its next detection
+     */
+    private void restoreArbs(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            Arb restored = WarmStateCodec.readArb(in);
+            if (!restored.isActive() || !RESTORABLE.contains(restored.getStatus())) {
+                continue;
+            }
+            arbCache.update(restored.getArbId(), existing -> {
+                if (existing != null) {
+                    return existing;
+                }
+                if (restored.getStatus() == Status.ACTIVE) {
+                    arbService.rank(restored);
+                }
+                expiryService.track(restored);
+                restoredArbs.incrementAndGet();
+                return restored;
+            });
+        }
+    }
+
+    private static List<Wallet> decodeWallets(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        int count = in.getInt();
+        List<Wallet> wallets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            wallets.add(WarmStateCodec.readWallet(in));
+        }
+        return wallets;
+    }
+
+    /**
+     * Wallet rows are authoritative; the snapshot only fills in bookmakers the database has lost
+     */
+    private int restoreMissingWallets(Queue<Wallet> wallets) {
+        if (wallets.isEmpty()) {
+            return 0;
+        }
+        Set<BookMaker> known = walletRepository.findAll().stream()
+                .map(Wallet::getBookmaker)
+                .collect(Collectors.toSet());
+        List<Wallet> missing = wallets.stream()
+                .filter(w -> w.getBookmaker() != null && !known.contains(w.getBookmaker()))
+                .toList();
+        if (!missing.isEmpty()) {
+            walletRepository.saveAll(missing);
+        }
+        return missing.size();
+    }
+
+    // ==================== WRITE ====================
+
+    private void writeSafely() {
+        try {
+            write();
+        } catch (Exception e) {
+            log.error("Warm state write failed", e);
+        }
+    }
+
+    // Synchronized so the shutdown write cannot overlap one still running on the lane
+    synchronized void write() throws Exception {
+        List<WarmStateCodec.Section> sections = new ArrayList<>();
+
+        List<String> arbIds = arbCache.values().stream().map(Arb::getArbId).toList();
+        for (int from = 0; from < arbIds.size(); from += ARBS_PER_SECTION) {
+            List<String> chunk = arbIds.subList(from, Math.min(from + ARBS_PER_SECTION, arbIds.size()));
+            WarmStateCodec.StateOutput out = new WarmStateCodec.StateOutput();
+            out.putInt(0);
+            int count = 0;
+            for (String arbId : chunk) {
+                // Encoded under the arb's lock so a half-applied update is never captured
+                boolean encoded = arbCache.read(arbId, live -> {
+                    if (!live.isActive() || !RESTORABLE.contains(live.getStatus())) {
+                        return false;
+                    }
+                    WarmStateCodec.writeArb(out, live);
+                    return true;
+                }).orElse(false);
+                if (encoded) {
+                    count++;
+                }
+            }
+            ByteBuffer payload = out.toPayload();
+            payload.putInt(0, count);
+            sections.add(new WarmStateCodec.Section(WarmStateCodec.SECTION_ARBS, payload));
+        }
+
+        List<Wallet> wallets = walletRepository.findAll();
+        WarmStateCodec.StateOutput walletOut = new WarmStateCodec.StateOutput();
+        walletOut.putInt(wallets.size());
+        wallets.forEach(w -> WarmStateCodec.writeWallet(walletOut, w));
+        sections.add(new WarmStateCodec.Section(WarmStateCodec.SECTION_WALLETS, walletOut.toPayload()));
+
+        lastBytes.set(WarmStateCodec.writeFile(Path.of(path), System.currentTimeMillis(), sections));
+        written.incrementAndGet();
+        log.debug("Warm state written | arbs={} wallets={} bytes={}", arbIds.size(), wallets.size(), lastBytes.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeSchedule != null) {
+            writeSchedule.cancel(false);
+        }
+
+        if (enabled && started) {
+            writeSafely();
+            log.info("Warm state saved to {} | bytes={}", path, lastBytes.get());
+        }
+    }
+}
@@ -10,12 +10,15 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Phaser;
 
 /**
  * A unit of work for a particular bookmaker: executes a single BetLeg with retry logic.
  * Arrives at the Phaser ONLY when completely finished (success or retries exhausted).
+ * Carries the deadline after which the Arb's odds are too old to act on; an expired task is
+ * never executed but still settles its part of the barrier.
  */
 @Slf4j
 @Builder
@@ -30,5 +33,22 @@ public class LegTask  {
     private final Duration retryBackoff;
     private final Phaser barrier;
     private final ConcurrentMap<BookMaker, LegResult> results;
+    private final Instant deadline;
 
+    public boolean isExpired(Instant now) {
+        return deadline != null && now.isAfter(deadline);
+    }
+
+    /**
+     * Settle a task that was dropped before execution: record the leg as failed and leave the barrier
+     */
+    public void expire() {
+        log.info("Leg task expired before pickup | ArbId: {} | Bookmaker: {} | Deadline: {}", arbId, bookmaker, deadline);
+        if (results != null) {
+            results.putIfAbsent(bookmaker, LegResult.failed("Expired before pickup"));
+        }
+        if (barrier != null) {
+            barrier.arriveAndDeregister();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.mouse.bet.tasks;
 
+import com.mouse.bet.config.ExecutionLanes;
 import com.mouse.bet.config.ScraperConfig;
 import com.mouse.bet.window.MSportWindow;
 import com.mouse.bet.window.SportyWindow;
@@ -31,18 +32,23 @@ public class Player implements ApplicationListener<ApplicationReadyEvent> {
     private final MSportOddsFetcher mSportOddsFetcher;
     private final SportyWindow sportyWindow;
     private final MSportWindow mSportWindow;
+    private final ExecutionLanes executionLanes;
 
 
     public Player(ScraperConfig scraperConfig,
                   SportyBetOddsFetcher sportyBetOddsFetcher,
 //                  Bet9jaOddsFetcher bet9jaOddsFetcher,
-                  MSportOddsFetcher mSportOddsFetcher, SportyWindow sportyWindow, MSportWindow mSportWindow) {
+                  MSportOddsFetcher mSportOddsFetcher, SportyWindow sportyWindow, MSportWindow mSportWindow,
+                  ExecutionLanes executionLanes) {
         this.scraperConfig = scraperConfig;
         this.sportyBetOddsFetcher = sportyBetOddsFetcher;
 //        this.bet9jaOddsFetcher = bet9jaOddsFetcher;
         this.mSportOddsFetcher = mSportOddsFetcher;
         this.sportyWindow = sportyWindow;
         this.mSportWindow = mSportWindow;
+        this.executionLanes = executionLanes;
+        this.orchestratorExecutor = executionLanes.blockingExecutor(
+                executionLanes.blockingThreadFactory("scraper-orchestrator", false), SUPERVISOR_THREADS);
     }
 
 
@@ -52,30 +58,14 @@ public class Player implements ApplicationListener<ApplicationReadyEvent> {
     private static final long HEALTH_CHECK_DELAY_INTERVAL_SEC = 100;
     private static final long RESTART_DELAY_SEC = 60;
     private static final int MAX_RESTART_ATTEMPTS = 3;
+    // One supervisor per fetcher (ignored on virtual threads); the fetch work itself runs on the shared ExecutionLanes
+    private static final int SUPERVISOR_THREADS = 2;
 
     // ==================== STATE TRACKING ====================
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
-    private final ExecutorService orchestratorExecutor = Executors.newCachedThreadPool(
-            new ThreadFactory() {
-                private final AtomicInteger counter = new AtomicInteger(0);
-                @Override
-                public Thread newThread(Runnable r) {
-                    Thread t = new Thread(r);
-                    t.setName("scraper-orchestrator-" + counter.incrementAndGet());
-                    t.setDaemon(false);
-                    return t;
-                }
-            }
-    );
-
-    private final ScheduledExecutorService healthMonitor = Executors.newSingleThreadScheduledExecutor(
-            r -> {
-                Thread t = new Thread(r);
-                t.setName("scraper-health-monitor");
-                t.setDaemon(true);
-                return t;
-            }
-    );
+    private final ExecutorService orchestratorExecutor;
+
+    private volatile ScheduledFuture<?> healthCheck;
 
     private final List<ScraperTask> activeTasks = new CopyOnWriteArrayList<>();
 
@@ -248,7 +238,7 @@ public class Player implements ApplicationListener<ApplicationReadyEvent> {
     private void startHealthMonitoring() {
         log.info("Starting health monitoring (interval: {}s)", HEALTH_CHECK_INTERVAL_SEC);
 
-        healthMonitor.scheduleAtFixedRate(() -> {
+        healthCheck = executionLanes.scheduler().scheduleAtFixedRate(() -> {
             try {
                 checkScraperHealth();
             } catch (Exception e) {
@@ -362,7 +352,9 @@ public class Player implements ApplicationListener<ApplicationReadyEvent> {
 
         // Stop health monitoring
         log.info("Stopping health monitor...");
-        healthMonitor.shutdownNow();
+        if (healthCheck != null) {
+            healthCheck.cancel(false);
+        }
 
         // Shutdown all scrapers gracefully
         log.info("Shutting down {} active scrapers...", activeTasks.size());
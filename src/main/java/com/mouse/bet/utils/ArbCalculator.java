@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
@@ -22,6 +24,13 @@ public class ArbCalculator {
     private static final BigDecimal STEP_100 = new BigDecimal("100");
     // High precision; no final setScale applied.
     private static final MathContext MC = new MathContext(34, RoundingMode.HALF_EVEN);
+    // Odds are screened as integers in thousandths (1.85 -> 1850)
+    public static final int MILLI_ODDS_SCALE = 1000;
+    // Slack in basis points so the screen never rejects what the 4dp BigDecimal check would accept
+    private static final long SCREEN_TOLERANCE_BP = 5;
+    // Implied probability of 1.0 expressed in parts per million
+    public static final long IMPLIED_PPM_ONE = 1_000_000L;
+
 
 
 
@@ -76,6 +85,98 @@ public class ArbCalculator {
         return profitPercentage;
     }
 
+    /**
+     * Convert decimal odds to milli-odds for the primitive screening path.
+     * Returns 0 for null or non-positive odds, which never passes the screen.
+     */
+    public static int toMilliOdds(BigDecimal odds) {
+        if (odds == null || odds.signum() <= 0) {
+            return 0;
+        }
+        return (int) Math.round(odds.doubleValue() * MILLI_ODDS_SCALE);
+    }
+
+    /**
+     * Allocation-free pre-check for a 2-way arb on milli-odds.
+     * 1/a + 1/b < 1 is rearranged to SCALE * (a + b) < a * b so only long multiplication is needed.
+     * Pairs that pass still go through the full BigDecimal check before an Arb is built.
+     */
+    public static boolean passesArbScreen(int milliOddsA, int milliOddsB) {
+        if (milliOddsA <= MILLI_ODDS_SCALE || milliOddsB <= MILLI_ODDS_SCALE) {
+            return false;
+        }
+        long lhs = (long) MILLI_ODDS_SCALE * (milliOddsA + milliOddsB) * 10_000L;
+        long rhs = (long) milliOddsA * milliOddsB * (10_000L + SCREEN_TOLERANCE_BP);
+        return lhs < rhs;
+    }
+
+    /**
+     * Implied probability of milli-odds in parts per million, rounded down.
+     * Summing these across N outcomes gives an allocation-free N-way screen.
+     */
+    public static long impliedPpm(int milliOdds) {
+        if (milliOdds <= 0) {
+            return IMPLIED_PPM_ONE;
+        }
+        return (IMPLIED_PPM_ONE * MILLI_ODDS_SCALE) / milliOdds;
+    }
+
+    /**
+     * N-way counterpart of {@link #passesArbScreen(int, int)} on a precomputed implied-probability sum.
+     */
+    public static boolean passesArbScreen(long impliedPpmSum) {
+        return impliedPpmSum * 10_000L < IMPLIED_PPM_ONE * (10_000L + SCREEN_TOLERANCE_BP);
+    }
+
+    /**
+     * Calculate the arbitrage percentage for N outcomes
+     * Formula: Arbitrage % = (1/odds1 + 1/odds2 + ... + 1/oddsN) * 100
+     *
+     * @param odds odds for every leg of the market
+     * @return arbitrage percentage (< 100 means profit opportunity)
+     */
+    public static BigDecimal calculateArbitragePercentage(List<BigDecimal> odds) {
+        if (odds == null || odds.isEmpty()) {
+            return BigDecimal.valueOf(100);
+        }
+
+        BigDecimal implied = BigDecimal.ZERO;
+        for (BigDecimal o : odds) {
+            if (o == null || o.compareTo(BigDecimal.ZERO) <= 0) {
+                log.warn("Invalid odds for arbitrage calculation: {}", odds);
+                return BigDecimal.valueOf(100);
+            }
+            implied = implied.add(BigDecimal.ONE.divide(o, 6, RoundingMode.HALF_UP));
+        }
+
+        BigDecimal arbPercentage = implied.multiply(BigDecimal.valueOf(100))
+                .setScale(4, RoundingMode.HALF_UP);
+
+        log.debug("Calculated {}-way arbitrage percentage: {}% from odds: {}", odds.size(), arbPercentage, odds);
+        return arbPercentage;
+    }
+
+    /**
+     * Split the total stake across N legs so every outcome returns the same payout.
+     * stake_i = totalStake * (1/odds_i) / sum(1/odds_j); for two legs this matches
+     * {@link #stakeForBookieA} and {@link #stakeForBookieB}.
+     */
+    public static List<BigDecimal> stakesForLegs(List<BigDecimal> odds, BigDecimal totalStake) {
+        BigDecimal implied = BigDecimal.ZERO;
+        List<BigDecimal> inverses = new ArrayList<>(odds.size());
+        for (BigDecimal o : odds) {
+            BigDecimal inverse = BigDecimal.ONE.divide(o, MC);
+            inverses.add(inverse);
+            implied = implied.add(inverse, MC);
+        }
+
+        List<BigDecimal> stakes = new ArrayList<>(odds.size());
+        for (BigDecimal inverse : inverses) {
+            stakes.add(totalStake.multiply(inverse, MC).divide(implied, MC));
+        }
+        return stakes;
+    }
+
     public static BigDecimal stakeForBookieA(BigDecimal oddsA, BigDecimal oddsB, BigDecimal totalStake) {
         BigDecimal denom = oddsA.add(oddsB, MC);
         return totalStake.multiply(oddsB, MC).divide(denom, MC);
@@ -208,6 +208,129 @@ public class ArbFactory {
         return opportunities;
     }
 
+    /**
+     * Evaluate a single opposite-outcome pair handed over by the incremental odds book
+     */
+    public Optional<Arb> createIfArbitrage(MarketCategory category,
+                                           NormalizedOutcome mainOutcome,
+                                           NormalizedOutcome oppositeOutcome) {
+        if (mainOutcome.getBookmaker() == oppositeOutcome.getBookmaker()
+                || !isArbitrage(mainOutcome.getOdds(), oppositeOutcome.getOdds())) {
+            return Optional.empty();
+        }
+
+        Arb arb = createArb(category, mainOutcome, oppositeOutcome);
+        log.info("{} {} ARB CREATED {} | Event: '{}' | [{} @ {} ({})] {} [{} @ {} ({})] | Profit: {}% {} | Status: {}",
+                EMOJI_SUCCESS, EMOJI_MONEY, EMOJI_SUCCESS,
+                mainOutcome.getEventName(),
+                mainOutcome.getMarketType(),
+                mainOutcome.getOdds(),
+                mainOutcome.getBookmaker(),
+                EMOJI_VS,
+                oppositeOutcome.getMarketType(),
+                oppositeOutcome.getOdds(),
+                oppositeOutcome.getBookmaker(),
+                arb.getProfitPercentage(),
+                EMOJI_CHART,
+                arb.getStatus());
+        return Optional.of(arb);
+    }
+
+    /**
+     * Evaluate an N-way outcome group. Two-leg groups go through the regular pair path so they stay
+     * executable; three or more legs are checked with one linear pass over the implied probabilities.
+     */
+    public Optional<Arb> createIfArbitrage(MarketCategory category,
+                                           OutcomeGroup group,
+                                           List<NormalizedOutcome> outcomes) {
+        if (group == null || outcomes.size() == 2) {
+            return createIfArbitrage(category, outcomes.get(0), outcomes.get(1));
+        }
+
+        List<BigDecimal> odds = outcomes.stream().map(NormalizedOutcome::getOdds).toList();
+        BigDecimal arbPercent = ArbCalculator.calculateArbitragePercentage(odds);
+        if (arbPercent.compareTo(BigDecimal.valueOf(100)) >= 0) {
+            log.trace("{} No {}-way arbitrage for {}: {}% | odds={}",
+                    EMOJI_FAIL, outcomes.size(), group, arbPercent, odds);
+            return Optional.empty();
+        }
+
+        Arb arb = createMultiWayArb(category, group, outcomes, odds, arbPercent);
+        log.info("{} {} {}-WAY ARB CREATED {} | Event: '{}' | Group: {} | Legs: {} | Profit: {}% {} | Status: {}",
+                EMOJI_SUCCESS, EMOJI_MONEY, outcomes.size(), EMOJI_SUCCESS,
+                outcomes.get(0).getEventName(),
+                group,
+                outcomes.stream().map(o -> o.getMarketType() + "@" + o.getOdds() + "(" + o.getBookmaker() + ")").toList(),
+                arb.getProfitPercentage(),
+                EMOJI_CHART,
+                arb.getStatus());
+        return Optional.of(arb);
+    }
+
+    /**
+     * Create an N-leg Arb; stakes are split so every outcome pays the same
+     */
+    private Arb createMultiWayArb(MarketCategory category,
+                                  OutcomeGroup group,
+                                  List<NormalizedOutcome> outcomes,
+                                  List<BigDecimal> odds,
+                                  BigDecimal arbPercent) {
+        NormalizedOutcome first = outcomes.get(0);
+        String eventId = first.getNormalEventId();
+        String arbId = eventId + group.name();
+        Instant now = Instant.now();
+        BigDecimal profit = ArbCalculator.calculateProfitPercentage(arbPercent);
+        List<BigDecimal> rawStakes = ArbCalculator.stakesForLegs(odds, arbConfig.getTOTAL_STAKE());
+
+        // A bookmaker can carry several legs of the same group
+        Map<BookMaker, BigDecimal> stakeByBookmaker = new EnumMap<>(BookMaker.class);
+        for (int i = 0; i < outcomes.size(); i++) {
+            stakeByBookmaker.merge(outcomes.get(i).getBookmaker(), rawStakes.get(i), BigDecimal::add);
+        }
+        boolean canAfford = stakeByBookmaker.entrySet().stream()
+                .allMatch(e -> walletService.canAfford(e.getKey(), e.getValue()));
+
+        log.debug("{} Creating {}-way arb | EventId: {} | Category: {} | Group: {} | Stakes: {} | Profit: {}%",
+                EMOJI_TARGET, outcomes.size(), eventId, category, group, stakeByBookmaker, profit);
+
+        List<BetLeg> legs = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            BigDecimal raw = rawStakes.get(i);
+            BetLeg leg = ModelConverter.fromOutcome(outcomes.get(i), ArbCalculator.roundStakeForAntiDetection(raw), raw, i);
+            // Same outcome can sit in several groups, so scope the leg id to this arb
+            leg.setBetLegId(arbId + "#" + i);
+            legs.add(leg);
+        }
+
+        if (!canAfford) {
+            log.warn("{} {} INSUFFICIENT FUNDS | {}-way | Stakes: {}",
+                    EMOJI_WARNING, EMOJI_WALLET, outcomes.size(), stakeByBookmaker);
+        }
+
+        Arb newArb = Arb.builder()
+                .sportEnum(first.getSportEnum())
+                .league(first.getLeague())
+                .arbId(arbId)
+                .period(first.getPeriod())
+                .status(canAfford ? Status.ACTIVE : Status.INSUFFICIENT_BALANCE)
+                .eventStartTime(Instant.ofEpochMilli(first.getEventStartTime()))
+                .setScore(first.getSetScore())
+                .gameScore(first.getGameScore())
+                .matchStatus(first.getMatchStatus())
+                .playedSeconds(first.getPlayedSeconds())
+                .createdAt(now)
+                .lastUpdatedAt(now)
+                .stakeA(rawStakes.get(0))
+                .stakeB(rawStakes.get(1))
+                .legs(legs)
+                .profitPercentage(profit)
+                .shouldBet(false) // execution only pairs two windows for now
+                .build();
+        legs.forEach(leg -> leg.setArb(newArb));
+
+        return newArb;
+    }
+
     /**
      * Create an Arb entity from matched outcomes
      */
@@ -283,6 +406,11 @@ public class ArbFactory {
      * Check if two odds form an arbitrage opportunity
      */
     private boolean isArbitrage(BigDecimal oddsA, BigDecimal oddsB) {
+        if (!ArbCalculator.passesArbScreen(ArbCalculator.toMilliOdds(oddsA), ArbCalculator.toMilliOdds(oddsB))) {
+            log.trace("{} isArbitrage: oddsA={} oddsB={} rejected by milli-odds screen", EMOJI_SKIP, oddsA, oddsB);
+            return false;
+        }
+
         BigDecimal totalImpliedProbability = BigDecimal.ONE.divide(oddsA, 4, RoundingMode.HALF_UP)
                 .add(BigDecimal.ONE.divide(oddsB, 4, RoundingMode.HALF_UP));
         boolean isArb = totalImpliedProbability.compareTo(BigDecimal.ONE) < 0;
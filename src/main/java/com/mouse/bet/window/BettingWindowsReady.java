@@ -0,0 +1,22 @@
+package com.mouse.bet.window;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * True while both betting windows are up; odds fetched before then have nowhere to be bet
+ */
+@Component
+@RequiredArgsConstructor
+public class BettingWindowsReady implements BooleanSupplier {
+
+    private final MSportWindow mSportWindow;
+    private final SportyWindow sportyWindow;
+
+    @Override
+    public boolean getAsBoolean() {
+        return sportyWindow.isWindowUpAndRunning() && mSportWindow.isWindowUpAndRunning();
+    }
+}
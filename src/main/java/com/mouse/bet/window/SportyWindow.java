@@ -198,7 +198,7 @@ public class SportyWindow implements BettingWindow, Runnable {
             // ========================================
             // STEP 1: REGISTER INTENT (with odds)
             // ========================================
-            boolean intentRegistered = syncManager.registerIntent(arbId, BOOK_MAKER, myOdds.doubleValue());
+            boolean intentRegistered = syncManager.registerIntent(arbId, BOOK_MAKER, myOdds.doubleValue(), task.getArb().getLegs().size());
             if (!intentRegistered) {
                 flowLogger.logArbCancelledDuringIntent(arbId, BOOK_MAKER);
                 return;
@@ -913,7 +913,7 @@ public class SportyWindow implements BettingWindow, Runnable {
                 }
 
                 // Poll for available Leg task
-                 LegTask task = arbOrchestrator.getWorkerQueues().get(BOOK_MAKER).poll();
+                 LegTask task = arbOrchestrator.nextTask(BOOK_MAKER);
 
 //                LegTask task = mockTaskSupplier.poll();
 
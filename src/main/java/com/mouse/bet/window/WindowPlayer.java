@@ -1,5 +1,6 @@
 package com.mouse.bet.window;
 
+import com.mouse.bet.config.ExecutionLanes;
 import com.mouse.bet.enums.BookMaker;
 import com.mouse.bet.manager.WindowSyncManager;
 import jakarta.annotation.PostConstruct;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages parallel execution of MSport and Sporty betting windows
@@ -32,8 +34,11 @@ public class WindowPlayer {
     private final MSportWindow mSportWindow;
     private final SportyWindow sportyWindow;
     private final WindowSyncManager syncManager;
+    private final ExecutionLanes executionLanes;
 
     private ExecutorService executorService;
+    // Start, stop and restart sleep and wait on the windows, so they hold a lock that does not pin virtual threads
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
     private final List<Future<?>> runningTasks = new CopyOnWriteArrayList<>();
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
     private final AtomicBoolean isShuttingDown = new AtomicBoolean(false);
@@ -51,23 +56,17 @@ public class WindowPlayer {
     public void init() {
         log.info("{} {} Initializing WindowPlayer...", EMOJI_INIT, EMOJI_WINDOW);
 
-        // Create thread pool with 2 threads (one for each window)
-        executorService = Executors.newFixedThreadPool(3, new ThreadFactory() {
-            private int counter = 0;
-
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread thread = new Thread(r);
-                thread.setName("BettingWindow-" + (++counter));
-                thread.setDaemon(false); // Non-daemon to keep app alive
-                thread.setUncaughtExceptionHandler((t, e) -> {
-                    log.error("{} {} Uncaught exception in thread {}: {}",
-                            EMOJI_ERROR, EMOJI_WINDOW, t.getName(), e.getMessage(), e);
-                    handleWindowCrash(t.getName(), e);
-                });
-                return thread;
-            }
-        });
+        // Create thread pool with 2 threads (one for each window); one virtual thread per window in virtual-thread mode
+        ThreadFactory windowThreads = executionLanes.blockingThreadFactory("BettingWindow", false); // Non-daemon to keep app alive
+        executorService = executionLanes.blockingExecutor(r -> {
+            Thread thread = windowThreads.newThread(r);
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                log.error("{} {} Uncaught exception in thread {}: {}",
+                        EMOJI_ERROR, EMOJI_WINDOW, t.getName(), e.getMessage(), e);
+                handleWindowCrash(t.getName(), e);
+            });
+            return thread;
+        }, 3);
 
         log.info("{} {} WindowPlayer initialized with 2-thread executor",
                 EMOJI_SUCCESS, EMOJI_WINDOW);
@@ -80,67 +79,72 @@ public class WindowPlayer {
     /**
      * Start both betting windows in parallel
      */
-    public synchronized void startWindows() {
-        if (isRunning.get()) {
-            log.warn("{} {} Windows are already running", EMOJI_WARNING, EMOJI_WINDOW);
-            return;
-        }
-
-        if (isShuttingDown.get()) {
-            log.warn("{} {} Cannot start - shutdown in progress", EMOJI_WARNING, EMOJI_SHUTDOWN);
-            return;
-        }
+    public void startWindows() {
+        lifecycleLock.lock();
+        try {
+            if (isRunning.get()) {
+                log.warn("{} {} Windows are already running", EMOJI_WARNING, EMOJI_WINDOW);
+                return;
+            }
 
-        log.info("{} {} Starting both betting windows in parallel...",
-                EMOJI_INIT, EMOJI_WINDOW);
+            if (isShuttingDown.get()) {
+                log.warn("{} {} Cannot start - shutdown in progress", EMOJI_WARNING, EMOJI_SHUTDOWN);
+                return;
+            }
 
-        isRunning.set(true);
+            log.info("{} {} Starting both betting windows in parallel...",
+                    EMOJI_INIT, EMOJI_WINDOW);
 
-        try {
-
-            // Submit MSport window
-            Future<?> mSportFuture = executorService.submit(() -> {
-                try {
-                    log.info("{} {} window thread started", EMOJI_SUCCESS, BookMaker.M_SPORT);
-                    mSportWindow.run();
-                    log.info("{} {} window thread completed", EMOJI_SUCCESS, BookMaker.M_SPORT);
-                } catch (Exception e) {
-                    log.error("{} {} window crashed: {}",
-                            EMOJI_ERROR, BookMaker.M_SPORT, e.getMessage(), e);
-                    throw new RuntimeException("MSport window failed", e);
-                }
-            });
-            runningTasks.add(mSportFuture);
-            log.info("{} window submitted to executor", BookMaker.M_SPORT);
+            isRunning.set(true);
 
-            // Small delay to stagger startup
-            Thread.sleep(10000);
+            try {
 
-//             Submit Sporty window
-            Future<?> sportyFuture = executorService.submit(() -> {
-                try {
-                    log.info("{} {} window thread started", EMOJI_SUCCESS, BookMaker.SPORTY_BET);
-                    sportyWindow.run();
-                    log.info("{} {} window thread completed", EMOJI_SUCCESS, BookMaker.SPORTY_BET);
-                } catch (Exception e) {
-                    log.error("{} {} window crashed: {}",
-                            EMOJI_ERROR, BookMaker.SPORTY_BET, e.getMessage(), e);
-                    throw new RuntimeException("Sporty window failed", e);
-                }
-            });
-            runningTasks.add(sportyFuture);
-            log.info("{} window submitted to executor", BookMaker.SPORTY_BET);
+                // Submit MSport window
+                Future<?> mSportFuture = executorService.submit(() -> {
+                    try {
+                        log.info("{} {} window thread started", EMOJI_SUCCESS, BookMaker.M_SPORT);
+                        mSportWindow.run();
+                        log.info("{} {} window thread completed", EMOJI_SUCCESS, BookMaker.M_SPORT);
+                    } catch (Exception e) {
+                        log.error("{} {} window crashed: {}",
+                                EMOJI_ERROR, BookMaker.M_SPORT, e.getMessage(), e);
+                        throw new RuntimeException("MSport window failed", e);
+                    }
+                });
+                runningTasks.add(mSportFuture);
+                log.info("{} window submitted to executor", BookMaker.M_SPORT);
+
+                // Small delay to stagger startup
+                Thread.sleep(10000);
+
+    //             Submit Sporty window
+                Future<?> sportyFuture = executorService.submit(() -> {
+                    try {
+                        log.info("{} {} window thread started", EMOJI_SUCCESS, BookMaker.SPORTY_BET);
+                        sportyWindow.run();
+                        log.info("{} {} window thread completed", EMOJI_SUCCESS, BookMaker.SPORTY_BET);
+                    } catch (Exception e) {
+                        log.error("{} {} window crashed: {}",
+                                EMOJI_ERROR, BookMaker.SPORTY_BET, e.getMessage(), e);
+                        throw new RuntimeException("Sporty window failed", e);
+                    }
+                });
+                runningTasks.add(sportyFuture);
+                log.info("{} window submitted to executor", BookMaker.SPORTY_BET);
 
-            log.info("{} {} Both windows started successfully", EMOJI_SUCCESS, EMOJI_WINDOW);
+                log.info("{} {} Both windows started successfully", EMOJI_SUCCESS, EMOJI_WINDOW);
 
-            // Monitor windows in background
-            monitorWindows();
+                // Monitor windows in background
+                monitorWindows();
 
-        } catch (Exception e) {
-            log.error("{} {} Failed to start windows: {}",
-                    EMOJI_ERROR, EMOJI_WINDOW, e.getMessage(), e);
-            isRunning.set(false);
-            throw new RuntimeException("Failed to start betting windows", e);
+            } catch (Exception e) {
+                log.error("{} {} Failed to start windows: {}",
+                        EMOJI_ERROR, EMOJI_WINDOW, e.getMessage(), e);
+                isRunning.set(false);
+                throw new RuntimeException("Failed to start betting windows", e);
+            }
+        } finally {
+            lifecycleLock.unlock();
         }
     }
 
@@ -236,80 +240,90 @@ public class WindowPlayer {
     /**
      * Stop both betting windows gracefully
      */
-    public synchronized void stopWindows() {
-        if (!isRunning.get()) {
-            log.info("{} {} Windows are not running", EMOJI_WARNING, EMOJI_WINDOW);
-            return;
-        }
-
-        if (isShuttingDown.get()) {
-            log.warn("{} {} Shutdown already in progress", EMOJI_WARNING, EMOJI_SHUTDOWN);
-            return;
-        }
-
-        log.info("{} {} Stopping betting windows gracefully...",
-                EMOJI_SHUTDOWN, EMOJI_WINDOW);
+    public void stopWindows() {
+        lifecycleLock.lock();
+        try {
+            if (!isRunning.get()) {
+                log.info("{} {} Windows are not running", EMOJI_WARNING, EMOJI_WINDOW);
+                return;
+            }
 
-        isShuttingDown.set(true);
+            if (isShuttingDown.get()) {
+                log.warn("{} {} Shutdown already in progress", EMOJI_WARNING, EMOJI_SHUTDOWN);
+                return;
+            }
 
-        try {
-            // Signal windows to stop
-            mSportWindow.stop();
-            sportyWindow.stop();
+            log.info("{} {} Stopping betting windows gracefully...",
+                    EMOJI_SHUTDOWN, EMOJI_WINDOW);
 
-            log.info("⏳ Waiting for windows to complete current operations...");
+            isShuttingDown.set(true);
 
-            // Wait for tasks to complete with timeout
-            boolean allCompleted = true;
-            for (Future<?> task : runningTasks) {
-                try {
-                    task.get(shutdownTimeoutSeconds, TimeUnit.SECONDS);
-                    log.info("✅ Window task completed gracefully");
-                } catch (TimeoutException e) {
-                    log.warn("⏱️ Window task did not complete in time - forcing shutdown");
-                    task.cancel(true);
-                    allCompleted = false;
-                } catch (Exception e) {
-                    log.error("❌ Error waiting for task: {}", e.getMessage());
-                    allCompleted = false;
+            try {
+                // Signal windows to stop
+                mSportWindow.stop();
+                sportyWindow.stop();
+
+                log.info("⏳ Waiting for windows to complete current operations...");
+
+                // Wait for tasks to complete with timeout
+                boolean allCompleted = true;
+                for (Future<?> task : runningTasks) {
+                    try {
+                        task.get(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+                        log.info("✅ Window task completed gracefully");
+                    } catch (TimeoutException e) {
+                        log.warn("⏱️ Window task did not complete in time - forcing shutdown");
+                        task.cancel(true);
+                        allCompleted = false;
+                    } catch (Exception e) {
+                        log.error("❌ Error waiting for task: {}", e.getMessage());
+                        allCompleted = false;
+                    }
                 }
-            }
 
-            if (allCompleted) {
-                log.info("{} {} All windows stopped gracefully", EMOJI_SUCCESS, EMOJI_SHUTDOWN);
-            } else {
-                log.warn("{} {} Some windows were forcefully stopped", EMOJI_WARNING, EMOJI_SHUTDOWN);
-            }
+                if (allCompleted) {
+                    log.info("{} {} All windows stopped gracefully", EMOJI_SUCCESS, EMOJI_SHUTDOWN);
+                } else {
+                    log.warn("{} {} Some windows were forcefully stopped", EMOJI_WARNING, EMOJI_SHUTDOWN);
+                }
 
-            // Clear sync manager state
-            syncManager.clearAll();
+                // Clear sync manager state
+                syncManager.clearAll();
 
-        } catch (Exception e) {
-            log.error("{} {} Error during window shutdown: {}",
-                    EMOJI_ERROR, EMOJI_SHUTDOWN, e.getMessage(), e);
+            } catch (Exception e) {
+                log.error("{} {} Error during window shutdown: {}",
+                        EMOJI_ERROR, EMOJI_SHUTDOWN, e.getMessage(), e);
+            } finally {
+                runningTasks.clear();
+                isRunning.set(false);
+                isShuttingDown.set(false);
+            }
         } finally {
-            runningTasks.clear();
-            isRunning.set(false);
-            isShuttingDown.set(false);
+            lifecycleLock.unlock();
         }
     }
 
     /**
      * Restart both windows
      */
-    public synchronized void restartWindows() {
-        log.info("{} {} Restarting betting windows...", EMOJI_INIT, EMOJI_WINDOW);
+    public void restartWindows() {
+        lifecycleLock.lock();
+        try {
+            log.info("{} {} Restarting betting windows...", EMOJI_INIT, EMOJI_WINDOW);
 
-        stopWindows();
+            stopWindows();
 
-        // Wait a bit before restarting
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+            // Wait a bit before restarting
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
 
-        startWindows();
+            startWindows();
+        } finally {
+            lifecycleLock.unlock();
+        }
     }
 
     /**
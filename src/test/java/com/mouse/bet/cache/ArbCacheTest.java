@@ -0,0 +1,117 @@
+package com.mouse.bet.cache;
+
+import com.mouse.bet.entity.Arb;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArbCacheTest {
+
+    private final ArbCache cache = new ArbCache();
+
+    @Test
+    void update_createsLiveArbAndMarksDirty() {
+        Arb live = cache.update("arb-1", current -> current != null ? current : arb("arb-1", Instant.now()));
+
+        assertThat(cache.contains("arb-1")).isTrue();
+        assertThat(cache.dirtyCount()).isEqualTo(1);
+        assertThat(cache.read("arb-1", Arb::getArbId)).contains(live.getArbId());
+    }
+
+    @Test
+    void drainDirty_takesAtMostMaxAndClearsThem() {
+        cache.update("arb-1", c -> arb("arb-1", Instant.now()));
+        cache.update("arb-2", c -> arb("arb-2", Instant.now()));
+        cache.update("arb-3", c -> arb("arb-3", Instant.now()));
+
+        assertThat(cache.drainDirty(2)).hasSize(2);
+        assertThat(cache.drainDirty(10)).hasSize(1);
+        assertThat(cache.dirtyCount()).isZero();
+    }
+
+    @Test
+    void updateAfterDrain_isDirtyAgain() {
+        cache.update("arb-1", c -> arb("arb-1", Instant.now()));
+        cache.completeFlush(cache.drainDirty(10));
+
+        cache.update("arb-1", c -> c);
+
+        assertThat(cache.drainDirty(10)).containsExactly("arb-1");
+    }
+
+    @Test
+    void mutate_marksDirtyOnlyWhenChanged() {
+        cache.update("arb-1", c -> arb("arb-1", Instant.now()));
+        cache.completeFlush(cache.drainDirty(10));
+
+        assertThat(cache.mutate("arb-1", a -> false)).isFalse();
+        assertThat(cache.dirtyCount()).isZero();
+        assertThat(cache.mutate("arb-1", a -> true)).isTrue();
+        assertThat(cache.drainDirty(10)).containsExactly("arb-1");
+        assertThat(cache.mutate("untracked", a -> true)).isFalse();
+        assertThat(cache.contains("untracked")).isFalse();
+    }
+
+    @Test
+    void evictIf_dropsOnlyCleanArbsMatchingPredicate() {
+        Instant old = Instant.now().minusSeconds(600);
+        cache.update("idle", c -> arb("idle", old));
+        cache.update("dirty-idle", c -> arb("dirty-idle", old));
+        cache.update("fresh", c -> arb("fresh", Instant.now()));
+        cache.completeFlush(cache.drainDirty(10));
+        cache.markDirty("dirty-idle");
+
+        Instant cutoff = Instant.now().minusSeconds(300);
+        assertThat(cache.evictIf("idle", a -> a.getLastSeenAt().isBefore(cutoff))).isTrue();
+        assertThat(cache.evictIf("dirty-idle", a -> a.getLastSeenAt().isBefore(cutoff))).isFalse();
+        assertThat(cache.evictIf("fresh", a -> a.getLastSeenAt().isBefore(cutoff))).isFalse();
+        assertThat(cache.contains("idle")).isFalse();
+        assertThat(cache.contains("dirty-idle")).isTrue();
+        assertThat(cache.contains("fresh")).isTrue();
+    }
+
+    @Test
+    void drainedArb_isNotEvictedUntilItsFlushCompletes() {
+        cache.update("idle", c -> arb("idle", Instant.now().minusSeconds(600)));
+        List<String> batch = cache.drainDirty(10);
+
+        assertThat(cache.evictIf("idle", a -> true)).isFalse();
+
+        // A failed flush marks the arb dirty again, and it is still there to be marked
+        cache.markDirty("idle");
+        cache.completeFlush(batch);
+        assertThat(cache.evictIf("idle", a -> true)).isFalse();
+        assertThat(cache.drainDirty(10)).containsExactly("idle");
+    }
+
+    @Test
+    void drainDirty_leavesArbsStillInFlightForALaterDrain() {
+        cache.update("arb-1", c -> arb("arb-1", Instant.now()));
+        List<String> first = cache.drainDirty(10);
+        cache.update("arb-1", c -> c);
+
+        assertThat(cache.drainDirty(10)).isEmpty();
+        cache.completeFlush(first);
+        assertThat(cache.drainDirty(10)).containsExactly("arb-1");
+    }
+
+    @Test
+    void update_removingTheArb_leavesNothingDirty() {
+        cache.update("arb-1", c -> null);
+
+        assertThat(cache.contains("arb-1")).isFalse();
+        assertThat(cache.dirtyCount()).isZero();
+    }
+
+    @Test
+    void read_missingArb_isEmpty() {
+        assertThat(cache.read("missing", Arb::getArbId)).isEmpty();
+    }
+
+    private Arb arb(String arbId, Instant lastSeen) {
+        return Arb.builder().arbId(arbId).lastSeenAt(lastSeen).build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.mouse.bet.config;
+
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionLanesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutionLanes lanes;
+
+    @BeforeEach
+    void setUp() {
+        lanes = new ExecutionLanes(meterRegistry);
+        ReflectionTestUtils.setField(lanes, "persistThreads", 1);
+        ReflectionTestUtils.setField(lanes, "persistQueueCapacity", 1);
+        ReflectionTestUtils.setField(lanes, "detectThreads", 3);
+        ReflectionTestUtils.setField(lanes, "commandThreads", 5);
+        lanes.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void fullLane_runsOverflowOnCallerAndCountsIt() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        lanes.executor(Lane.PERSIST).execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        lanes.executor(Lane.PERSIST).execute(() -> { });
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        lanes.executor(Lane.PERSIST).execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+        assertThat(lanes.rejected(Lane.PERSIST)).isEqualTo(1);
+        assertThat(meterRegistry.get("exec.lane.rejected").tag("lane", "persist").functionCounter().count()).isEqualTo(1.0);
+        assertThat(lanes.queueDepth(Lane.PERSIST)).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void completedTasks_recordWaitAndRunLatency() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            lanes.executor(Lane.PARSE).execute(done::countDown);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        lanes.shutdown();
+        assertThat(meterRegistry.get("exec.lane.run").tag("lane", "parse").timer().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("exec.lane.wait").tag("lane", "parse").timer().count()).isEqualTo(10);
+    }
+
+    @Test
+    void fixedRateOnLane_skipsTicksWhilePreviousRunIsBusy() throws InterruptedException {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch runs = new CountDownLatch(3);
+
+        ScheduledFuture<?> schedule = lanes.scheduleAtFixedRate(Lane.INGEST, () -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            sleep(30);
+            concurrent.decrementAndGet();
+            runs.countDown();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        schedule.cancel(false);
+        assertThat(maxConcurrent.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fixedRateOnFullLane_skipsTicksInsteadOfRunningThemOnTheScheduler() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        lanes.executor(Lane.PERSIST).execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        lanes.executor(Lane.PERSIST).execute(() -> { });
+
+        List<String> ranOn = new CopyOnWriteArrayList<>();
+        CountDownLatch ran = new CountDownLatch(1);
+        ScheduledFuture<?> schedule = lanes.scheduleAtFixedRate(Lane.PERSIST, () -> {
+            ranOn.add(Thread.currentThread().getName());
+            ran.countDown();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        // A second rejection shows the first skipped tick released the schedule
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (lanes.rejected(Lane.PERSIST) < 2 && System.currentTimeMillis() < deadline) {
+            sleep(5);
+        }
+        assertThat(lanes.rejected(Lane.PERSIST)).isGreaterThanOrEqualTo(2);
+        assertThat(ranOn).isEmpty();
+
+        release.countDown();
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        schedule.cancel(false);
+        assertThat(ranOn).allMatch(name -> name.startsWith("lane-persist-"));
+    }
+
+    @Test
+    void detectLane_sizesShardsButHasNoPool() {
+        assertThat(lanes.threads(Lane.DETECT)).isEqualTo(3);
+        assertThat(lanes.threadFactory(Lane.DETECT).newThread(() -> { }).getName()).startsWith("lane-detect-");
+        assertThatThrownBy(() -> lanes.executor(Lane.DETECT)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void commandLane_sizesSerialLanesButHasNoPool() {
+        assertThat(lanes.threads(Lane.COMMAND)).isEqualTo(5);
+        assertThat(lanes.threadFactory(Lane.COMMAND).newThread(() -> { }).getName()).startsWith("lane-command-");
+        assertThatThrownBy(() -> lanes.executor(Lane.COMMAND)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void virtualThreadMode_replacesBlockingLaneSizesOnJava21Only() {
+        lanes.shutdown();
+        lanes = new ExecutionLanes(meterRegistry);
+        ReflectionTestUtils.setField(lanes, "virtualThreadsEnabled", true);
+        ReflectionTestUtils.setField(lanes, "virtualMaxInFlight", 64);
+        ReflectionTestUtils.setField(lanes, "parseThreads", 2);
+        lanes.init();
+
+        boolean supported = Runtime.version().feature() >= 21;
+        assertThat(lanes.isVirtualThreads()).isEqualTo(supported);
+        assertThat(lanes.threads(Lane.INGEST)).isEqualTo(supported ? 64 : 32);
+        assertThat(lanes.threads(Lane.PARSE)).isEqualTo(2);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadProfile_runsBlockingLaneOnVirtualThreadsBoundedByMaxInFlight() throws Exception {
+        lanes.shutdown();
+        lanes = new ExecutionLanes(meterRegistry);
+        ReflectionTestUtils.setField(lanes, "virtualThreadsEnabled", profileEnablesVirtualThreads());
+        ReflectionTestUtils.setField(lanes, "virtualMaxInFlight", 2);
+        lanes.init();
+        assertThat(lanes.isVirtualThreads()).isTrue();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<Boolean> virtual = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lanes.executor(Lane.INGEST).execute(() -> {
+                virtual.add(isVirtual(Thread.currentThread()));
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                await(release);
+                concurrent.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (lanes.queueDepth(Lane.INGEST) < 3 && System.currentTimeMillis() < deadline) {
+            sleep(5);
+        }
+        assertThat(lanes.queueDepth(Lane.INGEST)).isEqualTo(3);
+        assertThat(meterRegistry.get("exec.lane.active").tag("lane", "ingest").gauge().value()).isEqualTo(2.0);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxConcurrent.get()).isEqualTo(2);
+        assertThat(virtual).hasSize(5).containsOnly(true);
+        assertThat(lanes.rejected(Lane.INGEST)).isZero();
+    }
+
+    /**
+     * exec.virtual-threads.enabled as resolved with the virtual-threads Spring profile active
+     */
+    private static boolean profileEnablesVirtualThreads() throws IOException {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addLast(new ResourcePropertySource("classpath:application-virtual-threads.properties"));
+        env.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        return env.getRequiredProperty("exec.virtual-threads.enabled", Boolean.class);
+    }
+
+    // Thread.isVirtual() is Java 21 API; the default build compiles the tests on 17
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
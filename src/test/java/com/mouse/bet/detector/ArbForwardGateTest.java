@@ -0,0 +1,78 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArbForwardGateTest {
+
+    private final ArbForwardGate gate = new ArbForwardGate(10, 2000);
+
+    @Test
+    void shouldForward_firstSighting_forwards() {
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0)).isTrue();
+        assertThat(gate.forwardedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForward_unchangedWithinHeartbeat_suppresses() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0);
+
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 500)).isFalse();
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.105", "2.05"), 1000)).isFalse();
+        assertThat(gate.suppressedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldForward_oddsMovePastEpsilon_forwards() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0);
+
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.06"), 500)).isTrue();
+    }
+
+    @Test
+    void shouldForward_smallMovesAccumulateAgainstLastForwarded() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.100", "2.05"), 0);
+
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.105", "2.05"), 100)).isFalse();
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.110", "2.05"), 200)).isTrue();
+    }
+
+    @Test
+    void shouldForward_statusChange_forwards() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0);
+
+        assertThat(gate.shouldForward(arb(Status.INSUFFICIENT_BALANCE, "2.10", "2.05"), 100)).isTrue();
+    }
+
+    @Test
+    void shouldForward_heartbeatDue_forwards() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0);
+
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 2000)).isTrue();
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 2500)).isFalse();
+    }
+
+    @Test
+    void evictOlderThan_forgetsIdleArbs() {
+        gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 0);
+
+        assertThat(gate.evictOlderThan(1)).isEqualTo(1);
+        assertThat(gate.size()).isZero();
+        assertThat(gate.shouldForward(arb(Status.ACTIVE, "2.10", "2.05"), 100)).isTrue();
+    }
+
+    private Arb arb(Status status, String oddsA, String oddsB) {
+        List<BetLeg> legs = new ArrayList<>();
+        legs.add(BetLeg.builder().isPrimaryLeg(true).odds(new BigDecimal(oddsA)).build());
+        legs.add(BetLeg.builder().odds(new BigDecimal(oddsB)).build());
+        return Arb.builder().arbId("arb-1").status(status).legs(legs).build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.config.ExecutionLanes.Lane;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.model.NormalizedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DetectionShardTest {
+
+    private static final ThreadFactory THREADS = new ExecutionLanes(new SimpleMeterRegistry()).threadFactory(Lane.DETECT);
+
+    @Test
+    void submit_drainsInArrivalOrderOnOwningThread() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        DetectionShard shard = new DetectionShard(0, 16, false, THREADS, batch -> {
+            batch.forEach(e -> seen.add(e.getEventId()));
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+        shard.start();
+
+        shard.submit(event("a"));
+        shard.submit(event("b"));
+        shard.submit(event("c"));
+
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).containsExactly("a", "b", "c");
+        assertThat(threads).containsOnly(threads.get(0));
+        assertThat(threads.get(0)).startsWith("lane-detect-");
+        shard.stop(1000);
+    }
+
+    @Test
+    void submit_whenFull_dropsOldest() {
+        DetectionShard shard = new DetectionShard(1, 2, false, THREADS, batch -> { });
+
+        shard.submit(event("a"));
+        shard.submit(event("b"));
+        shard.submit(event("c"));
+
+        assertThat(shard.depth()).isEqualTo(2);
+        assertThat(shard.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_coalescing_keepsLatestSnapshotPerBookmaker() throws Exception {
+        List<List<NormalizedEvent>> runs = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        DetectionShard shard = new DetectionShard(2, 16, true, THREADS, batch -> {
+            runs.add(List.copyOf(batch));
+            done.countDown();
+        });
+
+        NormalizedEvent sportyOld = event("m1", BookMaker.SPORTY_BET);
+        NormalizedEvent sportyNew = event("m1", BookMaker.SPORTY_BET);
+        NormalizedEvent msport = event("m1", BookMaker.M_SPORT);
+        shard.submit(sportyOld);
+        shard.submit(msport);
+        shard.submit(sportyNew);
+
+        assertThat(shard.depth()).isEqualTo(1);
+        assertThat(shard.coalescedCount()).isEqualTo(2);
+
+        shard.start();
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs).singleElement().satisfies(batch ->
+                assertThat(batch).containsExactlyInAnyOrder(sportyNew, msport));
+        shard.stop(1000);
+    }
+
+    @Test
+    void execute_runsChoreOnShardThread() throws Exception {
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        DetectionShard shard = new DetectionShard(3, 16, true, THREADS, batch -> { });
+        shard.start();
+
+        shard.execute(() -> {
+            ranOn.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(ranOn.get()).startsWith("lane-detect-");
+        shard.stop(1000);
+    }
+
+    private NormalizedEvent event(String id) {
+        return event(id, BookMaker.SPORTY_BET);
+    }
+
+    private NormalizedEvent event(String id, BookMaker bookie) {
+        return NormalizedEvent.builder().eventId(id).bookie(bookie).build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.mouse.bet.detector;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.MSportMarketType;
+import com.mouse.bet.enums.MarketCategory;
+import com.mouse.bet.enums.OutcomeGroup;
+import com.mouse.bet.enums.OutcomeStatus;
+import com.mouse.bet.enums.SportEnum;
+import com.mouse.bet.enums.SportyMarketType;
+import com.mouse.bet.interfaces.MarketType;
+import com.mouse.bet.model.NormalizedEvent;
+import com.mouse.bet.model.NormalizedMarket;
+import com.mouse.bet.model.NormalizedOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsBookTest {
+
+    private static final String EVENT_ID = "sr:match:1";
+
+    private OddsBook book;
+
+    @BeforeEach
+    void setup() {
+        book = new OddsBook(2000);
+    }
+
+    @Test
+    void apply_firstSnapshot_hasNoCounterpart() {
+        assertThat(book.apply(snapshot(BookMaker.SPORTY_BET, "1.90", "1.90"))).isEmpty();
+    }
+
+    @Test
+    void apply_secondBookmaker_returnsOnlyPairsPassingScreen() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+
+        List<OddsBook.Candidate> candidates = book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"));
+
+        assertThat(candidates).singleElement().satisfies(c -> {
+            assertThat(c.main().getBookmaker()).isEqualTo(BookMaker.SPORTY_BET);
+            assertThat(c.opposite().getBookmaker()).isEqualTo(BookMaker.M_SPORT);
+        });
+    }
+
+    @Test
+    void apply_unchangedSnapshot_touchesNothing() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+        book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"));
+
+        assertThat(book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"))).isEmpty();
+    }
+
+    @Test
+    void apply_singlePriceMove_onlyReturnsPairsForThatSide() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+        book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"));
+
+        List<OddsBook.Candidate> candidates = book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.20"));
+
+        assertThat(candidates).singleElement().satisfies(c -> {
+            assertThat(c.main().getBookmaker()).isEqualTo(BookMaker.SPORTY_BET);
+            assertThat(c.opposite().getOdds()).isEqualByComparingTo("2.20");
+        });
+    }
+
+    @Test
+    void apply_liveArb_isReEmittedOnRefresh() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+        List<OddsBook.Candidate> candidates = book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"));
+        candidates.forEach(c -> book.markEvaluated(EVENT_ID, c, true));
+
+        assertThat(book.apply(snapshot(BookMaker.M_SPORT, "1.80", "2.10"))).hasSize(1);
+    }
+
+    @Test
+    void apply_coalescedBatch_evaluatesFinalStateOnce() {
+        List<OddsBook.Candidate> candidates = book.apply(List.of(
+                snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"),
+                snapshot(BookMaker.M_SPORT, "1.80", "2.10")));
+
+        assertThat(candidates).singleElement().satisfies(c -> {
+            assertThat(c.main().getBookmaker()).isEqualTo(BookMaker.SPORTY_BET);
+            assertThat(c.opposite().getBookmaker()).isEqualTo(BookMaker.M_SPORT);
+        });
+    }
+
+    @Test
+    void apply_threeWayMarket_usesBestPricePerOutcomeAcrossBookmakers() {
+        book.apply(matchResult(BookMaker.SPORTY_BET, "3.40", "3.20", "2.40"));
+        book.apply(matchResult(BookMaker.M_SPORT, "2.60", "3.60", "2.50"));
+
+        List<OddsBook.Candidate> candidates = book.apply(matchResult(BookMaker.BET9JA, "2.50", "3.30", "3.10"));
+
+        assertThat(candidates).singleElement().satisfies(c -> {
+            assertThat(c.group()).isEqualTo(OutcomeGroup.FOOTBALL_1X2);
+            assertThat(c.legs()).extracting(NormalizedOutcome::getBookmaker)
+                    .containsExactly(BookMaker.SPORTY_BET, BookMaker.M_SPORT, BookMaker.BET9JA);
+        });
+    }
+
+    @Test
+    void apply_threeWayMarketWithMargin_isScreenedOut() {
+        book.apply(matchResult(BookMaker.SPORTY_BET, "2.50", "3.20", "2.80"));
+
+        assertThat(book.apply(matchResult(BookMaker.M_SPORT, "2.45", "3.25", "2.75"))).isEmpty();
+    }
+
+    @Test
+    void evictOlderThan_dropsIdleEvents() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+
+        assertThat(book.evictOlderThan(Instant.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(book.size()).isZero();
+    }
+
+    @Test
+    void evictOlderThan_leavesEventsOutsideTheOwnedSet() {
+        book.apply(snapshot(BookMaker.SPORTY_BET, "2.10", "1.80"));
+
+        assertThat(book.evictOlderThan(Instant.now().plusSeconds(1), eventId -> !eventId.equals(EVENT_ID))).isZero();
+        assertThat(book.evictOlderThan(Instant.now().plusSeconds(1), EVENT_ID::equals)).isEqualTo(1);
+        assertThat(book.size()).isZero();
+    }
+
+    private NormalizedEvent snapshot(BookMaker bookie, String over, String under) {
+        boolean sporty = bookie == BookMaker.SPORTY_BET;
+        MarketType overType = sporty ? SportyMarketType.OVER_UNDER_2_5_OVER : MSportMarketType.OVER_UNDER_2_5_OVER;
+        MarketType underType = sporty ? SportyMarketType.OVER_UNDER_2_5_UNDER : MSportMarketType.OVER_UNDER_2_5_UNDER;
+
+        NormalizedMarket market = NormalizedMarket.builder()
+                .marketCategory(MarketCategory.OVER_UNDER_TOTAL)
+                .outcomes(List.of(outcome(bookie, overType, over), outcome(bookie, underType, under)))
+                .build();
+
+        return NormalizedEvent.builder()
+                .eventId(EVENT_ID)
+                .bookie(bookie)
+                .seenAt(Instant.now())
+                .markets(List.of(market))
+                .build();
+    }
+
+    private NormalizedEvent matchResult(BookMaker bookie, String home, String draw, String away) {
+        NormalizedMarket market = NormalizedMarket.builder()
+                .marketCategory(MarketCategory.MATCH_RESULT)
+                .outcomes(List.of(
+                        outcome(bookie, SportyMarketType.MATCH_ODDS_HOME, home),
+                        outcome(bookie, SportyMarketType.MATCH_ODDS_DRAW, draw),
+                        outcome(bookie, SportyMarketType.MATCH_ODDS_AWAY, away)))
+                .build();
+
+        return NormalizedEvent.builder()
+                .eventId(EVENT_ID)
+                .bookie(bookie)
+                .sportEnum(SportEnum.FOOTBALL)
+                .seenAt(Instant.now())
+                .markets(List.of(market))
+                .build();
+    }
+
+    private NormalizedOutcome outcome(BookMaker bookie, MarketType type, String odds) {
+        return NormalizedOutcome.builder()
+                .marketType(type)
+                .normalEventId(EVENT_ID)
+                .bookmaker(bookie)
+                .odds(new BigDecimal(odds))
+                .outcomeStatus(OutcomeStatus.AVAILABLE)
+                .build();
+    }
+}
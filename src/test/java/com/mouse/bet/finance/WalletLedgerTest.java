@@ -0,0 +1,116 @@
+package com.mouse.bet.finance;
+
+import com.mouse.bet.entity.Wallet;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.repository.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WalletLedgerTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    private final WalletLedger ledger = new WalletLedger(walletRepository, null, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        when(walletRepository.findByBookmaker(any())).thenReturn(Optional.empty());
+        when(walletRepository.findByBookmaker(BookMaker.SPORTY_BET)).thenReturn(Optional.of(wallet(BookMaker.SPORTY_BET, "1000.00")));
+        when(walletRepository.findByBookmaker(BookMaker.M_SPORT)).thenReturn(Optional.of(wallet(BookMaker.M_SPORT, "500.00")));
+    }
+
+    @Test
+    void reserve_isAllOrNothing() {
+        boolean reserved = ledger.reserve("arb-1", Map.of(
+                BookMaker.SPORTY_BET, new BigDecimal("400"),
+                BookMaker.M_SPORT, new BigDecimal("600")));
+
+        assertThat(reserved).isFalse();
+        assertThat(ledger.available(BookMaker.SPORTY_BET)).isEqualByComparingTo("1000");
+        assertThat(ledger.available(BookMaker.M_SPORT)).isEqualByComparingTo("500");
+    }
+
+    @Test
+    void commitSpendsAndReleaseFrees() {
+        ledger.reserve("arb-1", Map.of(
+                BookMaker.SPORTY_BET, new BigDecimal("400"),
+                BookMaker.M_SPORT, new BigDecimal("300")));
+        assertThat(ledger.canAfford(BookMaker.SPORTY_BET, new BigDecimal("600.01"))).isFalse();
+
+        ledger.commit("arb-1", BookMaker.SPORTY_BET);
+        ledger.release("arb-1", BookMaker.M_SPORT);
+
+        assertThat(ledger.balance(BookMaker.SPORTY_BET)).isEqualByComparingTo("600");
+        assertThat(ledger.available(BookMaker.M_SPORT)).isEqualByComparingTo("500");
+        assertThat(ledger.commit("arb-1", BookMaker.SPORTY_BET)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void concurrentReservations_neverOversell() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String id = "arb-" + i;
+            attempts.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ledger.reserve(id, Map.of(BookMaker.SPORTY_BET, new BigDecimal("100")));
+            }));
+        }
+        start.countDown();
+
+        long granted = 0;
+        for (CompletableFuture<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                granted++;
+            }
+        }
+
+        assertThat(granted).isEqualTo(10);
+        assertThat(ledger.available(BookMaker.SPORTY_BET)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void sync_keepsInFlightReservationsOut() {
+        ledger.reserve("arb-1", Map.of(BookMaker.SPORTY_BET, new BigDecimal("250")));
+
+        ledger.sync(BookMaker.SPORTY_BET, new BigDecimal("2000"));
+
+        assertThat(ledger.available(BookMaker.SPORTY_BET)).isEqualByComparingTo("1750");
+        assertThat(ledger.balance(BookMaker.SPORTY_BET)).isEqualByComparingTo("2000");
+    }
+
+    @Test
+    void flush_writesChangedBalancesOnly() {
+        ledger.debit(BookMaker.SPORTY_BET, new BigDecimal("99.99"));
+        ledger.available(BookMaker.M_SPORT);
+
+        ledger.flush();
+
+        verify(walletRepository).writeBalance(eq(BookMaker.SPORTY_BET), eq(new BigDecimal("900.01")), any());
+        verify(walletRepository, never()).writeBalance(eq(BookMaker.M_SPORT), any(), any());
+    }
+
+    private static Wallet wallet(BookMaker bookmaker, String balance) {
+        return Wallet.builder().bookmaker(bookmaker).availableBalance(new BigDecimal(balance)).build();
+    }
+}
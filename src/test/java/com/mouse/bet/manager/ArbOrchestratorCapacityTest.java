@@ -0,0 +1,103 @@
+package com.mouse.bet.manager;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.finance.WalletLedger;
+import com.mouse.bet.model.arb.LegResult;
+import com.mouse.bet.service.ArbService;
+import com.mouse.bet.tasks.LegTask;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ArbOrchestratorCapacityTest {
+
+    private final ArbOrchestrator orchestrator = new ArbOrchestrator(mock(ArbService.class), mock(ArbRevalidator.class),
+            mock(WalletLedger.class), mock(ExecutionLanes.class));
+
+    @Test
+    void tryLoadArb_admitsUpToBookmakerCapacity() {
+        ReflectionTestUtils.setField(orchestrator, "bookmakerCapacity", 2);
+
+        assertThat(orchestrator.tryLoadArb(arb("a", BookMaker.SPORTY_BET, BookMaker.M_SPORT))).isTrue();
+        assertThat(orchestrator.tryLoadArb(arb("b", BookMaker.SPORTY_BET, BookMaker.M_SPORT))).isTrue();
+        assertThat(orchestrator.tryLoadArb(arb("c", BookMaker.SPORTY_BET, BookMaker.BET9JA))).isFalse();
+        assertThat(orchestrator.canAccept(EnumSet.of(BookMaker.BET9JA))).isTrue();
+        assertThat(orchestrator.arbsInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void tryLoadArb_sameArbTwice_isRejected() {
+        assertThat(orchestrator.tryLoadArb(arb("a", BookMaker.SPORTY_BET, BookMaker.M_SPORT))).isTrue();
+        assertThat(orchestrator.tryLoadArb(arb("a", BookMaker.SPORTY_BET, BookMaker.M_SPORT))).isFalse();
+    }
+
+    @Test
+    void forceCleanup_releasesCapacityOfQueuedArbs() throws Exception {
+        ReflectionTestUtils.setField(orchestrator, "maxConcurrentArbs", 1);
+        orchestrator.tryLoadArb(arb("a", BookMaker.SPORTY_BET, BookMaker.M_SPORT));
+
+        assertThat(orchestrator.awaitCapacity(0, TimeUnit.MILLISECONDS)).isFalse();
+        orchestrator.forceCleanup();
+
+        assertThat(orchestrator.awaitCapacity(0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(orchestrator.arbsInFlight()).isZero();
+    }
+
+    @Test
+    void nextTask_dropsExpiredTasksAndSettlesTheirLegs() {
+        BlockingQueue<LegTask> queue = new LinkedBlockingQueue<>();
+        orchestrator.registerWorker(BookMaker.SPORTY_BET, queue);
+        Phaser expiredBarrier = new Phaser(2);
+        ConcurrentMap<BookMaker, LegResult> expiredResults = new ConcurrentHashMap<>();
+
+        queue.add(task("old", Instant.now().minusSeconds(1), expiredBarrier, expiredResults));
+        queue.add(task("fresh", Instant.now().plusSeconds(5), new Phaser(2), new ConcurrentHashMap<>()));
+
+        LegTask next = orchestrator.nextTask(BookMaker.SPORTY_BET);
+
+        assertThat(next.getArbId()).isEqualTo("fresh");
+        assertThat(expiredBarrier.getRegisteredParties()).isEqualTo(1);
+        assertThat(expiredResults.get(BookMaker.SPORTY_BET).success()).isFalse();
+        assertThat(orchestrator.nextTask(BookMaker.SPORTY_BET)).isNull();
+    }
+
+    @Test
+    void deadlineFor_isLastSeenPlusMaxAge() {
+        Instant seen = Instant.parse("2025-01-01T00:00:00Z");
+        Arb arb = Arb.builder().arbId("a").lastUpdatedAt(seen).build();
+
+        assertThat(orchestrator.deadlineFor(arb)).isEqualTo(seen.plusMillis(5000));
+    }
+
+    private static LegTask task(String arbId, Instant deadline, Phaser barrier,
+                                ConcurrentMap<BookMaker, LegResult> results) {
+        return LegTask.builder()
+                .arbId(arbId)
+                .bookmaker(BookMaker.SPORTY_BET)
+                .barrier(barrier)
+                .results(results)
+                .deadline(deadline)
+                .build();
+    }
+
+    private static Arb arb(String arbId, BookMaker first, BookMaker second) {
+        Arb arb = Arb.builder().arbId(arbId).build();
+        arb.attachLeg(BetLeg.builder().betLegId(arbId + "-1").bookmaker(first).isPrimaryLeg(true).build());
+        arb.attachLeg(BetLeg.builder().betLegId(arbId + "-2").bookmaker(second).legIndex(1).build());
+        return arb;
+    }
+}
@@ -0,0 +1,168 @@
+package com.mouse.bet.manager;
+
+import com.mouse.bet.detector.LiveOddsBoard;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.OutcomeStatus;
+import com.mouse.bet.model.NormalizedEvent;
+import com.mouse.bet.model.NormalizedMarket;
+import com.mouse.bet.model.NormalizedOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ArbRevalidatorTest {
+
+    private static final String EVENT_ID = "arsenal-chelsea-football";
+
+    private final LiveOddsBoard board = new LiveOddsBoard();
+    private final ArbRevalidator revalidator = new ArbRevalidator(board, new SimpleMeterRegistry());
+
+    @Test
+    void unchangedOdds_proceedWithoutResize() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, Instant.now());
+
+        ArbRevalidator.Verdict verdict = revalidator.revalidate(arb("2.10", "2.10"));
+
+        assertThat(verdict.proceed()).isTrue();
+        assertThat(verdict.resized()).isFalse();
+    }
+
+    @Test
+    void movedOdds_resizeStakesToCurrentPrices() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.20", null, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.05", null, Instant.now());
+        Arb arb = arb("2.10", "2.10");
+
+        ArbRevalidator.Verdict verdict = revalidator.revalidate(arb);
+
+        assertThat(verdict.proceed()).isTrue();
+        assertThat(verdict.resized()).isTrue();
+        assertThat(arb.getLegs().get(0).getOdds()).isEqualByComparingTo("2.20");
+        assertThat(arb.getLegs().get(0).getRawStake()).isLessThan(arb.getLegs().get(1).getRawStake());
+        assertThat(arb.getLegs().get(0).getRawStake().add(arb.getLegs().get(1).getRawStake()))
+                .isCloseTo(new BigDecimal("100"), within(new BigDecimal("0.0001")));
+        assertThat(arb.getProfitPercentage()).isEqualTo(verdict.profit());
+    }
+
+    @Test
+    void closedArb_aborts() {
+        publish(BookMaker.SPORTY_BET, "o-home", "1.80", null, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, Instant.now());
+
+        assertThat(revalidator.revalidate(arb("2.10", "2.10")).proceed()).isFalse();
+    }
+
+    @Test
+    void suspendedLeg_aborts() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", OutcomeStatus.SUSPENDED, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, Instant.now());
+
+        assertThat(revalidator.revalidate(arb("2.10", "2.10")).proceed()).isFalse();
+    }
+
+    @Test
+    void quoteOneBackedOffCadenceOld_proceeds() {
+        Instant detectedAt = Instant.now();
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, detectedAt);
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, detectedAt.minusSeconds(15));
+        Arb arb = arb("2.10", "2.10");
+        arb.setLastUpdatedAt(detectedAt);
+
+        assertThat(revalidator.revalidate(arb).proceed()).isTrue();
+    }
+
+    @Test
+    void quoteOlderThanOneCadenceBeforeDetection_aborts() {
+        Instant detectedAt = Instant.now();
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, detectedAt);
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, detectedAt.minusMillis(15_001));
+        Arb arb = arb("2.10", "2.10");
+        arb.setLastUpdatedAt(detectedAt);
+
+        ArbRevalidator.Verdict verdict = revalidator.revalidate(arb);
+
+        assertThat(verdict.proceed()).isFalse();
+        assertThat(verdict.reason()).contains("older than the arb");
+    }
+
+    @Test
+    void olderSnapshot_doesNotReplaceNewerOnBoard() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, Instant.now());
+        publish(BookMaker.SPORTY_BET, "o-home", "1.50", null, Instant.now().minusSeconds(1));
+
+        assertThat(board.price(EVENT_ID, BookMaker.SPORTY_BET, "o-home"))
+                .map(LiveOddsBoard.LivePrice::odds).contains(new BigDecimal("2.10"));
+    }
+
+    @Test
+    void legsAreLookedUpByCanonicalEventId_notTheBookmakersOwn() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, Instant.now());
+        Arb arb = arb("2.10", "2.10");
+
+        assertThat(arb.getLegs()).extracting(BetLeg::getEventId).doesNotContain(EVENT_ID);
+        assertThat(revalidator.revalidate(arb).proceed()).isTrue();
+    }
+
+    @Test
+    void evictOlderThan_dropsOnlyIdleSnapshots() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, Instant.now());
+        publish(BookMaker.M_SPORT, "o-away", "2.10", null, Instant.now().minusSeconds(10));
+
+        assertThat(board.evictOlderThan(Instant.now().minusSeconds(2))).isEqualTo(1);
+        assertThat(board.price(EVENT_ID, BookMaker.M_SPORT, "o-away")).isEmpty();
+        assertThat(board.price(EVENT_ID, BookMaker.SPORTY_BET, "o-home")).isPresent();
+    }
+
+    @Test
+    void missingQuote_aborts() {
+        publish(BookMaker.SPORTY_BET, "o-home", "2.10", null, Instant.now());
+
+        assertThat(revalidator.revalidate(arb("2.10", "2.10")).proceed()).isFalse();
+    }
+
+    private void publish(BookMaker bookmaker, String outcomeId, String odds, OutcomeStatus status, Instant seenAt) {
+        NormalizedOutcome outcome = NormalizedOutcome.builder()
+                .outcomeId(outcomeId)
+                .odds(new BigDecimal(odds))
+                .outcomeStatus(status)
+                .build();
+        board.publish(NormalizedEvent.builder()
+                .eventId(EVENT_ID)
+                .bookie(bookmaker)
+                .seenAt(seenAt)
+                .markets(List.of(NormalizedMarket.builder().outcomes(List.of(outcome)).build()))
+                .build());
+    }
+
+    private static Arb arb(String oddsA, String oddsB) {
+        Arb arb = Arb.builder().arbId("arb-1").build();
+        arb.attachLeg(leg(BookMaker.SPORTY_BET, "o-home", oddsA, 0));
+        arb.attachLeg(leg(BookMaker.M_SPORT, "o-away", oddsB, 1));
+        return arb;
+    }
+
+    private static BetLeg leg(BookMaker bookmaker, String outcomeId, String odds, int index) {
+        return BetLeg.builder()
+                .betLegId("arb-1-" + index)
+                .bookmaker(bookmaker)
+                .eventId("sr:match:" + bookmaker.ordinal() + "4471")
+                .normalEventId(EVENT_ID)
+                .outcomeId(outcomeId)
+                .odds(new BigDecimal(odds))
+                .rawStake(new BigDecimal("50"))
+                .stake(new BigDecimal("50"))
+                .isPrimaryLeg(index == 0)
+                .legIndex(index)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mouse.bet.manager;
+
+import com.mouse.bet.enums.BookMaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowSyncManagerTest {
+
+    private final WindowSyncManager syncManager = new WindowSyncManager();
+
+    @Test
+    void threeLegArb_releasesEveryPartyOnceAllDeployed() throws Exception {
+        List<CompletableFuture<Boolean>> waits = new ArrayList<>();
+        for (BookMaker bookmaker : BookMaker.values()) {
+            syncManager.registerIntent("arb-1", bookmaker, 2.5, 3);
+        }
+        for (BookMaker bookmaker : BookMaker.values()) {
+            waits.add(CompletableFuture.supplyAsync(() -> {
+                syncManager.markDeploymentSuccess("arb-1", bookmaker);
+                return syncManager.waitForPartnerDeploymentOrTimeout("arb-1", bookmaker, Duration.ofSeconds(5));
+            }));
+        }
+
+        for (CompletableFuture<Boolean> wait : waits) {
+            assertThat(wait.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(syncManager.areAllDeployed("arb-1")).isTrue();
+    }
+
+    @Test
+    void deploymentTimeout_cancelsArbForEveryParty() {
+        syncManager.registerIntent("arb-1", BookMaker.SPORTY_BET, 2.1, 2);
+        syncManager.markDeploymentSuccess("arb-1", BookMaker.SPORTY_BET);
+
+        boolean deployed = syncManager.waitForPartnerDeploymentOrTimeout("arb-1", BookMaker.SPORTY_BET, Duration.ofMillis(50));
+
+        assertThat(deployed).isFalse();
+        assertThat(syncManager.wasArbCancelled("arb-1")).isTrue();
+        assertThat(syncManager.markDeploymentSuccess("arb-1", BookMaker.M_SPORT)).isFalse();
+    }
+
+    @Test
+    void skip_wakesParkedWaiter() throws Exception {
+        syncManager.registerIntent("arb-1", BookMaker.SPORTY_BET, 2.1, 2);
+        syncManager.markReady("arb-1", BookMaker.SPORTY_BET);
+        CompletableFuture<Boolean> wait = CompletableFuture.supplyAsync(() ->
+                syncManager.waitForPartnersReadyOrTimeout("arb-1", BookMaker.SPORTY_BET, Duration.ofSeconds(30)));
+
+        Thread.sleep(50);
+        syncManager.skipArbAndSync("arb-1");
+
+        assertThat(wait.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void partnerFailure_isReportedToPlacedLeg() {
+        syncManager.registerIntent("arb-1", BookMaker.SPORTY_BET, 2.1, 2);
+        syncManager.registerIntent("arb-1", BookMaker.M_SPORT, 2.05, 2);
+
+        syncManager.notifyBetPlaced("arb-1", BookMaker.SPORTY_BET);
+        assertThat(syncManager.needsRollback("arb-1", BookMaker.SPORTY_BET)).isTrue();
+        syncManager.requestRollback("arb-1", BookMaker.SPORTY_BET, "Partner failed");
+        syncManager.notifyBetFailure("arb-1", BookMaker.M_SPORT, "Odds changed");
+
+        WindowSyncManager.PartnerBetResult result =
+                syncManager.waitForPartnerBetCompletion("arb-1", BookMaker.SPORTY_BET, Duration.ofSeconds(1));
+
+        assertThat(result.isFailed()).isTrue();
+        assertThat(result.getMessage()).isEqualTo("Odds changed");
+
+        syncManager.notifyRollbackCompleted("arb-1", BookMaker.SPORTY_BET, true);
+        assertThat(syncManager.getActiveCoordinationCount()).isZero();
+    }
+}
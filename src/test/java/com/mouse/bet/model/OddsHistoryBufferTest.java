@@ -0,0 +1,89 @@
+package com.mouse.bet.model;
+
+import com.mouse.bet.enums.ChangeReason;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsHistoryBufferTest {
+
+    @Test
+    void record_roundTripsOddsDeltasAndReason() {
+        OddsHistoryBuffer buffer = new OddsHistoryBuffer();
+        buffer.record(5_000, change("2.1000", "2.1500", null, "1.9000", ChangeReason.SERVICE_UPSERT));
+
+        OddsChange change = buffer.newest(1).get(0);
+
+        assertThat(change.getTimestamp()).isEqualTo(Instant.ofEpochMilli(5_000));
+        assertThat(change.getOldOddsA()).isEqualByComparingTo("2.10");
+        assertThat(change.getNewOddsA()).isEqualByComparingTo("2.15");
+        assertThat(change.getDeltaA()).isEqualByComparingTo("0.05");
+        assertThat(change.getOldOddsB()).isNull();
+        assertThat(change.getDeltaB()).isNull();
+        assertThat(change.getChangeReason()).isEqualTo(ChangeReason.SERVICE_UPSERT);
+    }
+
+    @Test
+    void full_overwritesOldestTick() {
+        OddsHistoryBuffer buffer = new OddsHistoryBuffer(4);
+        for (int t = 1; t <= 6; t++) {
+            buffer.record(t * 1_000L, change("2.0", "2.0" + t, "2.0", "2.0", ChangeReason.SERVICE_UPSERT));
+        }
+
+        assertThat(buffer.size()).isEqualTo(4);
+        assertThat(buffer.recordedCount()).isEqualTo(6);
+        assertThat(buffer.newest(10)).extracting(OddsChange::getTimestamp)
+                .containsExactly(Instant.ofEpochMilli(6_000), Instant.ofEpochMilli(5_000),
+                        Instant.ofEpochMilli(4_000), Instant.ofEpochMilli(3_000));
+    }
+
+    @Test
+    void between_isInclusiveAndNewestFirst() {
+        OddsHistoryBuffer buffer = new OddsHistoryBuffer();
+        for (int t = 1; t <= 40; t++) {
+            buffer.record(t * 1_000L, change("2.0", "2.1", "2.0", "1.9", ChangeReason.SERVICE_UPSERT));
+        }
+
+        List<OddsChange> range = buffer.between(10_000, 12_000);
+
+        assertThat(buffer.countBetween(10_000, 12_000)).isEqualTo(3);
+        assertThat(range).extracting(OddsChange::getTimestamp)
+                .containsExactly(Instant.ofEpochMilli(12_000), Instant.ofEpochMilli(11_000), Instant.ofEpochMilli(10_000));
+    }
+
+    @Test
+    void sameMillisecond_replacesNewestTick() {
+        OddsHistoryBuffer buffer = new OddsHistoryBuffer();
+        buffer.record(1_000, change("2.0", "2.1", "2.0", "1.9", ChangeReason.SERVICE_UPSERT));
+        buffer.record(1_000, change("2.0", "2.2", "2.0", "1.8", ChangeReason.SERVICE_UPSERT));
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer.newest(1).get(0).getNewOddsA()).isEqualByComparingTo("2.2");
+    }
+
+    @Test
+    void clear_forgetsEverything() {
+        OddsHistoryBuffer buffer = new OddsHistoryBuffer();
+        buffer.record(1_000, change("2.0", "2.1", "2.0", "1.9", ChangeReason.CREATED));
+
+        buffer.clear();
+
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.recordedCount()).isZero();
+        assertThat(buffer.newest(5)).isEmpty();
+    }
+
+    private static OddsChange change(String oldA, String newA, String oldB, String newB, ChangeReason reason) {
+        return OddsChange.builder()
+                .oldOddsA(oldA != null ? new BigDecimal(oldA) : null)
+                .newOddsA(newA != null ? new BigDecimal(newA) : null)
+                .oldOddsB(oldB != null ? new BigDecimal(oldB) : null)
+                .newOddsB(newB != null ? new BigDecimal(newB) : null)
+                .changeReason(reason)
+                .build();
+    }
+}
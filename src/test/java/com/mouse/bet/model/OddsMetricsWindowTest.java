@@ -0,0 +1,144 @@
+package com.mouse.bet.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OddsMetricsWindowTest {
+
+    @Test
+    void emptyWindow_hasNoMeansAndZeroMotion() {
+        OddsMetricsWindow window = new OddsMetricsWindow();
+
+        assertThat(window.meanOddsA()).isNull();
+        assertThat(window.meanOddsB()).isNull();
+        assertThat(window.velocityPctPerSec()).isZero();
+        assertThat(window.volatilitySigma(3)).isZero();
+    }
+
+    @Test
+    void sameMillisecond_replacesPreviousTick() {
+        OddsMetricsWindow window = new OddsMetricsWindow();
+        window.record(1_000, change("2.00", "2.10", "1.90", "1.95"));
+        window.record(1_000, change("2.00", "2.20", "1.90", "1.80"));
+
+        assertThat(window.count()).isEqualTo(1);
+        assertThat(window.meanOddsA()).isCloseTo(2.20, within(1e-9));
+    }
+
+    @Test
+    void slidingWindow_matchesFullRecomputation() {
+        Random random = new Random(42);
+        OddsMetricsWindow window = new OddsMetricsWindow();
+        List<Long> times = new ArrayList<>();
+        List<OddsChange> changes = new ArrayList<>();
+
+        double a = 2.0;
+        double b = 2.0;
+        long t = 0;
+        for (int i = 0; i < 500; i++) {
+            t += 200 + random.nextInt(3_000);
+            double na = a * (1 + (random.nextDouble() - 0.5) / 10);
+            double nb = b * (1 + (random.nextDouble() - 0.5) / 10);
+            OddsChange change = change(fmt(a), fmt(na), fmt(b), fmt(nb));
+            a = na;
+            b = nb;
+
+            window.record(t, change);
+            times.add(t);
+            changes.add(change);
+
+            long cutoff = t - 60_000;
+            window.evictBefore(cutoff);
+
+            List<Long> inWindowTimes = new ArrayList<>();
+            List<OddsChange> inWindow = new ArrayList<>();
+            for (int k = 0; k < changes.size(); k++) {
+                if (times.get(k) >= cutoff) {
+                    inWindowTimes.add(times.get(k));
+                    inWindow.add(changes.get(k));
+                }
+            }
+
+            assertThat(window.count()).isEqualTo(inWindow.size());
+            assertThat(window.meanOddsA()).isCloseTo(
+                    inWindow.stream().mapToDouble(c -> c.getNewOddsA().doubleValue()).average().orElseThrow(), within(1e-9));
+            assertThat(window.velocityPctPerSec()).isCloseTo(naiveVelocity(inWindowTimes, inWindow), within(1e-6));
+            assertThat(window.volatilitySigma(3)).isCloseTo(naiveVolatility(inWindow), within(1e-6));
+        }
+    }
+
+    @Test
+    void fullWindow_dropsOldestTicksLikeTheHistoryBuffer() {
+        OddsMetricsWindow window = new OddsMetricsWindow(20);
+        OddsHistoryBuffer history = new OddsHistoryBuffer(20);
+        for (int t = 0; t < 50; t++) {
+            OddsChange change = change("2.0000", fmt(2.0 + t / 100.0), "2.0000", "1.9900");
+            window.record(t * 1_000L, change);
+            history.record(t * 1_000L, change);
+        }
+
+        assertThat(window.count()).isEqualTo(20).isEqualTo(history.size());
+        assertThat(window.countSince(30_000)).isEqualTo(20);
+        assertThat(window.countSince(31_000)).isEqualTo(19);
+        // Ticks 30..49 remain: new odds A average 2.395
+        assertThat(window.meanOddsA()).isCloseTo(2.395, within(1e-9));
+        assertThat(window.copy().count()).isEqualTo(20);
+    }
+
+    @Test
+    void countSince_countsTicksAtOrAfterCutoff() {
+        OddsMetricsWindow window = new OddsMetricsWindow();
+        for (long t = 0; t < 40; t++) {
+            window.record(t * 1_000, change("2.00", "2.01", "2.00", "1.99"));
+        }
+
+        assertThat(window.countSince(30_000)).isEqualTo(10);
+        assertThat(window.countSince(0)).isEqualTo(40);
+        assertThat(window.countSince(50_000)).isZero();
+    }
+
+    private static double naiveVelocity(List<Long> times, List<OddsChange> changes) {
+        if (changes.size() < 2) return 0.0;
+        double total = changes.stream().mapToDouble(OddsMetricsWindowTest::absPct).sum();
+        long seconds = Math.max(1L, times.get(times.size() - 1) / 1000 - times.get(0) / 1000);
+        return total / seconds;
+    }
+
+    private static double naiveVolatility(List<OddsChange> changes) {
+        if (changes.size() < 3) return 0.0;
+        double[] moves = changes.stream().mapToDouble(OddsMetricsWindowTest::absPct).toArray();
+        double mean = 0;
+        for (double m : moves) mean += m;
+        mean /= moves.length;
+        double sq = 0;
+        for (double m : moves) sq += (m - mean) * (m - mean);
+        return Math.sqrt(sq / (moves.length - 1));
+    }
+
+    private static double absPct(OddsChange c) {
+        double pa = (c.getNewOddsA().doubleValue() - c.getOldOddsA().doubleValue()) / c.getOldOddsA().doubleValue() * 100;
+        double pb = (c.getNewOddsB().doubleValue() - c.getOldOddsB().doubleValue()) / c.getOldOddsB().doubleValue() * 100;
+        return (Math.abs(pa) + Math.abs(pb)) / 2.0;
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+
+    private static OddsChange change(String oldA, String newA, String oldB, String newB) {
+        return OddsChange.builder()
+                .oldOddsA(new BigDecimal(oldA))
+                .newOddsA(new BigDecimal(newA))
+                .oldOddsB(new BigDecimal(oldB))
+                .newOddsB(new BigDecimal(newB))
+                .build();
+    }
+}
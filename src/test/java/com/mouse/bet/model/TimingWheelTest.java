@@ -0,0 +1,67 @@
+package com.mouse.bet.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesAtTheTickCoveringTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 6, 4, 0);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("a", 250);
+
+        wheel.advance(200, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(300, fired::add);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadline_firesOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 6, 4, 10_000);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("late", 5_000);
+
+        wheel.advance(10_000, fired::add);
+
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    void randomDeadlines_neverEarlyNeverLostAtMostOneTickLate() {
+        Random random = new Random(7);
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 6, 2, 0);
+        List<long[]> fired = new ArrayList<>();
+        int scheduled = 0;
+
+        long now = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // Some deadlines fall past the wheel's 7 minute span and have to re-cascade
+            long deadline = now + (i % 50 == 0 ? random.nextInt(5_000_000) : random.nextInt(120_000));
+            wheel.schedule(deadline, deadline);
+            scheduled++;
+
+            now += random.nextInt(40);
+            long at = now;
+            wheel.advance(now, d -> fired.add(new long[]{d, at}));
+        }
+        while (wheel.size() > 0) {
+            now += 37;
+            long at = now;
+            wheel.advance(now, d -> fired.add(new long[]{d, at}));
+        }
+
+        assertThat(fired).hasSize(scheduled);
+        for (long[] f : fired) {
+            assertThat(f[1]).isBetween(f[0], f[0] + 100 + 40);
+        }
+    }
+}
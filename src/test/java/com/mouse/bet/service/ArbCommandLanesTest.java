@@ -0,0 +1,71 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.config.ExecutionLanes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArbCommandLanesTest {
+
+    private ExecutionLanes executionLanes;
+    private ArbCommandLanes lanes;
+
+    @BeforeEach
+    void setUp() {
+        executionLanes = new ExecutionLanes(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executionLanes, "commandThreads", 4);
+        executionLanes.init();
+        lanes = new ArbCommandLanes(executionLanes, new SimpleMeterRegistry());
+        lanes.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+        executionLanes.shutdown();
+    }
+
+    @Test
+    void commandsForOneArb_runInSubmissionOrder() throws InterruptedException {
+        List<Integer> applied = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            lanes.execute("arb-1", () -> {
+                applied.add(n);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(applied).isSorted().hasSize(1000);
+    }
+
+    @Test
+    void failingCommand_doesNotStopTheLane() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        lanes.execute("arb-1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        lanes.execute("arb-1", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void sameArb_alwaysMapsToSameLane() {
+        assertThat(lanes.laneOf("arb-1")).isEqualTo(lanes.laneOf("arb-1"));
+        assertThat(lanes.laneOf("arb-1")).isBetween(0, 3);
+    }
+}
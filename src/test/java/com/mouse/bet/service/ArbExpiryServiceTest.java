@@ -0,0 +1,73 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.enums.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArbExpiryServiceTest {
+
+    private final ArbExpiryService expiry = new ArbExpiryService(null, new SimpleMeterRegistry());
+
+    @Test
+    void activeArb_deadlineIsFirstContinuityBreak() {
+        Instant last = Instant.parse("2025-01-01T00:00:00.400Z");
+        Arb arb = Arb.builder().arbId("arb-1").lastContinuousUpdateAt(last).build();
+
+        long deadline = expiry.nextDeadline(arb);
+
+        assertThat(arb.hasContinuityBreak(Instant.ofEpochMilli(deadline - 1))).isFalse();
+        assertThat(arb.hasContinuityBreak(Instant.ofEpochMilli(deadline))).isTrue();
+    }
+
+    @Test
+    void activeArb_earlierExpiryWins() {
+        Instant last = Instant.parse("2025-01-01T00:00:00Z");
+        Arb arb = Arb.builder().arbId("arb-1").lastContinuousUpdateAt(last).expiresAt(last.plusSeconds(2)).build();
+
+        assertThat(expiry.nextDeadline(arb)).isEqualTo(last.plusSeconds(2).toEpochMilli() + 1);
+    }
+
+    @Test
+    void executingArb_hasNoDeadline() {
+        Arb arb = Arb.builder().arbId("arb-1").status(Status.IN_PROGRESS)
+                .lastContinuousUpdateAt(Instant.now()).build();
+
+        assertThat(expiry.nextDeadline(arb)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void staleArb_isIdleOnlyAfterEvictionPeriod() {
+        Instant lastSeen = Instant.parse("2025-01-01T00:00:00Z");
+        Arb arb = Arb.builder().arbId("arb-1").status(Status.STALE).lastSeenAt(lastSeen).build();
+
+        assertThat(expiry.nextDeadline(arb)).isEqualTo(lastSeen.plusSeconds(300).toEpochMilli());
+        assertThat(expiry.isIdle(arb, lastSeen.plusSeconds(299))).isFalse();
+        assertThat(expiry.isIdle(arb, lastSeen.plusSeconds(300))).isTrue();
+    }
+
+    @Test
+    void failedArbStillFlaggedActive_isRetiredAndEvicted() {
+        Instant lastSeen = Instant.parse("2025-01-01T00:00:00Z");
+        Arb arb = Arb.builder().arbId("arb-1").status(Status.FAILED).active(true).lastSeenAt(lastSeen).build();
+
+        assertThat(expiry.nextDeadline(arb)).isEqualTo(lastSeen.plusSeconds(300).toEpochMilli());
+        assertThat(expiry.isIdle(arb, lastSeen.plusSeconds(300))).isTrue();
+    }
+
+    @Test
+    void track_keepsEarliestPendingDeadline() {
+        Instant last = Instant.now();
+        Arb arb = Arb.builder().arbId("arb-1").lastContinuousUpdateAt(last).build();
+
+        expiry.track(arb);
+        arb.setLastContinuousUpdateAt(last.plusSeconds(3));
+        expiry.track(arb);
+
+        assertThat(expiry.scheduled()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.ArbSnapshot;
+import com.mouse.bet.enums.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArbSnapshotWriterTest {
+
+    private final ArbSnapshotWriter writer = new ArbSnapshotWriter(null, null, new SimpleMeterRegistry());
+
+    @Test
+    void shouldCapture_keepsAtMostOnePerInterval() {
+        ReflectionTestUtils.setField(writer, "minIntervalMs", 1_000L);
+        Arb arb = Arb.builder().arbId("arb-1").status(Status.ACTIVE).build();
+        Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+
+        assertThat(writer.shouldCapture(arb, t0)).isTrue();
+        assertThat(writer.shouldCapture(arb, t0.plusMillis(400))).isFalse();
+        assertThat(writer.shouldCapture(arb, t0.plusMillis(999))).isFalse();
+        assertThat(writer.shouldCapture(arb, t0.plusMillis(1_000))).isTrue();
+    }
+
+    @Test
+    void shouldCapture_alwaysKeepsStatusChange() {
+        ReflectionTestUtils.setField(writer, "minIntervalMs", 1_000L);
+        Arb arb = Arb.builder().arbId("arb-1").status(Status.ACTIVE).build();
+        Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+
+        writer.shouldCapture(arb, t0);
+        arb.setStatus(Status.IN_PROGRESS);
+
+        assertThat(writer.shouldCapture(arb, t0.plusMillis(10))).isTrue();
+        assertThat(writer.shouldCapture(arb, t0.plusMillis(20))).isFalse();
+    }
+
+    @Test
+    void nextValSql_matchesDatabase() {
+        assertThat(ArbSnapshotWriter.nextValSql("PostgreSQL")).isEqualTo("SELECT nextval('arb_snapshot_seq')");
+        assertThat(ArbSnapshotWriter.nextValSql("H2")).isEqualTo("SELECT NEXT VALUE FOR arb_snapshot_seq");
+    }
+
+    @Test
+    void writeQueued_retriesFailedBatchRowByRowThenRequeuesOnce() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ArbSnapshotWriter writer = queuedWriter(jdbc);
+        List<Object> ids = new ArrayList<>();
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(jdbc.update(anyString(), any(Object[].class))).thenAnswer(inv -> {
+            ids.add(inv.getArgument(1));
+            if (ids.size() == 2) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            return 1;
+        });
+
+        writer.enqueueAfterCommit("arb-1", List.of(snapshot(), snapshot()));
+        writer.writeQueued();
+
+        assertThat(counter(writer, "written")).isEqualTo(1);
+        assertThat(counter(writer, "failed")).isZero();
+
+        writer.writeQueued();
+
+        assertThat(counter(writer, "written")).isEqualTo(2);
+        assertThat(counter(writer, "failed")).isZero();
+        assertThat(ids).containsExactly(1L, 2L, 2L);
+    }
+
+    @Test
+    void writeQueued_dropsRowThatFailsAfterRequeue() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ArbSnapshotWriter writer = queuedWriter(jdbc);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(jdbc.update(anyString(), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("down"));
+
+        writer.enqueueAfterCommit("arb-1", List.of(snapshot()));
+        writer.writeQueued();
+        writer.writeQueued();
+        writer.writeQueued();
+
+        assertThat(counter(writer, "written")).isZero();
+        assertThat(counter(writer, "failed")).isEqualTo(1);
+    }
+
+    private static ArbSnapshotWriter queuedWriter(JdbcTemplate jdbc) {
+        ArbSnapshotWriter writer = new ArbSnapshotWriter(jdbc, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "queue", new ArrayBlockingQueue<>(16));
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        // Pretend a sequence block is already allocated so no id query is needed
+        ReflectionTestUtils.setField(writer, "nextId", 1L);
+        ReflectionTestUtils.setField(writer, "maxId", 50L);
+        return writer;
+    }
+
+    private static long counter(ArbSnapshotWriter writer, String field) {
+        return ((AtomicLong) ReflectionTestUtils.getField(writer, field)).get();
+    }
+
+    private static ArbSnapshot snapshot() {
+        return ArbSnapshot.builder().capturedAt(Instant.now()).status(Status.ACTIVE).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BettableArbQueueTest {
+
+    private final BettableArbQueue queue = new BettableArbQueue();
+
+    @Test
+    void update_bettableArb_entersRanking() throws Exception {
+        queue.update(candidate("arb-1", 5.0, Status.ACTIVE, Instant.now()));
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.awaitBest(0, TimeUnit.MILLISECONDS)).map(BettableArbQueue.Candidate::arbId).contains("arb-1");
+    }
+
+    @Test
+    void awaitBest_returnsHighestScore() throws Exception {
+        queue.update(candidate("low", 3.0, Status.ACTIVE, Instant.now()));
+        queue.update(candidate("high", 9.0, Status.ACTIVE, Instant.now()));
+
+        assertThat(queue.awaitBest(0, TimeUnit.MILLISECONDS)).map(BettableArbQueue.Candidate::arbId).contains("high");
+    }
+
+    @Test
+    void update_statusLeavesActive_leavesRanking() {
+        queue.update(candidate("arb-1", 5.0, Status.ACTIVE, Instant.now()));
+        queue.update(candidate("arb-1", 5.0, Status.IN_PROGRESS, Instant.now()));
+
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void update_rescored_replacesPreviousEntry() throws Exception {
+        queue.update(candidate("a", 5.0, Status.ACTIVE, Instant.now()));
+        queue.update(candidate("b", 6.0, Status.ACTIVE, Instant.now()));
+        queue.update(candidate("a", 7.0, Status.ACTIVE, Instant.now()));
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.awaitBest(0, TimeUnit.MILLISECONDS)).map(BettableArbQueue.Candidate::arbId).contains("a");
+    }
+
+    @Test
+    void awaitBest_dropsStaleHead() throws Exception {
+        queue.update(candidate("arb-1", 5.0, Status.ACTIVE, Instant.now().minusMillis(1900)));
+
+        Thread.sleep(200);
+
+        assertThat(queue.awaitBest(0, TimeUnit.MILLISECONDS)).isEmpty();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void awaitBest_wakesOnSignal() throws Exception {
+        CompletableFuture<Optional<BettableArbQueue.Candidate>> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.awaitBest(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(50);
+        queue.update(candidate("arb-1", 5.0, Status.ACTIVE, Instant.now()));
+
+        assertThat(waiter.get(1, TimeUnit.SECONDS)).isPresent();
+    }
+
+    @Test
+    void awaitBest_skipsInadmissibleWithoutDroppingThem() throws Exception {
+        queue.update(candidate("busy", 9.0, Status.ACTIVE, Instant.now()));
+        queue.update(candidate("free", 3.0, Status.ACTIVE, Instant.now()));
+
+        assertThat(queue.awaitBest(c -> !c.arbId().equals("busy"), 0, TimeUnit.MILLISECONDS))
+                .map(BettableArbQueue.Candidate::arbId).contains("free");
+        assertThat(queue.size()).isEqualTo(2);
+    }
+
+    private BettableArbQueue.Candidate candidate(String arbId, double score, Status status, Instant lastUpdatedAt) {
+        return new BettableArbQueue.Candidate(arbId, score, new BigDecimal("10"), status, true,
+                lastUpdatedAt, 30L, 0, true, EnumSet.of(BookMaker.SPORTY_BET, BookMaker.M_SPORT));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.entity.BetLeg;
+import com.mouse.bet.entity.Wallet;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.enums.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmStateCodecTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void arbRoundTrip_keepsContinuityAndLegs() {
+        Instant t0 = Instant.parse("2025-01-01T00:00:00.250Z");
+        Arb arb = Arb.builder()
+                .arbId("arb-1")
+                .status(Status.ACTIVE)
+                .gameScore(List.of("6:4", "2:1"))
+                .lastContinuousUpdateAt(t0)
+                .currentSessionStartedAt(t0.minusSeconds(30))
+                .continuityBreakCount(1)
+                .profitPercentage(new BigDecimal("2.3450"))
+                .peakProfitPercentage(new BigDecimal("123456789012345678901234.5"))
+                .confidenceScore(0.8)
+                .build();
+        arb.attachLeg(BetLeg.builder().betLegId("leg-a").bookmaker(BookMaker.SPORTY_BET)
+                .odds(new BigDecimal("2.10")).isPrimaryLeg(true).legIndex(0).build());
+        arb.attachLeg(BetLeg.builder().betLegId("leg-b").bookmaker(BookMaker.M_SPORT)
+                .odds(new BigDecimal("2.05")).legIndex(1).build());
+
+        WarmStateCodec.StateOutput out = new WarmStateCodec.StateOutput();
+        WarmStateCodec.writeArb(out, arb);
+        Arb read = WarmStateCodec.readArb(out.toPayload());
+
+        assertThat(read.getArbId()).isEqualTo("arb-1");
+        assertThat(read.getStatus()).isEqualTo(Status.ACTIVE);
+        assertThat(read.getGameScore()).containsExactly("6:4", "2:1");
+        assertThat(read.getLastContinuousUpdateAt()).isEqualTo(t0);
+        assertThat(read.getCurrentSessionStartedAt()).isEqualTo(t0.minusSeconds(30));
+        assertThat(read.getContinuityBreakCount()).isEqualTo(1);
+        assertThat(read.getProfitPercentage()).isEqualTo(new BigDecimal("2.3450"));
+        assertThat(read.getPeakProfitPercentage()).isEqualTo(new BigDecimal("123456789012345678901234.5"));
+        assertThat(read.getConfidenceScore()).isEqualTo(0.8);
+        assertThat(read.getVolatilitySigma()).isNull();
+        assertThat(read.getExpiresAt()).isNull();
+
+        assertThat(read.getLegs()).hasSize(2);
+        assertThat(read.getLegs().get(0).getArb()).isSameAs(read);
+        assertThat(read.getLegs().get(0).isPrimaryLeg()).isTrue();
+        assertThat(read.getLegs().get(1).getBookmaker()).isEqualTo(BookMaker.M_SPORT);
+        assertThat(read.getLegs().get(1).getOdds()).isEqualTo(new BigDecimal("2.05"));
+    }
+
+    @Test
+    void file_roundTripsSections() throws IOException {
+        Path file = dir.resolve("warm-state.bin");
+        WarmStateCodec.StateOutput wallets = new WarmStateCodec.StateOutput();
+        wallets.putInt(1);
+        WarmStateCodec.writeWallet(wallets, Wallet.builder().bookmaker(BookMaker.SPORTY_BET)
+                .availableBalance(new BigDecimal("1500.00")).build());
+
+        WarmStateCodec.writeFile(file, 42L,
+                List.of(new WarmStateCodec.Section(WarmStateCodec.SECTION_WALLETS, wallets.toPayload())));
+        WarmStateCodec.Snapshot snapshot = WarmStateCodec.readFile(file);
+
+        assertThat(snapshot.writtenAtMillis()).isEqualTo(42L);
+        assertThat(snapshot.corruptSections()).isZero();
+        ByteBuffer in = snapshot.sections().get(0).payload();
+        assertThat(in.getInt()).isEqualTo(1);
+        Wallet wallet = WarmStateCodec.readWallet(in);
+        assertThat(wallet.getBookmaker()).isEqualTo(BookMaker.SPORTY_BET);
+        assertThat(wallet.getAvailableBalance()).isEqualTo(new BigDecimal("1500.00"));
+    }
+
+    @Test
+    void file_skipsCorruptSection() throws IOException {
+        Path file = dir.resolve("warm-state.bin");
+        WarmStateCodec.StateOutput first = new WarmStateCodec.StateOutput();
+        first.putInt(7);
+        WarmStateCodec.StateOutput second = new WarmStateCodec.StateOutput();
+        second.putInt(8);
+        long size = WarmStateCodec.writeFile(file, 0L, List.of(
+                new WarmStateCodec.Section(WarmStateCodec.SECTION_ARBS, first.toPayload()),
+                new WarmStateCodec.Section(WarmStateCodec.SECTION_ARBS, second.toPayload())));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), size - 1);
+        }
+        WarmStateCodec.Snapshot snapshot = WarmStateCodec.readFile(file);
+
+        assertThat(snapshot.corruptSections()).isEqualTo(1);
+        assertThat(snapshot.sections()).hasSize(1);
+        assertThat(snapshot.sections().get(0).payload().getInt()).isEqualTo(7);
+    }
+}
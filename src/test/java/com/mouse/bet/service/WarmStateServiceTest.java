@@ -0,0 +1,100 @@
+package com.mouse.bet.service;
+
+import com.mouse.bet.cache.ArbCache;
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.entity.Arb;
+import com.mouse.bet.enums.Status;
+import com.mouse.bet.repository.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class WarmStateServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final ArbCache arbCache = new ArbCache();
+    private final ArbExpiryService expiryService = mock(ArbExpiryService.class);
+    private final ArbService arbService = mock(ArbService.class);
+    private final ExecutionLanes executionLanes = new ExecutionLanes(new SimpleMeterRegistry());
+    private final WarmStateService warmState = new WarmStateService(arbCache, expiryService, arbService,
+            mock(WalletRepository.class), executionLanes, new SimpleMeterRegistry());
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        executionLanes.init();
+        file = dir.resolve("warm-state.bin");
+        ReflectionTestUtils.setField(warmState, "path", file.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executionLanes.shutdown();
+    }
+
+    @Test
+    void restore_ranksRestoredActiveArbsForBetting() throws IOException {
+        Arb active = arb("arb-active", Status.ACTIVE, true);
+        Arb stale = arb("arb-stale", Status.STALE, true);
+        Arb retired = arb("arb-retired", Status.ACTIVE, false);
+        writeSnapshot(active, stale, retired);
+
+        warmState.restore();
+
+        assertThat(arbCache.contains("arb-active")).isTrue();
+        assertThat(arbCache.contains("arb-stale")).isTrue();
+        assertThat(arbCache.contains("arb-retired")).isFalse();
+        ArgumentCaptor<Arb> ranked = ArgumentCaptor.forClass(Arb.class);
+        verify(arbService).rank(ranked.capture());
+        assertThat(ranked.getValue().getArbId()).isEqualTo("arb-active");
+    }
+
+    @Test
+    void restore_leavesArbsAlreadyLiveToTheirOwnRanking() throws IOException {
+        arbCache.update("arb-1", existing -> arb("arb-1", Status.ACTIVE, true));
+        writeSnapshot(arb("arb-1", Status.ACTIVE, true));
+
+        warmState.restore();
+
+        verify(arbService, never()).rank(any());
+    }
+
+    private void writeSnapshot(Arb... arbs) throws IOException {
+        WarmStateCodec.StateOutput out = new WarmStateCodec.StateOutput();
+        out.putInt(arbs.length);
+        for (Arb arb : arbs) {
+            WarmStateCodec.writeArb(out, arb);
+        }
+        WarmStateCodec.writeFile(file, System.currentTimeMillis(),
+                List.of(new WarmStateCodec.Section(WarmStateCodec.SECTION_ARBS, out.toPayload())));
+    }
+
+    private static Arb arb(String arbId, Status status, boolean active) {
+        Instant now = Instant.now();
+        return Arb.builder()
+                .arbId(arbId)
+                .status(status)
+                .active(active)
+                .lastUpdatedAt(now)
+                .currentSessionStartedAt(now.minusSeconds(30))
+                .build();
+    }
+}
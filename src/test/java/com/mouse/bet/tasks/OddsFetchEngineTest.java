@@ -0,0 +1,123 @@
+package com.mouse.bet.tasks;
+
+import com.mouse.bet.config.ExecutionLanes;
+import com.mouse.bet.detector.ArbDetector;
+import com.mouse.bet.enums.BookMaker;
+import com.mouse.bet.interfaces.BetLegRetryHook;
+import com.mouse.bet.interfaces.OddService;
+import com.mouse.bet.model.NormalizedEvent;
+import com.mouse.bet.service.ScraperCycleSyncService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OddsFetchEngineTest {
+
+    @SuppressWarnings("unchecked")
+    private final OddService<String> oddService = mock(OddService.class);
+    private final ArbDetector arbDetector = mock(ArbDetector.class);
+    private final ScraperCycleSyncService cycleSync = mock(ScraperCycleSyncService.class);
+    private final BetLegRetryHook retryHook = mock(BetLegRetryHook.class);
+    private final AtomicBoolean windowsUp = new AtomicBoolean();
+    private final ExecutionLanes executionLanes = new ExecutionLanes(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        executionLanes.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executionLanes.shutdown();
+    }
+
+    @Test
+    void fetchCycle_skippedWhileWindowsAreDown() {
+        TestEngine engine = engine(windowsUp::get, null);
+
+        ReflectionTestUtils.invokeMethod(engine, "fetchAllSportsParallel");
+
+        verify(cycleSync, never()).waitForPartner(anyString(), any(Duration.class));
+    }
+
+    @Test
+    void fetchCycle_waitsForPartnerOnceWindowsAreUp() {
+        TestEngine engine = engine(windowsUp::get, null);
+        windowsUp.set(true);
+
+        ReflectionTestUtils.invokeMethod(engine, "fetchAllSportsParallel");
+
+        verify(cycleSync).waitForPartner(anyString(), any(Duration.class));
+    }
+
+    @Test
+    void parsedEvent_goesToRetryHookAndDetector() {
+        NormalizedEvent normalized = NormalizedEvent.builder().eventId("ev-1").build();
+        when(oddService.convertToNormalEvent("payload")).thenReturn(normalized);
+        TestEngine engine = engine(windowsUp::get, retryHook);
+
+        ReflectionTestUtils.invokeMethod(engine, "processParsedEvent", "payload", 0L);
+
+        verify(arbDetector).addEventToPool(normalized);
+        verify(retryHook, timeout(5_000)).updateFailedBetLeg(normalized, BookMaker.SPORTY_BET);
+    }
+
+    @Test
+    void parsedEvent_stillReachesDetectorWithoutRetryHook() {
+        NormalizedEvent normalized = NormalizedEvent.builder().eventId("ev-1").build();
+        when(oddService.convertToNormalEvent("payload")).thenReturn(normalized);
+        TestEngine engine = engine(windowsUp::get, null);
+
+        ReflectionTestUtils.invokeMethod(engine, "processParsedEvent", "payload", 0L);
+
+        verify(arbDetector).addEventToPool(normalized);
+    }
+
+    private TestEngine engine(BooleanSupplier windowsReady, BetLegRetryHook hook) {
+        TestEngine engine = new TestEngine(windowsReady, hook);
+        ((AtomicBoolean) ReflectionTestUtils.getField(engine, "setupCompleted")).set(true);
+        return engine;
+    }
+
+    private class TestEngine extends OddsFetchEngine<String> {
+
+        TestEngine(BooleanSupplier windowsReady, BetLegRetryHook hook) {
+            super(BookMaker.SPORTY_BET, "Test", oddService, arbDetector, null, cycleSync, windowsReady, hook,
+                    executionLanes, new SimpleMeterRegistry());
+        }
+
+        @Override
+        protected String eventsListUrl(String sportId) {
+            return "http://localhost/events/" + sportId;
+        }
+
+        @Override
+        protected String eventDetailUrl(String eventId) {
+            return "http://localhost/event/" + eventId;
+        }
+
+        @Override
+        protected void addHeaders(Request.Builder request) {
+        }
+
+        @Override
+        protected String parseEventDetail(String detailJson) {
+            return detailJson;
+        }
+    }
+}
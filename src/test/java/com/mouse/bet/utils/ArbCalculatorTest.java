@@ -0,0 +1,74 @@
+package com.mouse.bet.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ArbCalculatorTest {
+
+    @Test
+    void toMilliOdds_scalesDecimalOdds() {
+        assertThat(ArbCalculator.toMilliOdds(new BigDecimal("1.85"))).isEqualTo(1850);
+        assertThat(ArbCalculator.toMilliOdds(new BigDecimal("12.5"))).isEqualTo(12500);
+        assertThat(ArbCalculator.toMilliOdds(null)).isZero();
+        assertThat(ArbCalculator.toMilliOdds(BigDecimal.ZERO)).isZero();
+    }
+
+    @Test
+    void passesArbScreen_rejectsNonArbs() {
+        assertThat(ArbCalculator.passesArbScreen(1900, 1900)).isFalse();
+        assertThat(ArbCalculator.passesArbScreen(1800, 2100)).isFalse();
+        assertThat(ArbCalculator.passesArbScreen(1000, 50000)).isFalse();
+        assertThat(ArbCalculator.passesArbScreen(0, 3000)).isFalse();
+    }
+
+    @Test
+    void passesArbScreen_acceptsArbs() {
+        assertThat(ArbCalculator.passesArbScreen(2100, 2100)).isTrue();
+        assertThat(ArbCalculator.passesArbScreen(1500, 3100)).isTrue();
+    }
+
+    @Test
+    void passesArbScreen_neverRejectsWhatFullPrecisionAccepts() {
+        for (int a = 1010; a <= 5000; a += 7) {
+            for (int b = 1010; b <= 5000; b += 11) {
+                BigDecimal percent = ArbCalculator.calculateArbitragePercentage(
+                        BigDecimal.valueOf(a, 3), BigDecimal.valueOf(b, 3));
+                if (percent.compareTo(BigDecimal.valueOf(100)) < 0) {
+                    assertThat(ArbCalculator.passesArbScreen(a, b)).as("%d / %d", a, b).isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void stakesForLegs_twoLegs_matchesPairFormula() {
+        BigDecimal a = new BigDecimal("2.10");
+        BigDecimal b = new BigDecimal("2.05");
+        BigDecimal total = new BigDecimal("1000");
+
+        List<BigDecimal> stakes = ArbCalculator.stakesForLegs(List.of(a, b), total);
+
+        assertThat(stakes.get(0)).isCloseTo(ArbCalculator.stakeForBookieA(a, b, total), within(new BigDecimal("0.0001")));
+        assertThat(stakes.get(1)).isCloseTo(ArbCalculator.stakeForBookieB(a, b, total), within(new BigDecimal("0.0001")));
+    }
+
+    @Test
+    void stakesForLegs_threeLegs_equalisePayout() {
+        List<BigDecimal> odds = List.of(new BigDecimal("3.40"), new BigDecimal("3.60"), new BigDecimal("3.10"));
+
+        List<BigDecimal> stakes = ArbCalculator.stakesForLegs(odds, new BigDecimal("1000"));
+
+        assertThat(stakes.stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isCloseTo(new BigDecimal("1000"), within(new BigDecimal("0.0001")));
+        BigDecimal payout = stakes.get(0).multiply(odds.get(0));
+        for (int i = 1; i < odds.size(); i++) {
+            assertThat(stakes.get(i).multiply(odds.get(i))).isCloseTo(payout, within(new BigDecimal("0.0001")));
+        }
+        assertThat(ArbCalculator.calculateArbitragePercentage(odds)).isLessThan(BigDecimal.valueOf(100));
+    }
+}